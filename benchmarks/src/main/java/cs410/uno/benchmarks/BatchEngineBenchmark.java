@@ -0,0 +1,91 @@
+package cs410.uno.benchmarks;
+import cs410.uno.BatchEngine;
+import cs410.uno.GameConfig;
+import cs410.uno.GameEventListener;
+import cs410.uno.GameState;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the lockstep batch engine against one GameState per game, both playing
+ * the default strategy without any listener; the score is games per second.
+ *     - batch: GAMES games, played batchSize at a time by a BatchEngine.
+ *     - gameState: the same number of games, played one after the other by a GameState.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchEngineBenchmark {
+    // Number of games played per invocation.
+    private static final int GAMES = 4096;
+
+    // Number of turns after which a game is stopped without a winner.
+    private static final int MAX_TURNS = 10_000;
+
+    @Param({"64", "512", "4096"})
+    public int batchSize;
+
+    @Param({"2", "4", "8"})
+    public int players;
+
+    @Param({"2/1/4", "10/5/20"})
+    public String deck;
+
+    private GameConfig config;
+    private BatchEngine batch;
+    private GameState game;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[] counts = DeckBenchmark.parseDeck(this.deck);
+        this.config = new GameConfig(this.players, 7, counts[0], counts[1], counts[2]);
+        this.batch = new BatchEngine(this.config, this.batchSize);
+        this.random = new SplittableRandom(42);
+        this.game = new GameState(this.config, this.random.split(), GameEventListener.NONE);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public int batch() {
+        int turns = 0;
+        for (int i = 0; i < GAMES; i += this.batchSize) {
+            for (int game = 0; game < this.batchSize; game++) {
+                this.batch.start(game, this.random.split());
+            }
+            this.batch.run(MAX_TURNS);
+            turns += this.batch.getTurnCount(0);
+        }
+        return turns;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public int gameState() {
+        int turns = 0;
+        for (int i = 0; i < GAMES; i++) {
+            this.game.restart(this.random.split());
+            while (this.game.getWinnerIdx() < 0 && this.game.getTurnCount() < MAX_TURNS) {
+                this.game.runOneTurn();
+            }
+            turns += this.game.getTurnCount();
+        }
+        return turns;
+    }
+}
@@ -0,0 +1,23 @@
+package cs410.uno.benchmarks;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar. It accepts the usual JMH command-line options
+ * and always adds the GC profiler, so every run reports the allocation rate
+ * (gc.alloc.rate.norm is the number of bytes allocated per operation).
+ *
+ * Example: java -jar target/benchmarks.jar -rf json -rff baseline.json
+ */
+public class BenchmarkMain {
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,90 @@
+package cs410.uno.benchmarks;
+import cs410.uno.Card;
+import cs410.uno.Deck;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the deck operations: drawing a card and refreshing the draw pile
+ * from the discard pile.
+ *
+ * The deck parameter is the composition of the deck, written as
+ * "digit cards per color/special cards per color/wild cards".
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBenchmark {
+    @Param({"1/1/0", "2/1/4", "10/5/20"})
+    public String deck;
+
+    private Deck drawDeck;
+    private Deck refreshDeck;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        int[] counts = parseDeck(this.deck);
+        this.drawDeck = new Deck(counts[0], counts[1], counts[2], new SplittableRandom(1));
+        this.drawDeck.addCardToDiscard(this.drawDeck.draw());
+        this.refreshDeck = new Deck(counts[0], counts[1], counts[2], new SplittableRandom(2));
+    }
+
+    /**
+     * Moves every card of the draw pile to the discard pile, so that the next
+     * refreshDrawPile() has a full discard pile to shuffle.
+     */
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        while (!this.refreshDeck.isEmpty()) {
+            this.refreshDeck.addCardToDiscard(this.refreshDeck.draw());
+        }
+    }
+
+    /**
+     * Draws a card and discards it, refreshing the draw pile whenever it runs out,
+     * like a game does.
+     */
+    @Benchmark
+    public void draw(Blackhole blackhole) {
+        if (this.drawDeck.isEmpty()) {
+            this.drawDeck.refreshDrawPile();
+        }
+        Card card = this.drawDeck.draw();
+        blackhole.consume(card);
+        this.drawDeck.addCardToDiscard(card);
+    }
+
+    /**
+     * Refreshes the draw pile from a discard pile that holds the whole deck.
+     */
+    @Benchmark
+    public int refreshDrawPile() {
+        this.refreshDeck.refreshDrawPile();
+        return this.refreshDeck.getDrawPileSize();
+    }
+
+    /**
+     * @return the digit, special and wild card counts of a deck parameter.
+     */
+    static int[] parseDeck(String deck) {
+        String[] parts = deck.split("/");
+        return new int[] {Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                Integer.parseInt(parts[2])};
+    }
+}
@@ -0,0 +1,106 @@
+package cs410.uno.benchmarks;
+import cs410.uno.Card;
+import cs410.uno.GameConfig;
+import cs410.uno.GameEventListener;
+import cs410.uno.GameState;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the game engine, run without any listener:
+ *     - isPlayable: one playability check against the top discard card.
+ *     - playMatchingCardOrDraw: the current player plays or draws.
+ *     - runOneTurn: one full turn; the score is turns per second.
+ *     - fullGame: one game from the deal to the winner; the score is games per second.
+ *
+ * When a game is over, it is restarted in place, so the measurements include
+ * dealing new games as often as a simulation would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStateBenchmark {
+    // Number of turns after which a game of fullGame is stopped without a winner.
+    private static final int MAX_TURNS = 10_000;
+
+    @Param({"2", "4", "8"})
+    public int players;
+
+    @Param({"7", "20"})
+    public int handSize;
+
+    @Param({"1/1/0", "2/1/4", "10/5/20"})
+    public String deck;
+
+    private GameState game;
+    private SplittableRandom random;
+    private Card[] cards;
+    private int nextCard;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int[] counts = DeckBenchmark.parseDeck(this.deck);
+        GameConfig config = new GameConfig(this.players, this.handSize,
+                counts[0], counts[1], counts[2]);
+        this.random = new SplittableRandom(42);
+        this.game = new GameState(config, this.random.split(), GameEventListener.NONE);
+        this.cards = new Card[Card.NUM_CODES];
+        for (int code = 0; code < Card.NUM_CODES; code++) {
+            this.cards[code] = Card.fromCode(code);
+        }
+    }
+
+    /**
+     * Restarts the game if it is over, so the next operation has a turn to play.
+     */
+    private void ensureGameRunning() {
+        if (this.game.getWinnerIdx() >= 0 || this.game.getTurnCount() >= MAX_TURNS) {
+            this.game.restart(this.random.split());
+        }
+    }
+
+    @Benchmark
+    public boolean isPlayable() {
+        Card card = this.cards[this.nextCard];
+        this.nextCard = this.nextCard + 1 == this.cards.length ? 0 : this.nextCard + 1;
+        return this.game.isPlayable(card);
+    }
+
+    @Benchmark
+    public void playMatchingCardOrDraw(Blackhole blackhole) {
+        ensureGameRunning();
+        this.game.playMatchingCardOrDraw();
+        blackhole.consume(this.game.getDeck().getTopDiscardCard());
+    }
+
+    @Benchmark
+    public void runOneTurn() {
+        ensureGameRunning();
+        this.game.runOneTurn();
+    }
+
+    @Benchmark
+    public int fullGame() {
+        this.game.restart(this.random.split());
+        while (this.game.getWinnerIdx() < 0 && this.game.getTurnCount() < MAX_TURNS) {
+            this.game.runOneTurn();
+        }
+        return this.game.getTurnCount();
+    }
+}
@@ -0,0 +1,423 @@
+package cs410.uno;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * Plays many independent games of the same configuration in lockstep, for large studies
+ * where every player follows the default strategy (FirstPlayableStrategy).
+ *
+ * Instead of one GameState per game, the state of every game lives in a few primitive
+ * arrays indexed by game (structure of arrays): the hands as counts per card code with a
+ * bitmask of the codes held, both piles as card codes, and the top card, active color,
+ * current player, direction, turn count and winner of each game. runOneTurn() advances
+ * every game that is still going by one turn in a single loop over these arrays.
+ *
+ * The rules are those of GameState.runOneTurn(), step for step, including the order in
+ * which randomness is drawn: a game started here with a generator plays exactly like
+ * new GameState(config, random, GameEventListener.NONE) with a generator in the same state.
+ * Only decks kept as arrays are supported (fewer than GameState.COUNTED_DECK_MIN_CARDS
+ * cards), since a batch of counted decks would gain nothing from the layout.
+ *
+ * A playability check is already a single AND of two longs (see Card.playableMask()),
+ * so the loop is scalar; the JDK Vector API is an incubator module in this Java version
+ * and would not shorten it.
+ *
+ * This class contains the following methods:
+ *     - start() - Deals a new game, or every game from a seed.
+ *     - runOneTurn() - Plays one turn of every game that is not over.
+ *     - run() - Plays every game until it is over or reaches a number of turns.
+ *     - getters for the number of games, the games still going, and each game's state.
+ */
+public class BatchEngine {
+    // Number of colors.
+    private static final int NUM_COLORS = 4;
+
+    // Configuration of every game.
+    private final GameConfig config;
+
+    // Number of games, players per game, and cards per deck.
+    private final int countGames;
+    private final int countPlayers;
+    private final int deckSize;
+
+    // Codes of a full deck, in the order Deck fills it before shuffling.
+    private final byte[] fullDeck;
+
+    // Hands, indexed by game * countPlayers + player (a hand index): number of cards of
+    // each code at hand * Card.NUM_CODES + code, the bitmask of the codes held,
+    // and the number of cards.
+    private final short[] handCounts;
+    private final long[] handMasks;
+    private final int[] handSizes;
+
+    // Piles of each game, in the slice [game * deckSize, (game + 1) * deckSize), with the
+    // top at the end; the bottom unshuffledSizes cards of a draw pile are not shuffled yet.
+    private final byte[] drawPiles;
+    private final int[] drawSizes;
+    private final int[] unshuffledSizes;
+    private final byte[] discardPiles;
+    private final int[] discardSizes;
+
+    // Code of the top card of each discard pile.
+    private final int[] topCodes;
+
+    // Turn fields of each game.
+    private final int[] currentPlayers;
+    private final int[] directions;
+    private final int[] activeColors;
+    private final int[] turnCounts;
+    private final int[] winners;
+
+    // Randomness of each game (wild colors) and of its deck (shuffling).
+    private final SplittableGenerator[] randoms;
+    private final RandomGenerator[] deckRandoms;
+
+    // Games that are not over, in the first countLiveGames entries.
+    private final int[] liveGames;
+    private int countLiveGames;
+
+    /**
+     * Constructor that allocates the state of the given number of games.
+     * The games are not dealt until start() is called.
+     * @param config configuration of every game.
+     * @param countGames number of games played at once.
+     */
+    public BatchEngine(GameConfig config, int countGames) {
+        long deckSize = Deck.countCards(config.getCountDigitCardsPerColor(),
+                config.getCountSpecialCardsPerColor(), config.getCountWildCards());
+        if (countGames <= 0 || deckSize >= GameState.COUNTED_DECK_MIN_CARDS) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        // Let GameState check the rest of the configuration.
+        new GameState(config, new SplittableRandom(0), GameEventListener.NONE);
+
+        this.config = config;
+        this.countGames = countGames;
+        this.countPlayers = config.getCountPlayers();
+        this.deckSize = (int) deckSize;
+        this.fullDeck = new byte[this.deckSize];
+        fillInDeckOrder();
+
+        int countHands = countGames * this.countPlayers;
+        this.handCounts = new short[countHands * Card.NUM_CODES];
+        this.handMasks = new long[countHands];
+        this.handSizes = new int[countHands];
+        this.drawPiles = new byte[countGames * this.deckSize];
+        this.drawSizes = new int[countGames];
+        this.unshuffledSizes = new int[countGames];
+        this.discardPiles = new byte[countGames * this.deckSize];
+        this.discardSizes = new int[countGames];
+        this.topCodes = new int[countGames];
+        this.currentPlayers = new int[countGames];
+        this.directions = new int[countGames];
+        this.activeColors = new int[countGames];
+        this.turnCounts = new int[countGames];
+        this.winners = new int[countGames];
+        this.randoms = new SplittableGenerator[countGames];
+        this.deckRandoms = new RandomGenerator[countGames];
+        this.liveGames = new int[countGames];
+    }
+
+    /**
+     * Fills fullDeck in the order of Deck.fillDeck(): for each color, countDigitCardsPerColor rounds
+     * of the digits 0-9, then countSpecialCardsPerColor rounds of the special cards;
+     * then the wild cards.
+     */
+    private void fillInDeckOrder() {
+        int size = 0;
+        for (int color = 0; color < NUM_COLORS; color++) {
+            for (int i = 0; i < this.config.getCountDigitCardsPerColor(); i++) {
+                for (int digit = 0; digit < Card.SKIP; digit++) {
+                    this.fullDeck[size++] = (byte) Card.codeOf(color, digit);
+                }
+            }
+            for (int i = 0; i < this.config.getCountSpecialCardsPerColor(); i++) {
+                for (int rank = Card.SKIP; rank <= Card.WILD; rank++) {
+                    this.fullDeck[size++] = (byte) Card.codeOf(color, rank);
+                }
+            }
+        }
+        for (int i = 0; i < this.config.getCountWildCards(); i++) {
+            this.fullDeck[size++] = (byte) Card.WILD_CODE;
+        }
+    }
+
+    /**
+     * Deals every game, each with its own generator split from one seeded with the seed.
+     * @param seed seed from which the randomness of every game is derived.
+     */
+    public void start(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int game = 0; game < this.countGames; game++) {
+            start(game, random.split());
+        }
+    }
+
+    /**
+     * Deals a new game in the given slot, like new GameState(config, random, NONE).
+     * @param game index of the game.
+     * @param random source of randomness of the game, owned by this engine from now on.
+     */
+    public void start(int game, SplittableGenerator random) {
+        if (this.randoms[game] == null || this.winners[game] >= 0) {
+            this.liveGames[this.countLiveGames++] = game;
+        }
+        this.randoms[game] = random;
+        this.deckRandoms[game] = random.split();
+
+        // Fill and lazily shuffle the draw pile, like Deck.fillDeck().
+        int pile = game * this.deckSize;
+        System.arraycopy(this.fullDeck, 0, this.drawPiles, pile, this.deckSize);
+        this.drawSizes[game] = this.deckSize;
+        this.unshuffledSizes[game] = this.deckSize;
+        this.discardSizes[game] = 0;
+
+        // Deal the hands, like GameState.dealNewGame().
+        this.currentPlayers[game] = 0;
+        this.directions[game] = 1;
+        this.turnCounts[game] = 0;
+        this.winners[game] = -1;
+        int count = this.config.getCountInitialCardsPerPlayer();
+        for (int player = 0; player < this.countPlayers; player++) {
+            int hand = game * this.countPlayers + player;
+            Arrays.fill(this.handCounts, hand * Card.NUM_CODES,
+                    (hand + 1) * Card.NUM_CODES, (short) 0);
+            this.handMasks[hand] = 0;
+            this.handSizes[hand] = 0;
+            if (count > this.drawSizes[game]) {
+                throw new IllegalStateException("Draw pile is empty!");
+            }
+            while (this.unshuffledSizes[game] > this.drawSizes[game] - count) {
+                shuffleNext(game);
+            }
+            this.drawSizes[game] -= count;
+            for (int i = 0; i < count; i++) {
+                addToHand(hand, this.drawPiles[pile + this.drawSizes[game] + i]);
+            }
+        }
+        if (this.drawSizes[game] == 0) {
+            throw new IllegalStateException("Draw pile is empty!");
+        }
+        int topCode = draw(game);
+        discard(game, topCode);
+        this.activeColors[game] = Card.rankOf(topCode) == Card.WILD
+                ? random.nextInt(NUM_COLORS) : Card.colorOf(topCode);
+    }
+
+    /**
+     * Plays one turn of every game that is not over, like GameState.runOneTurn().
+     * @return the number of games that are not over.
+     */
+    public int runOneTurn() {
+        int i = 0;
+        while (i < this.countLiveGames) {
+            int game = this.liveGames[i];
+            playTurn(game);
+            if (this.winners[game] >= 0) {
+                this.liveGames[i] = this.liveGames[--this.countLiveGames];
+            } else {
+                i++;
+            }
+        }
+        return this.countLiveGames;
+    }
+
+    /**
+     * Plays every game until it is over or has played the given number of turns.
+     * @param maxTurnsPerGame number of turns after which a game is stopped without a winner.
+     */
+    public void run(int maxTurnsPerGame) {
+        for (int turn = 0; turn < maxTurnsPerGame && this.countLiveGames > 0; turn++) {
+            runOneTurn();
+        }
+    }
+
+    /**
+     * Plays one turn of the game: the current player plays their playable card with the
+     * lowest code, or draws a card and plays it if they can, then the effect of the
+     * played card is applied and the turn passes on.
+     */
+    private void playTurn(int game) {
+        if (this.drawSizes[game] == 0) {
+            refreshDrawPile(game);
+        }
+        int player = this.currentPlayers[game];
+        int hand = game * this.countPlayers + player;
+        long playableMask = Card.playableMask(this.topCodes[game], this.activeColors[game]);
+        long playable = this.handMasks[hand] & playableMask;
+        int code;
+        if (playable != 0) {
+            code = Long.numberOfTrailingZeros(playable);
+            removeFromHand(hand, code);
+            discard(game, code);
+            if (this.handSizes[hand] == 0) {
+                this.winners[game] = player;
+            }
+        } else {
+            code = drawCard(game);
+            if (code >= 0 && (playableMask & (1L << code)) != 0) {
+                discard(game, code);
+            } else {
+                if (code >= 0) {
+                    addToHand(hand, code);
+                }
+                code = -1;
+            }
+        }
+
+        // Apply the card played this turn, if any, and pass the turn on.
+        int direction = this.directions[game];
+        int next = seatAfter(player, direction);
+        if (code >= 0) {
+            int rank = Card.rankOf(code);
+            if (rank == Card.WILD) {
+                this.activeColors[game] = this.randoms[game].nextInt(NUM_COLORS);
+            } else {
+                this.activeColors[game] = Card.colorOf(code);
+                if (rank == Card.SKIP) {
+                    next = seatAfter(next, direction);
+                } else if (rank == Card.REVERSE) {
+                    this.directions[game] = -direction;
+                    next = seatAfter(player, -direction);
+                } else if (rank == Card.DRAW_TWO) {
+                    int nextHand = game * this.countPlayers + next;
+                    for (int i = 0; i < 2; i++) {
+                        int drawn = drawCard(game);
+                        if (drawn >= 0) {
+                            addToHand(nextHand, drawn);
+                        }
+                    }
+                    next = seatAfter(next, direction);
+                }
+            }
+        }
+        this.currentPlayers[game] = next;
+        this.turnCounts[game]++;
+    }
+
+    /**
+     * @return the seat after the given one in the given direction of play.
+     */
+    private int seatAfter(int seat, int direction) {
+        int next = seat + direction;
+        if (next == this.countPlayers) {
+            return 0;
+        } else if (next < 0) {
+            return this.countPlayers - 1;
+        }
+        return next;
+    }
+
+    private void addToHand(int hand, int code) {
+        this.handCounts[hand * Card.NUM_CODES + code]++;
+        this.handMasks[hand] |= 1L << code;
+        this.handSizes[hand]++;
+    }
+
+    private void removeFromHand(int hand, int code) {
+        if (--this.handCounts[hand * Card.NUM_CODES + code] == 0) {
+            this.handMasks[hand] &= ~(1L << code);
+        }
+        this.handSizes[hand]--;
+    }
+
+    private void discard(int game, int code) {
+        this.discardPiles[game * this.deckSize + this.discardSizes[game]++] = (byte) code;
+        this.topCodes[game] = code;
+    }
+
+    /**
+     * Draws a card, refreshing the draw pile first if it is empty, like GameState.
+     * @return the code of the card, or -1 if both piles are out of cards to draw.
+     */
+    private int drawCard(int game) {
+        if (this.drawSizes[game] == 0) {
+            refreshDrawPile(game);
+            if (this.drawSizes[game] == 0) {
+                return -1;
+            }
+        }
+        return draw(game);
+    }
+
+    /**
+     * Removes the top card of the draw pile, shuffling it into place first, like Deck.draw().
+     */
+    private int draw(int game) {
+        if (this.drawSizes[game] == this.unshuffledSizes[game]) {
+            shuffleNext(game);
+        }
+        return this.drawPiles[game * this.deckSize + --this.drawSizes[game]];
+    }
+
+    /**
+     * One step of the lazy Fisher-Yates shuffle of the draw pile, like Deck.
+     */
+    private void shuffleNext(int game) {
+        int pile = game * this.deckSize;
+        int top = --this.unshuffledSizes[game];
+        int j = this.deckRandoms[game].nextInt(top + 1);
+        byte code = this.drawPiles[pile + top];
+        this.drawPiles[pile + top] = this.drawPiles[pile + j];
+        this.drawPiles[pile + j] = code;
+    }
+
+    /**
+     * Moves every card of the discard pile but the top one to the draw pile,
+     * in the same order, and shuffles it, like Deck.refreshDrawPile().
+     */
+    private void refreshDrawPile(int game) {
+        int countCards = this.discardSizes[game];
+        if (countCards > 0 && this.drawSizes[game] == 0) {
+            int pile = game * this.deckSize;
+            System.arraycopy(this.discardPiles, pile, this.drawPiles, pile, countCards - 1);
+            this.discardPiles[pile] = this.discardPiles[pile + countCards - 1];
+            this.discardSizes[game] = 1;
+            this.drawSizes[game] = countCards - 1;
+            this.unshuffledSizes[game] = countCards - 1;
+        }
+    }
+
+    // Getters.
+    public GameConfig getConfig() {
+        return this.config;
+    }
+    public int getCountGames() {
+        return this.countGames;
+    }
+    public int getCountLiveGames() {
+        return this.countLiveGames;
+    }
+    public boolean isGameOver(int game) {
+        return this.winners[game] >= 0;
+    }
+    public int getWinnerIdx(int game) {
+        return this.winners[game];
+    }
+    public int getTurnCount(int game) {
+        return this.turnCounts[game];
+    }
+    public int getCurrentPlayerIdx(int game) {
+        return this.currentPlayers[game];
+    }
+    public int getDirection(int game) {
+        return this.directions[game];
+    }
+    public int getActiveColorIdx(int game) {
+        return this.activeColors[game];
+    }
+    public Card getTopDiscardCard(int game) {
+        return Card.fromCode(this.topCodes[game]);
+    }
+    public int getDrawPileSize(int game) {
+        return this.drawSizes[game];
+    }
+    public int getHandSize(int game, int player) {
+        return this.handSizes[game * this.countPlayers + player];
+    }
+    public long getHandMask(int game, int player) {
+        return this.handMasks[game * this.countPlayers + player];
+    }
+}
@@ -1,9 +1,5 @@
 package cs410.uno;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Objects;
-
 /**
  * Represents a card in Uno.
  *
@@ -21,18 +17,25 @@ import java.util.Objects;
  *                    to play a card that turn.
  *
  * A card is considered a wild card if it has no color, but the player declares a
- * wild card's effective color when the card is played.
+ * wild card's effective color when the card is played. The declared color is kept by
+ * the game state as its active color, so cards are immutable and can be shared.
  *
  * Invariant: A card must follow the criteria listed above;
  *            a card can only be a normal or a wild card.
  *
+ * Internally, a card is packed into a single byte code that combines its color and rank
+ * (digits 0-9, then SKIP, REVERSE, DRAW TWO and WILD). Every canonical card lives once in
+ * a static flyweight table, so the checks below are plain integer operations and
+ * fromCode() returns a shared instance instead of allocating a new one.
+ *
  * This class contains three constructors: one for wild cards, one for normal cards,
- * and one for special cards.
+ * and one for special cards. They act as a facade over the table of canonical cards.
  * It also contains the following methods:
+ *      - fromCode() - Returns the canonical card for the given code.
+ *      - getCode() - Returns the packed code of the card.
  *      - getDigit() - Returns the digit of the card.
  *      - getSpecialInstruct() - Returns the special instruction of the card.
  *      - getColor() - Returns the color of the card.
- *      - setColor() - Sets the color for the wild card.
  *      - isSpecial() - Checks whether a card contains a special instruction.
  *      - isWild() - Checks whether a card is a wild card.
  *      - isNormal() - Checks whether a card is a normal card.
@@ -42,7 +45,8 @@ import java.util.Objects;
  *                                including the wild card.
  *      - toString() - Returns the formatted String of the card, showing the color,
  *                     digit, and special instruction.
- *      - equals() - Returns true if the object is an instance of the Card class, false otherwise.
+ *      - equals() - Returns true if the object is a Card with the same code, false otherwise.
+ *      - hashCode() - Returns the code of the card.
  */
 public class Card {
     // Represents the list of colors that a card can represent.
@@ -54,28 +58,107 @@ public class Card {
     // Represents the list of special cards that a card can represent.
     private static final String[] specialInstructs = {"SKIP", "REVERSE", "DRAW TWO", "WILD"};
 
-    // Represents the color of the card.
-    private String color;
+    // Color index of a wild card that has no color yet.
+    static final int NO_COLOR = 4;
+
+    // Ranks of the special cards; ranks 0-9 are the digits themselves.
+    static final int SKIP = 10;
+    static final int REVERSE = 11;
+    static final int DRAW_TWO = 12;
+    static final int WILD = 13;
+
+    // Number of ranks per color (10 digits and 4 special instructions).
+    private static final int RANKS_PER_COLOR = 14;
+
+    // Code of the wild card without a color.
+    static final int WILD_CODE = 4 * RANKS_PER_COLOR;
+
+    // Number of distinct cards; every code is in the range [0, NUM_CODES).
+    public static final int NUM_CODES = WILD_CODE + 1;
+
+    // Color index and rank of each code.
+    private static final byte[] COLOR_OF = new byte[NUM_CODES];
+    private static final byte[] RANK_OF = new byte[NUM_CODES];
+
+    // Formatted String of each code, so toString() never has to format.
+    private static final String[] NAMES = new String[NUM_CODES];
+
+    // Flyweight table with the canonical card of each code.
+    private static final Card[] TABLE = new Card[NUM_CODES];
+
+    // Bitmask of the codes of each color index (bit c is set for code c).
+    private static final long[] COLOR_MASKS = new long[NO_COLOR + 1];
 
-    // Represents the digit of the card.
-    private final int digit;
+    // Bitmask of the codes that have the same digit as each code (see getDigit()).
+    private static final long[] SAME_DIGIT_MASKS = new long[NUM_CODES];
 
-    // Represents a special instruction of the card.
-    private final String specialInstruct;
+    // Bitmask of the codes of the wild cards.
+    static final long WILD_MASK;
+
+    // Bitmask of the codes that can be played on each pair of top card and active color,
+    // at index topCode * (NO_COLOR + 1) + activeColor.
+    private static final long[] PLAYABLE_MASKS = new long[NUM_CODES * (NO_COLOR + 1)];
+
+    static {
+        for (int code = 0; code < NUM_CODES; code++) {
+            int color = code == WILD_CODE ? NO_COLOR : code / RANKS_PER_COLOR;
+            int rank = code == WILD_CODE ? WILD : code % RANKS_PER_COLOR;
+            COLOR_OF[code] = (byte) color;
+            RANK_OF[code] = (byte) rank;
+
+            String colorName = color == NO_COLOR ? "~" : colors[color];
+            if (rank < SKIP) {
+                NAMES[code] = String.format("%s %d %s\n", colorName, rank, "NORMAL");
+            } else {
+                NAMES[code] = String.format("%s %s\n", colorName, specialInstructs[rank - SKIP]);
+            }
+            TABLE[code] = new Card(code);
+        }
+
+        long wildMask = 0;
+        for (int code = 0; code < NUM_CODES; code++) {
+            COLOR_MASKS[COLOR_OF[code]] |= 1L << code;
+            if (RANK_OF[code] == WILD) {
+                wildMask |= 1L << code;
+            }
+            for (int other = 0; other < NUM_CODES; other++) {
+                if (TABLE[code].getDigit() == TABLE[other].getDigit()) {
+                    SAME_DIGIT_MASKS[code] |= 1L << other;
+                }
+            }
+        }
+        WILD_MASK = wildMask;
+
+        // A card is playable if it is wild, has the active color, or has the digit of the top card.
+        for (int top = 0; top < NUM_CODES; top++) {
+            for (int color = 0; color <= NO_COLOR; color++) {
+                PLAYABLE_MASKS[top * (NO_COLOR + 1) + color] =
+                        WILD_MASK | COLOR_MASKS[color] | SAME_DIGIT_MASKS[top];
+            }
+        }
+    }
+
+    // Represents the packed color and rank of the card.
+    private final byte code;
+
+    /**
+     * Constructor used by the flyweight table.
+     * @param code the packed code of the card.
+     */
+    private Card(int code) {
+        this.code = (byte) code;
+    }
 
     /**
      * Constructor that initializes the wild card.
      * @param wildCard represents the wild card.
      */
     public Card(String wildCard) {
-        // If the input string is "WILD", set specialInstruct to
-        // represent the wild card special instruction.
+        // If the input string is "WILD", use the code of the wild card without a color.
         // Otherwise, throw an IllegalArgumentException.
         wildCard = wildCard.toUpperCase();
         if (wildCard.equals("WILD")) {
-            this.color = "~";
-            this.digit = -1;
-            this.specialInstruct = "WILD";
+            this.code = (byte) WILD_CODE;
         } else {
             throw new IllegalArgumentException("Invalid input");
         }
@@ -89,14 +172,10 @@ public class Card {
     public Card(String color, int digit) {
         // If the color and digit are not in the lists of colors and digits,
         // throw an IllegalArgumentException is thrown.
-        // Otherwise, set the corresponding color and digit,
-        // and specialInstruct to "NORMAL" to indicate that the card is not special.
-        color = color.toUpperCase();
-        if (Arrays.asList(colors).contains(color) ||
-                Arrays.asList(digits).contains(digit)) {
-            this.color = color;
-            this.digit = digit;
-            this.specialInstruct = "NORMAL";
+        // Otherwise, use the code of that color and digit.
+        int colorIdx = indexOfColor(color.toUpperCase());
+        if (colorIdx >= 0 && digit >= 0 && digit < digits.length) {
+            this.code = (byte) codeOf(colorIdx, digit);
         } else {
             throw new IllegalArgumentException("Invalid input");
         }
@@ -110,64 +189,133 @@ public class Card {
     public Card(String color, String specialInstruct) {
         // If the color and special instruction are not in the lists of colors and specialInstruct,
         // throw an IllegalArgumentException is thrown.
-        // Otherwise, set the corresponding color and specialInstruct, and digit to -1
-        // to indicate that the card is special; no digit.
-        color = color.toUpperCase();
-        specialInstruct = specialInstruct.toUpperCase();
-        if (Arrays.asList(colors).contains(color)
-                || (Arrays.asList(specialInstructs).contains(specialInstruct)
-                    && !specialInstruct.equals("WILD"))) {
-            this.color = color;
-            this.digit = -2; // so that it distinguishes WILD from SPECIAL INSTRUCTION;
-                            // digit = -1 in prev constructor
-            this.specialInstruct = specialInstruct;
+        // Otherwise, use the code of that color and special instruction.
+        int colorIdx = indexOfColor(color.toUpperCase());
+        int specialIdx = indexOf(specialInstructs, specialInstruct.toUpperCase());
+        if (colorIdx >= 0 && specialIdx >= 0) {
+            this.code = (byte) codeOf(colorIdx, SKIP + specialIdx);
         } else {
             throw new IllegalArgumentException("Invalid input!");
         }
     }
 
-    // Getters.
-    public int getDigit() {
-        return this.digit;
+    /**
+     * Returns the canonical card of the given code. The returned instance is shared,
+     * so no new card is allocated.
+     * @param code the packed code of the card.
+     * @return the canonical card of the code.
+     */
+    public static Card fromCode(int code) {
+        if (code < 0 || code >= NUM_CODES) {
+            throw new IllegalArgumentException("Invalid code");
+        }
+        return TABLE[code];
     }
-     // Note: If it's not a special card, return "Normal".
-    public String getSpecialInstruct() {
-        return this.specialInstruct;
+
+    /**
+     * @param color color index (0-3).
+     * @param rank rank of the card (0-9 for digits, SKIP to WILD for special cards).
+     * @return the code of the colored card with the given rank.
+     */
+    static int codeOf(int color, int rank) {
+        return color * RANKS_PER_COLOR + rank;
     }
-    public String getColor() {
-        return this.color;
+
+    /**
+     * @return the color index of the code, or NO_COLOR for the wild card without a color.
+     */
+    static int colorOf(int code) {
+        return COLOR_OF[code];
     }
 
     /**
-     * Setter to change color if and only if the card is a wild card.
-     * @param color color to be changed to.
+     * @return the rank of the code (0-9 for digits, SKIP to WILD for special cards).
      */
-    public void setColor(String color) {
-        if (this.specialInstruct.equals("WILD")) {
-            this.color = color;
+    static int rankOf(int code) {
+        return RANK_OF[code];
+    }
+
+    /**
+     * @return the bitmask of the codes with the given color index.
+     */
+    static long colorMask(int color) {
+        return COLOR_MASKS[color];
+    }
+
+    /**
+     * @return the bitmask of the codes whose digit equals the digit of the given code.
+     */
+    static long sameDigitMask(int code) {
+        return SAME_DIGIT_MASKS[code];
+    }
+
+    /**
+     * @param topCode code of the card on top of the discard pile.
+     * @param activeColor color index that must be matched, or NO_COLOR.
+     * @return the bitmask of the codes that can be played, so that a card is playable if
+     * its bit is set, and the playable cards of a hand are handMask & playableMask.
+     */
+    static long playableMask(int topCode, int activeColor) {
+        return PLAYABLE_MASKS[topCode * (NO_COLOR + 1) + activeColor];
+    }
+
+    /**
+     * @return the index of the color in the list of colors, or -1 if it is not a color.
+     */
+    static int indexOfColor(String color) {
+        return indexOf(colors, color);
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
         }
+        return -1;
+    }
+
+    // Getters.
+    public int getCode() {
+        return this.code;
+    }
+    // Note: -1 for the wild card without a color, -2 for the other special cards.
+    public int getDigit() {
+        int rank = RANK_OF[this.code];
+        if (rank < SKIP) {
+            return rank;
+        }
+        return this.code == WILD_CODE ? -1 : -2;
+    }
+    // Note: If it's not a special card, return "Normal".
+    public String getSpecialInstruct() {
+        int rank = RANK_OF[this.code];
+        return rank < SKIP ? "NORMAL" : specialInstructs[rank - SKIP];
+    }
+    public String getColor() {
+        int color = COLOR_OF[this.code];
+        return color == NO_COLOR ? "~" : colors[color];
     }
 
     /**
      * @return true if the card contains a special instruction, false otherwise.
      */
     public boolean isSpecial() {
-        return Arrays.asList(specialInstructs).contains(this.getSpecialInstruct());
+        return RANK_OF[this.code] >= SKIP;
     }
 
     /**
      * @return true if the card is a wild card, false otherwise.
      */
     public boolean isWild() {
-        return this.getSpecialInstruct().equals("WILD");
+        return RANK_OF[this.code] == WILD;
     }
 
     /**
      * @return true if the card is a normal, false otherwise.
      */
     public boolean isNormal() {
-        return Arrays.asList(colors).contains(this.color) ||
-                Arrays.asList(digits).contains(this.digit);
+        return COLOR_OF[this.code] != NO_COLOR;
     }
 
     /**
@@ -197,28 +345,25 @@ public class Card {
      */
     @Override
     public String toString() {
-        if (getDigit() < 0) {
-            return String.format("%s %s\n", getColor(), getSpecialInstruct());
-        }
-        return String.format("%s %d %s\n",
-                getColor(), getDigit(), getSpecialInstruct());
+        return NAMES[this.code];
     }
 
     /**
-     * Returns true if the object is an instance of the Card class, false otherwise.
-     * @param other the object to be compared against the Card class.
-     * @return true if the given object is of type Card, false otherwise.
+     * Returns true if the object is a card with the same code, false otherwise.
+     * @param other the object to be compared against this card.
+     * @return true if the given object is a Card with the same color and rank, false otherwise.
      */
     @Override
     public boolean equals(Object other) {
-        if (other instanceof Card) {
-            Card otherCard = (Card) other;
-            return this.color.equals(otherCard.color)
-                    && this.digit == otherCard.digit
-                    && this.specialInstruct.equals(otherCard.specialInstruct);
-        } else {
-            return false;
-        }
+        return other instanceof Card && ((Card) other).code == this.code;
+    }
+
+    /**
+     * @return the code of the card, which is unique for each distinct card.
+     */
+    @Override
+    public int hashCode() {
+        return this.code;
     }
 
     public static void main(String[] args) {
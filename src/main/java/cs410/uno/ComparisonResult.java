@@ -0,0 +1,178 @@
+package cs410.uno;
+
+/**
+ * Represents the paired statistics of a StrategyComparison: for each seed, how many of
+ * the games with the candidate strategy and of the same games with the baseline strategy
+ * the compared seat won, one game per seat of the table.
+ *
+ * The unit of the statistics is the seed: the difference between the two strategies is
+ * the mean over the seeds of the difference of their wins, so its standard error only
+ * includes what the seeds do not share. The sums are kept as integers, so merging the
+ * results of several workers in any order gives exactly the same statistics.
+ *
+ * This class contains the following methods:
+ *     - recordSeed() - Adds the outcome of the games of one seed.
+ *     - merge() - Adds the statistics of another result to this one.
+ *     - getters for each statistic, plus the derived rates.
+ *     - getDifference() - Returns the win rate of the candidate minus that of the baseline.
+ *     - getStandardError() - Returns the standard error of the difference.
+ *     - getIndependentStandardError() - Returns the standard error as many independent
+ *                                       games would have had.
+ *     - getVarianceReduction() - Returns how many times fewer games the pairing needs.
+ *     - toString() - Returns the formatted report of the statistics.
+ */
+public class ComparisonResult {
+    // Number of games of each strategy per seed, one per seat.
+    private final int countSeats;
+
+    // Number of seeds.
+    private long countSeeds;
+
+    // Sum over the seeds of the wins of each strategy.
+    private long candidateWins;
+    private long baselineWins;
+
+    // Sum over the seeds of the squared difference of the wins of the strategies.
+    private long differenceSquares;
+
+    // Number of games that reached the turn limit without a winner.
+    private long countUnfinishedGames;
+
+    // Wall-clock time taken to play the games, in nanoseconds.
+    private long elapsedNanos;
+
+    /**
+     * Constructor that initializes an empty result.
+     * @param countSeats number of games of each strategy per seed.
+     */
+    public ComparisonResult(int countSeats) {
+        this.countSeats = countSeats;
+    }
+
+    /**
+     * Adds the outcome of the games of one seed.
+     * @param candidateWins number of the games won by the candidate strategy.
+     * @param baselineWins number of the same games won by the baseline strategy.
+     * @param countUnfinishedGames number of the games of both strategies without a winner.
+     */
+    public void recordSeed(int candidateWins, int baselineWins, int countUnfinishedGames) {
+        this.countSeeds++;
+        this.candidateWins += candidateWins;
+        this.baselineWins += baselineWins;
+        long difference = candidateWins - baselineWins;
+        this.differenceSquares += difference * difference;
+        this.countUnfinishedGames += countUnfinishedGames;
+    }
+
+    /**
+     * Adds the statistics of another result, with the same number of seats, to this one.
+     * @param other result to be merged into this one.
+     */
+    public void merge(ComparisonResult other) {
+        this.countSeeds += other.countSeeds;
+        this.candidateWins += other.candidateWins;
+        this.baselineWins += other.baselineWins;
+        this.differenceSquares += other.differenceSquares;
+        this.countUnfinishedGames += other.countUnfinishedGames;
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // Getters.
+    public long getCountSeeds() {
+        return this.countSeeds;
+    }
+    public long getCountGames() {
+        return 2 * this.countSeeds * this.countSeats;
+    }
+    public long getCandidateWins() {
+        return this.candidateWins;
+    }
+    public long getBaselineWins() {
+        return this.baselineWins;
+    }
+    public long getCountUnfinishedGames() {
+        return this.countUnfinishedGames;
+    }
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /**
+     * @return the fraction of its games won by the candidate strategy.
+     */
+    public double getCandidateWinRate() {
+        return this.countSeeds == 0 ? 0
+                : (double) this.candidateWins / (this.countSeeds * this.countSeats);
+    }
+
+    /**
+     * @return the fraction of its games won by the baseline strategy.
+     */
+    public double getBaselineWinRate() {
+        return this.countSeeds == 0 ? 0
+                : (double) this.baselineWins / (this.countSeeds * this.countSeats);
+    }
+
+    /**
+     * @return the win rate of the candidate strategy minus the win rate of the baseline.
+     */
+    public double getDifference() {
+        return getCandidateWinRate() - getBaselineWinRate();
+    }
+
+    /**
+     * @return the standard error of the difference, from the variance of the difference
+     * of the wins of the two strategies between the seeds.
+     */
+    public double getStandardError() {
+        if (this.countSeeds < 2) {
+            return 0;
+        }
+        double sum = this.candidateWins - this.baselineWins;
+        double variance = (this.differenceSquares - sum * sum / this.countSeeds)
+                / (this.countSeeds - 1);
+        return Math.sqrt(Math.max(variance, 0) / this.countSeeds) / this.countSeats;
+    }
+
+    /**
+     * @return the standard error the difference would have had if each strategy had
+     * played as many games, each with its own seed and seat.
+     */
+    public double getIndependentStandardError() {
+        double candidateRate = getCandidateWinRate();
+        double baselineRate = getBaselineWinRate();
+        long countGames = this.countSeeds * this.countSeats;
+        return countGames == 0 ? 0 : Math.sqrt((candidateRate * (1 - candidateRate)
+                + baselineRate * (1 - baselineRate)) / countGames);
+    }
+
+    /**
+     * @return how many times more games independent games would need to reach the same
+     * standard error, or 0 if the paired standard error is 0.
+     */
+    public double getVarianceReduction() {
+        double standardError = getStandardError();
+        return standardError == 0 ? 0
+                : Math.pow(getIndependentStandardError() / standardError, 2);
+    }
+
+    /**
+     * @return the formatted report of the statistics.
+     */
+    @Override
+    public String toString() {
+        return String.format("Seeds: %d (%d games, %d without a winner)\n"
+                        + "Candidate win rate: %.4f\n"
+                        + "Baseline win rate: %.4f\n"
+                        + "Difference: %.4f +- %.4f (95%%), z = %.2f\n"
+                        + "Variance reduction: %.1fx fewer games than independent games\n",
+                this.countSeeds, getCountGames(), this.countUnfinishedGames,
+                getCandidateWinRate(), getBaselineWinRate(), getDifference(),
+                1.96 * getStandardError(),
+                getStandardError() == 0 ? 0 : getDifference() / getStandardError(),
+                getVarianceReduction());
+    }
+}
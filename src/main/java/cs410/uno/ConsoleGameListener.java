@@ -0,0 +1,28 @@
+package cs410.uno;
+
+/**
+ * Listener that prints the events of a game of Uno on the console:
+ * the number of players, the hand size and starting top card when the game starts,
+ * every card played with the resulting hand size, and the winner.
+ */
+public class ConsoleGameListener implements GameEventListener {
+    @Override
+    public void onGameStarted(GameState game) {
+        System.out.printf("Total Players: %d\n", game.getCountPlayers());
+        System.out.printf("Hand size per player: %d\n\n", game.getPlayer(0).getHandSize());
+        System.out.printf("Starting Top Card: %s\n", game.getDeck().getTopDiscardCard().toString());
+    }
+
+    @Override
+    public void onCardPlayed(GameState game, int playerIdx, Card card) {
+        System.out.printf("Player %d plays %sCurrent hand size: %s\n\n",
+                playerIdx + 1,
+                card.toString(),
+                game.getPlayer(playerIdx).getHandSize());
+    }
+
+    @Override
+    public void onGameOver(GameState game, int winnerIdx) {
+        System.out.printf("%sWON!!!", game.getPlayer(winnerIdx).toString());
+    }
+}
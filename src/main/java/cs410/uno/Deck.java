@@ -1,7 +1,9 @@
 package cs410.uno;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents a deck of Uno cards that consists of a draw and discard pile.
@@ -9,25 +11,67 @@ import java.util.Collections;
  * while the other has empty draw and discard piles. The constructor with input mostly represent
  * the draw pile with cards, and the other one represents mainly the discard pile.
  *
+ * Both piles are stored as arrays of card codes (see Card.getCode()), with the top of a pile
+ * at the end of its array. Drawing, discarding and refreshing only move indices and swap
+ * the two buffers, so none of them allocates.
+ *
+ * The draw pile is shuffled lazily: shuffling only marks its cards as unshuffled, and each
+ * draw() then picks the card it returns at random among the unshuffled cards, which is one
+ * step of a Fisher-Yates shuffle run from the top. A shuffle costs only the cards actually
+ * drawn, and the cards come out in the order of a uniform shuffle. Cards put on top of the
+ * draw pile afterwards keep their order. Viewing the draw pile finishes the shuffle first.
+ *
+ * A deck can also be created in counted mode, for very large decks: the draw pile is then
+ * kept as the number of cards of each code instead of one entry per card, and draw()
+ * picks a card at random with probability proportional to these counts, which draws the
+ * cards in the order of a uniform shuffle without ever shuffling. Its memory does not
+ * depend on the number of cards. The draw pile has no order in counted mode, so its view
+ * lists the cards by code and cannot be modified.
+ *
  * This class contains the following methods:
- *      - getDrawPile() - Returns the draw pile.
- *      - getDiscardPile() - Returns the discard pile.
+ *      - getDrawPile() - Returns a live view of the draw pile.
+ *      - getDiscardPile() - Returns a live view of the discard pile.
+ *      - getDrawPileSize() - Returns the number of cards in the draw pile.
+ *      - getDiscardPileSize() - Returns the number of cards in the discard pile.
+ *      - countCards() - Returns the number of cards in a full deck.
+ *      - isCounted() - Returns true if the draw pile is kept as counts per code.
  *      - fillDeck() - Helper function to fill the draw pile with cards.
- *      - shuffle() - Shuffles the draw pile.
+ *      - shuffle() - Marks the draw pile to be shuffled as it is drawn.
+ *      - shuffleRest() - Finishes shuffling the draw pile.
  *      - addCardToDiscard() - Adds a card to the discard pile,
  *                             simulating the action of placing a card by the player.
  *      - refreshDrawPile() - Refreshes the draw pile when empty with the discard pile,
  *                            and shuffles the deck once refilled.
  *      - draw() - Returns and removes a card from the top of the draw pile.
+ *      - reset() - Refills the draw pile with a full deck for a new game.
+ *      - deal() - Moves several cards from the top of the draw pile to a player's hand at once.
  *      - getTopDiscardCard() - Returns a card from the top discard pile. Acts like a peek function.
  *      - isEmpty() - Returns true if the draw pile is empty, false otherwise.
  */
 public class Deck {
-    // Represents the draw pile.
-    private List<Card> drawPile;
+    // Capacity of the piles of a deck that starts empty.
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Represents the draw pile, as card codes; only the first drawSize codes are used.
+    private byte[] drawPile;
+    private int drawSize;
+
+    // The bottom unshuffledSize cards of the draw pile are not shuffled yet; the cards
+    // above them are already in their final order.
+    private int unshuffledSize;
+
+    // In counted mode, number of cards of each code in the draw pile, and the bitmask of
+    // the codes with at least one card; drawCounts is null otherwise.
+    private int[] drawCounts;
+    private long drawMask;
+
+    // Represents the discard pile, as card codes; only the first discardSize codes are used.
+    private byte[] discardPile;
+    private int discardSize;
 
-    // Represents the discard pile.
-    private List<Card> discardPile;
+    // Source of randomness used to shuffle the draw pile. Each deck has its own,
+    // so decks on different threads never contend, and a seeded one replays exactly.
+    private RandomGenerator random;
 
     /**
      * Constructor that initializes the draw pile with cards.
@@ -38,39 +82,145 @@ public class Deck {
     public Deck(int countDigitCardsPerColor,
                 int countSpecialCardsPerColor,
                 int countWildCards) {
+        this(countDigitCardsPerColor, countSpecialCardsPerColor, countWildCards,
+                new SplittableRandom());
+    }
+
+    /**
+     * Constructor that initializes the draw pile with cards,
+     * shuffled with the given source of randomness.
+     * @param countDigitCardsPerColor number of normal cards for each digit and color.
+     * @param countSpecialCardsPerColor number of special cards of each kind for each color.
+     * @param countWildCards number of total wild cards.
+     * @param random source of randomness used to shuffle the draw pile.
+     */
+    public Deck(int countDigitCardsPerColor,
+                int countSpecialCardsPerColor,
+                int countWildCards,
+                RandomGenerator random) {
+        this(countDigitCardsPerColor, countSpecialCardsPerColor, countWildCards, random, false);
+    }
+
+    /**
+     * Constructor that initializes the draw pile with cards, drawn with the given source
+     * of randomness, and optionally keeps the draw pile as counts per code.
+     * @param countDigitCardsPerColor number of normal cards for each digit and color.
+     * @param countSpecialCardsPerColor number of special cards of each kind for each color.
+     * @param countWildCards number of total wild cards.
+     * @param random source of randomness used to shuffle or draw from the draw pile.
+     * @param counted true to keep the draw pile as counts per code (see above).
+     */
+    public Deck(int countDigitCardsPerColor,
+                int countSpecialCardsPerColor,
+                int countWildCards,
+                RandomGenerator random,
+                boolean counted) {
         // If number of cards are invalid, throw an IllegalArgumentException.
+        long totalCards = countCards(countDigitCardsPerColor, countSpecialCardsPerColor,
+                countWildCards);
         if (countDigitCardsPerColor <= 0
-                || countSpecialCardsPerColor < 0 || countWildCards < 0) {
+                || countSpecialCardsPerColor < 0 || countWildCards < 0
+                || totalCards > Integer.MAX_VALUE) {
             throw new IllegalArgumentException("Invalid input");
         }
-        this.drawPile = new ArrayList<>();
-        this.discardPile = new ArrayList<>();
+        if (counted) {
+            // Only the discard pile has one entry per card; it grows as cards are played.
+            this.drawPile = new byte[0];
+            this.drawCounts = new int[Card.NUM_CODES];
+            this.discardPile = new byte[INITIAL_CAPACITY];
+        } else {
+            // Both piles can hold every card, so a game never has to grow them.
+            this.drawPile = new byte[(int) totalCards];
+            this.discardPile = new byte[(int) totalCards];
+        }
+        this.random = random;
         fillDeck(countDigitCardsPerColor, countSpecialCardsPerColor, countWildCards);
     }
 
+    /**
+     * Constructor that initializes a copy of another deck, with the same cards in the
+     * same order, which shuffles with the given source of randomness.
+     * @param source deck to be copied.
+     * @param random source of randomness used to shuffle the draw pile.
+     */
+    Deck(Deck source, RandomGenerator random) {
+        this.drawPile = new byte[source.drawPile.length];
+        this.discardPile = new byte[source.discardPile.length];
+        this.random = random;
+        source.copyInto(this);
+    }
+
     /**
      * Constructor that has the draw and discard piles empty.
      * Symbolizes the discard pile.
      */
     public Deck() {
-        this.drawPile = new ArrayList<>();
-        this.discardPile = new ArrayList<>();
+        this(new SplittableRandom());
     }
 
     /**
-     * Getter function that returns the draw pile.
+     * Constructor that has the draw and discard piles empty,
+     * and shuffles with the given source of randomness.
+     * @param random source of randomness used to shuffle the draw pile.
+     */
+    public Deck(RandomGenerator random) {
+        this.drawPile = new byte[INITIAL_CAPACITY];
+        this.discardPile = new byte[INITIAL_CAPACITY];
+        this.random = random;
+    }
+
+    /**
+     * Getter function that returns the draw pile. The returned list is a live view
+     * backed by the deck; adding a card to it places the card on top of the draw pile.
      * @return the draw pile.
      */
     public List<Card> getDrawPile() {
-        return drawPile;
+        return new PileView(true);
     }
 
     /**
-     * Getter function that returns the discard pile.
+     * Getter function that returns the discard pile. The returned list is a live view
+     * backed by the deck; adding a card to it places the card on top of the discard pile.
      * @return the discard pile.
      */
     public List<Card> getDiscardPile() {
-        return discardPile;
+        return new PileView(false);
+    }
+
+    /**
+     * @param countDigitCardsPerColor number of normal cards for each digit and color.
+     * @param countSpecialCardsPerColor number of special cards of each kind for each color.
+     * @param countWildCards number of total wild cards.
+     * @return the number of cards in a full deck with this composition.
+     */
+    public static long countCards(int countDigitCardsPerColor,
+                                  int countSpecialCardsPerColor,
+                                  int countWildCards) {
+        return (long) Card.getColors().length
+                * ((long) countDigitCardsPerColor * Card.getDigits().length
+                + (long) countSpecialCardsPerColor * Card.getSpecialInstructs().length)
+                + countWildCards;
+    }
+
+    /**
+     * @return true if the draw pile is kept as counts per code, false otherwise.
+     */
+    public boolean isCounted() {
+        return this.drawCounts != null;
+    }
+
+    /**
+     * @return the number of cards in the draw pile.
+     */
+    public int getDrawPileSize() {
+        return this.drawSize;
+    }
+
+    /**
+     * @return the number of cards in the discard pile.
+     */
+    public int getDiscardPileSize() {
+        return this.discardSize;
     }
 
     /**
@@ -89,25 +239,40 @@ public class Deck {
         String[] colors = Card.getColors();
         String[] specialCards = Card.getSpecialInstructs();
 
+        // In counted mode, only the number of cards of each code is stored.
+        if (isCounted()) {
+            for (int code = 0; code < Card.NUM_CODES; code++) {
+                int count = Card.colorOf(code) == Card.NO_COLOR ? countWildCards
+                        : Card.rankOf(code) < Card.SKIP ? countDigitCardsPerColor
+                        : countSpecialCardsPerColor;
+                this.drawCounts[code] = count;
+                this.drawSize += count;
+                if (count > 0) {
+                    this.drawMask |= 1L << code;
+                }
+            }
+            return;
+        }
+
         // For each color, add digit and special instruction cards to draw pile.
-        for (String color : colors) {
+        for (int color = 0; color < colors.length; color++) {
             // Digits.
             for (int i = 0; i < countDigitCardsPerColor; i++) {
                 for (int digit = 0; digit < 10; digit++) {
-                    this.drawPile.add(new Card(color, digit));
+                    this.drawPile[this.drawSize++] = (byte) Card.codeOf(color, digit);
                 }
             }
             // Special instructions.
             for (int i = 0; i < countSpecialCardsPerColor; i++) {
-                for (String specialCard : specialCards) {
-                    this.drawPile.add(new Card(color, specialCard));
+                for (int special = 0; special < specialCards.length; special++) {
+                    this.drawPile[this.drawSize++] = (byte) Card.codeOf(color, Card.SKIP + special);
                 }
             }
         }
 
         // Add wild cards to the draw pile.
         for (int i = 0; i < countWildCards; i++) {
-            this.drawPile.add(new Card("WILD"));
+            this.drawPile[this.drawSize++] = (byte) Card.WILD_CODE;
         }
 
         // Shuffle the draw pile.
@@ -115,20 +280,71 @@ public class Deck {
     }
 
     /**
-     * Shuffles the draw pile.
+     * Empties both piles and refills the draw pile with a full deck for a new game,
+     * shuffled with the given source of randomness. The piles are reused, so
+     * the composition must fit in the deck this one was created with.
+     * @param countDigitCardsPerColor number of normal cards for each digit and color.
+     * @param countSpecialCardsPerColor number of special cards of each kind for each color.
+     * @param countWildCards number of total wild cards.
+     * @param random source of randomness used to shuffle the draw pile.
+     */
+    void reset(int countDigitCardsPerColor,
+               int countSpecialCardsPerColor,
+               int countWildCards,
+               RandomGenerator random) {
+        this.drawSize = 0;
+        this.unshuffledSize = 0;
+        this.drawMask = 0;
+        this.discardSize = 0;
+        this.random = random;
+        fillDeck(countDigitCardsPerColor, countSpecialCardsPerColor, countWildCards);
+    }
+
+    /**
+     * Shuffles the draw pile lazily: the cards are shuffled one at a time as they are drawn.
+     * In counted mode there is no order to shuffle, since draw() picks a random card.
      */
     private void shuffle() {
         if (isEmpty()) {
             throw new IllegalStateException("Draw pile is empty!");
         }
-        Collections.shuffle(this.drawPile);
+        if (!isCounted()) {
+            this.unshuffledSize = this.drawSize;
+        }
+    }
+
+    /**
+     * Finishes shuffling the draw pile in place (Fisher-Yates), so that every card is in
+     * its final order, such as before the pile is viewed.
+     */
+    private void shuffleRest() {
+        // Down to the last card, like draw() and deal(): nextInt(1) still advances the
+        // generator, so stopping earlier would shift every later shuffle.
+        while (this.unshuffledSize > 0) {
+            shuffleNext();
+        }
+    }
+
+    /**
+     * Moves a random card among the unshuffled ones to the top of the unshuffled cards,
+     * where it is in its final order.
+     */
+    private void shuffleNext() {
+        int top = --this.unshuffledSize;
+        int j = this.random.nextInt(top + 1);
+        byte code = this.drawPile[top];
+        this.drawPile[top] = this.drawPile[j];
+        this.drawPile[j] = code;
     }
 
     /**
      * Adds card to the discard pile.
      */
     public void addCardToDiscard(Card card) {
-        this.discardPile.add(card);
+        if (this.discardSize == this.discardPile.length) {
+            this.discardPile = grow(this.discardPile);
+        }
+        this.discardPile[this.discardSize++] = (byte) card.getCode();
     }
 
     /**
@@ -139,12 +355,61 @@ public class Deck {
      * and they become the new draw pile.
      */
     public void refreshDrawPile() {
-        if (!this.discardPile.isEmpty() && this.drawPile.isEmpty()) {
-            Card topCard = discardPile.remove(discardPile.size() - 1);
-            drawPile.addAll(discardPile);
-            discardPile.clear();
-            addCardToDiscard(topCard);
-            shuffle();
+        if (EngineMetrics.ENABLED) {
+            refreshDrawPileMeasured();
+        } else {
+            refreshPiles();
+        }
+    }
+
+    /**
+     * Moves the cards below the top of the discard pile to the empty draw pile.
+     */
+    private void refreshPiles() {
+        if (isCounted() && this.discardSize > 0 && this.drawSize == 0) {
+            // Count the cards below the top card back into the draw pile.
+            for (int i = 0; i < this.discardSize - 1; i++) {
+                addToDrawCounts(this.discardPile[i]);
+            }
+            this.discardPile[0] = this.discardPile[this.discardSize - 1];
+            this.discardSize = 1;
+        } else if (this.discardSize > 0 && this.drawSize == 0) {
+            // The empty draw pile buffer becomes the discard pile and vice versa,
+            // so no card has to be copied except the top card.
+            byte topCode = this.discardPile[this.discardSize - 1];
+            byte[] emptyPile = this.drawPile;
+            this.drawPile = this.discardPile;
+            this.drawSize = this.discardSize - 1;
+            this.discardPile = emptyPile;
+            this.discardPile[0] = topCode;
+            this.discardSize = 1;
+            if (!isEmpty()) {
+                shuffle();
+            }
+        }
+    }
+
+    /**
+     * Refreshes the draw pile like refreshDrawPile(), recording its time and event
+     * in EngineMetrics.
+     */
+    private void refreshDrawPileMeasured() {
+        int countCards = this.drawSize == 0 ? this.discardSize - 1 : 0;
+        if (countCards <= 0) {
+            refreshPiles();
+            return;
+        }
+        EngineMetrics.RefreshEvent event = new EngineMetrics.RefreshEvent();
+        event.begin();
+        long startTime = System.nanoTime();
+        refreshPiles();
+        EngineMetrics.REFRESHES.increment();
+        EngineMetrics.CARDS_REFRESHED.add(countCards);
+        EngineMetrics.REFRESH_NANOS.record(System.nanoTime() - startTime);
+        event.end();
+        if (event.shouldCommit()) {
+            event.countCards = countCards;
+            event.commit();
         }
     }
 
@@ -155,7 +420,73 @@ public class Deck {
         if (isEmpty()) {
             throw new IllegalStateException("Draw pile is empty!");
         }
-        return this.drawPile.remove(this.drawPile.size() - 1);
+        if (EngineMetrics.ENABLED) {
+            EngineMetrics.CARDS_DRAWN.increment();
+        }
+        if (isCounted()) {
+            return Card.fromCode(drawCountedCode());
+        }
+        // Once the cards above them are drawn, shuffle the top unshuffled card into place.
+        if (this.drawSize == this.unshuffledSize) {
+            shuffleNext();
+        }
+        return Card.fromCode(this.drawPile[--this.drawSize]);
+    }
+
+    /**
+     * Removes a random card from the counted draw pile, each card being equally likely.
+     * @return the code of the card.
+     */
+    private int drawCountedCode() {
+        int index = this.random.nextInt(this.drawSize);
+        long codes = this.drawMask;
+        while (true) {
+            int code = Long.numberOfTrailingZeros(codes);
+            index -= this.drawCounts[code];
+            if (index < 0) {
+                if (--this.drawCounts[code] == 0) {
+                    this.drawMask &= ~(1L << code);
+                }
+                this.drawSize--;
+                return code;
+            }
+            codes &= codes - 1;
+        }
+    }
+
+    /**
+     * Adds a card to the counted draw pile.
+     */
+    private void addToDrawCounts(int code) {
+        this.drawCounts[code]++;
+        this.drawMask |= 1L << code;
+        this.drawSize++;
+    }
+
+    /**
+     * Moves the given number of cards from the top of the draw pile
+     * to the player's hand in one block.
+     * @param player player that receives the cards.
+     * @param count number of cards to deal.
+     */
+    public void deal(Player player, int count) {
+        if (count > this.drawSize) {
+            throw new IllegalStateException("Draw pile is empty!");
+        }
+        if (EngineMetrics.ENABLED) {
+            EngineMetrics.CARDS_DEALT.add(count);
+        }
+        if (isCounted()) {
+            for (int i = 0; i < count; i++) {
+                player.addToHand(Card.fromCode(drawCountedCode()));
+            }
+            return;
+        }
+        while (this.unshuffledSize > this.drawSize - count) {
+            shuffleNext();
+        }
+        this.drawSize -= count;
+        player.addToHand(this.drawPile, this.drawSize, count);
     }
 
     /**
@@ -163,16 +494,270 @@ public class Deck {
      * @return The top card on the discard pile.
      */
     public Card getTopDiscardCard() {
-        if (this.discardPile.isEmpty()) {
+        return Card.fromCode(getTopDiscardCode());
+    }
+
+    /**
+     * @return the code of the card on top of the discard pile.
+     */
+    int getTopDiscardCode() {
+        if (this.discardSize == 0) {
             throw new IllegalStateException("Discard pile is empty!");
         }
-        return discardPile.get(discardPile.size() - 1);
+        return this.discardPile[this.discardSize - 1];
     }
 
     /**
      * @return true if the draw pile is empty, false otherwise.
      */
     public boolean isEmpty() {
-        return this.drawPile.isEmpty();
+        return this.drawSize == 0;
+    }
+
+    /**
+     * Copies both piles into the target deck, growing its piles if they are too small.
+     * The source of randomness of the target is kept. The draw pile is shuffled to the
+     * end first, so that both decks draw their cards in the same order.
+     * @param target deck that receives the cards.
+     */
+    void copyInto(Deck target) {
+        shuffleRest();
+        if (isCounted()) {
+            if (target.drawCounts == null) {
+                target.drawCounts = new int[Card.NUM_CODES];
+            }
+            System.arraycopy(this.drawCounts, 0, target.drawCounts, 0, Card.NUM_CODES);
+            target.drawMask = this.drawMask;
+        } else {
+            target.drawCounts = null;
+        }
+        if (!isCounted() && target.drawPile.length < this.drawSize) {
+            target.drawPile = new byte[this.drawPile.length];
+        }
+        if (target.discardPile.length < this.discardSize) {
+            target.discardPile = new byte[this.discardPile.length];
+        }
+        if (!isCounted()) {
+            System.arraycopy(this.drawPile, 0, target.drawPile, 0, this.drawSize);
+        }
+        System.arraycopy(this.discardPile, 0, target.discardPile, 0, this.discardSize);
+        target.drawSize = this.drawSize;
+        target.unshuffledSize = 0;
+        target.discardSize = this.discardSize;
+    }
+
+    /**
+     * Undoes draw(): puts the card back on top of the draw pile.
+     * @param code code of the card that was drawn.
+     */
+    void undoDraw(int code) {
+        if (isCounted()) {
+            addToDrawCounts(code);
+            return;
+        }
+        if (this.drawSize == this.drawPile.length) {
+            this.drawPile = grow(this.drawPile);
+        }
+        this.drawPile[this.drawSize++] = (byte) code;
+    }
+
+    /**
+     * Undoes addCardToDiscard(): removes the top card of the discard pile.
+     */
+    void undoDiscard() {
+        this.discardSize--;
+    }
+
+    /**
+     * Copies the codes of the discard pile, from the bottom to the top, into the buffer.
+     * @param buffer array that receives the codes.
+     * @param offset index of the buffer where the first code is written.
+     * @return the number of codes copied.
+     */
+    int copyDiscardPile(int[] buffer, int offset) {
+        for (int i = 0; i < this.discardSize; i++) {
+            buffer[offset + i] = this.discardPile[i];
+        }
+        return this.discardSize;
+    }
+
+    /**
+     * Undoes refreshDrawPile(): empties the draw pile and restores the discard pile
+     * saved by copyDiscardPile() before the refresh.
+     * @param buffer array holding the codes of the discard pile.
+     * @param offset index of the buffer where the first code is.
+     * @param count number of codes in the discard pile.
+     */
+    void undoRefresh(int[] buffer, int offset, int count) {
+        if (this.discardPile.length < count) {
+            this.discardPile = new byte[Math.max(count, this.drawPile.length)];
+        }
+        for (int i = 0; i < count; i++) {
+            this.discardPile[i] = (byte) buffer[offset + i];
+        }
+        this.discardSize = count;
+        this.drawSize = 0;
+        this.unshuffledSize = 0;
+        if (isCounted()) {
+            Arrays.fill(this.drawCounts, 0);
+            this.drawMask = 0;
+        }
+    }
+
+    /**
+     * Counts the cards of each code in the draw pile, without shuffling it.
+     * @param counts array of at least Card.NUM_CODES entries that receives the counts.
+     * @return the number of cards in the draw pile.
+     */
+    int countDrawCards(int[] counts) {
+        if (isCounted()) {
+            System.arraycopy(this.drawCounts, 0, counts, 0, Card.NUM_CODES);
+        } else {
+            Arrays.fill(counts, 0, Card.NUM_CODES, 0);
+            for (int i = 0; i < this.drawSize; i++) {
+                counts[this.drawPile[i]]++;
+            }
+        }
+        return this.drawSize;
+    }
+
+    /**
+     * Counts the cards of each code in the discard pile.
+     * @param counts array of at least Card.NUM_CODES entries that receives the counts.
+     * @return the number of cards in the discard pile.
+     */
+    int countDiscardedCards(int[] counts) {
+        Arrays.fill(counts, 0, Card.NUM_CODES, 0);
+        for (int i = 0; i < this.discardSize; i++) {
+            counts[this.discardPile[i]]++;
+        }
+        return this.discardSize;
+    }
+
+    /**
+     * Replaces both piles with the given codes, growing the piles if they are too small.
+     * @param draw codes of the draw pile, from the bottom to the top.
+     * @param drawOffset index of the first code of the draw pile.
+     * @param drawLength number of cards in the draw pile.
+     * @param discard codes of the discard pile, from the bottom to the top.
+     * @param discardLength number of cards in the discard pile.
+     */
+    void setPiles(byte[] draw, int drawOffset, int drawLength, byte[] discard, int discardLength) {
+        if (isCounted()) {
+            Arrays.fill(this.drawCounts, 0);
+            this.drawMask = 0;
+            this.drawSize = 0;
+            for (int i = drawOffset; i < drawOffset + drawLength; i++) {
+                addToDrawCounts(draw[i]);
+            }
+        } else if (this.drawPile.length < drawLength) {
+            this.drawPile = new byte[Math.max(drawLength, this.drawPile.length * 2)];
+        }
+        if (this.discardPile.length < discardLength) {
+            this.discardPile = new byte[Math.max(discardLength, this.discardPile.length * 2)];
+        }
+        if (!isCounted()) {
+            System.arraycopy(draw, drawOffset, this.drawPile, 0, drawLength);
+        }
+        System.arraycopy(discard, 0, this.discardPile, 0, discardLength);
+        this.drawSize = drawLength;
+        this.unshuffledSize = 0;
+        this.discardSize = discardLength;
+    }
+
+    /**
+     * @return a copy of the pile with twice its capacity.
+     */
+    private static byte[] grow(byte[] pile) {
+        return Arrays.copyOf(pile, Math.max(INITIAL_CAPACITY, pile.length * 2));
+    }
+
+    /**
+     * List view over one of the piles, from the bottom (index 0) to the top.
+     */
+    private class PileView extends AbstractList<Card> {
+        // True for the draw pile, false for the discard pile.
+        private final boolean isDrawPile;
+
+        PileView(boolean isDrawPile) {
+            this.isDrawPile = isDrawPile;
+        }
+
+        private byte[] pile() {
+            if (this.isDrawPile && isCounted()) {
+                throw new UnsupportedOperationException("The draw pile is counted");
+            }
+            if (this.isDrawPile) {
+                shuffleRest();
+            }
+            return this.isDrawPile ? drawPile : discardPile;
+        }
+
+        @Override
+        public int size() {
+            return this.isDrawPile ? drawSize : discardSize;
+        }
+
+        @Override
+        public Card get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Illegal index");
+            }
+            if (this.isDrawPile && isCounted()) {
+                // Cards of the counted draw pile are listed by code.
+                for (int code = 0; ; code++) {
+                    index -= drawCounts[code];
+                    if (index < 0) {
+                        return Card.fromCode(code);
+                    }
+                }
+            }
+            return Card.fromCode(pile()[index]);
+        }
+
+        @Override
+        public Card set(int index, Card card) {
+            Card previous = get(index);
+            pile()[index] = (byte) card.getCode();
+            return previous;
+        }
+
+        @Override
+        public void add(int index, Card card) {
+            int size = size();
+            if (index < 0 || index > size) {
+                throw new IndexOutOfBoundsException("Illegal index");
+            }
+            byte[] pile = pile();
+            if (size == pile.length) {
+                pile = grow(pile);
+                if (this.isDrawPile) {
+                    drawPile = pile;
+                } else {
+                    discardPile = pile;
+                }
+            }
+            System.arraycopy(pile, index, pile, index + 1, size - index);
+            pile[index] = (byte) card.getCode();
+            resize(size + 1);
+        }
+
+        @Override
+        public Card remove(int index) {
+            Card previous = get(index);
+            int size = size();
+            byte[] pile = pile();
+            System.arraycopy(pile, index + 1, pile, index, size - index - 1);
+            resize(size - 1);
+            return previous;
+        }
+
+        private void resize(int size) {
+            if (this.isDrawPile) {
+                drawSize = size;
+            } else {
+                discardSize = size;
+            }
+        }
     }
-}
\ No newline at end of file
+}
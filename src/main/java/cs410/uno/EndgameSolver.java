@@ -0,0 +1,635 @@
+package cs410.uno;
+import java.util.Arrays;
+
+/**
+ * Solves small positions of a game where every hand is known, for the player whose
+ * turn it is (the root player): it finds the move that maximizes their chance of winning.
+ *
+ * The solver searches a compact copy of the game, made of the number of cards of each
+ * code in each hand, in the draw pile and in the discard pile, and the turn fields.
+ * The order of the draw pile is unknown, so drawing a card is a chance node that averages
+ * over the codes left in the pile, weighted by their counts (expectimax). At the other
+ * nodes a player chooses a card or a wild color: the root player maximizes their chance
+ * of winning and the other players are assumed to minimize it (paranoid search), which
+ * lets alpha-beta pruning cut moves that cannot change the choice.
+ *
+ * Chance nodes are pruned too (Star1): the values are between 0 and 1, so once the
+ * codes already drawn make the average certain to fall outside the window, the codes
+ * left are not searched.
+ *
+ * Since drawing can go on forever, the search stops after a number of turns, where
+ * a position is valued by the hand sizes: a player with fewer cards is more likely to
+ * win. The search deepens one turn at a time, up to the maximum depth or until it has
+ * searched its budget of positions, and plays the best move of the deepest search it
+ * completed. The value of each position searched is stored in a TranspositionTable
+ * under a hash of the compact copy (its Zobrist hash with the draw pile and the root
+ * player), with the number of turns searched below it and its best move, which is
+ * searched first next time. A position reached again by another order of moves, in
+ * this search or in a later one of the same game, is therefore searched once.
+ *
+ * A solver reuses its arrays from search to search and is not thread-safe; several
+ * solvers can share a table.
+ *
+ * This class contains the following methods:
+ *     - solve() - Returns the best move of the current player of a game.
+ *     - solveWildColor() - Returns the best color to declare for a wild card just played.
+ *     - getValue() - Returns the chance of winning of the root player in the last search.
+ *     - getDepth() - Returns the number of turns searched by the last search.
+ *     - getCountNodes() - Returns the number of positions searched so far.
+ */
+public class EndgameSolver {
+    // Number of colors.
+    private static final int NUM_COLORS = 4;
+
+    // Bounds of the search window, beyond every value (values are between 0 and 1).
+    private static final float BELOW = -1;
+    private static final float ABOVE = 2;
+
+    // Number of turns searched below the root, and positions searched per search.
+    private final int maxDepth;
+    private final long maxNodes;
+
+    // Values of the positions searched, shared with other solvers.
+    private final TranspositionTable table;
+
+    // Hands: count of each code at player * Card.NUM_CODES + code,
+    // bitmask of the codes held, number of cards, and Zobrist hash of each hand.
+    private int countPlayers;
+    private int[] handCounts = new int[0];
+    private long[] handMasks = new long[0];
+    private int[] handSizes = new int[0];
+    private long[] handHashes = new long[0];
+
+    // Sum of the keys of the hands at their seats.
+    private long handsHash;
+
+    // Count of each code in the draw pile, bitmask of the codes left, number of cards,
+    // and hash of the pile.
+    private final int[] drawCounts = new int[Card.NUM_CODES];
+    private long drawMask;
+    private int drawSize;
+    private long drawHash;
+
+    // Count of each code in the discard pile below the top card, and number of cards.
+    private final int[] discardCounts = new int[Card.NUM_CODES];
+    private int discardSize;
+
+    // Turn fields.
+    private int topCode;
+    private int activeColor;
+    private int currentPlayer;
+    private int direction;
+    private int winner;
+
+    // Player whose chance of winning is searched, and the key of their perspective.
+    private int rootPlayer;
+    private long rootKey;
+
+    // Best card or color found by the last choice node searched to the end.
+    private int nodeBestMove;
+
+    // Value and depth of the last search, and number of positions searched so far.
+    private float value;
+    private int depth;
+    private long countNodes;
+
+    // Number of positions searched when the current search ends, and whether it ended.
+    private long nodeLimit;
+    private boolean aborted;
+
+    /**
+     * Constructor that sets the limits of the search and the table of searched positions.
+     * @param maxDepth number of turns searched below the root, at least 1.
+     * @param maxNodes number of positions a search may visit before deepening stops,
+     *                 at least 1; the first turn is always searched whole.
+     * @param table table storing the values of the positions searched.
+     */
+    public EndgameSolver(int maxDepth, long maxNodes, TranspositionTable table) {
+        if (maxDepth < 1 || maxNodes < 1 || table == null) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.table = table;
+    }
+
+    // Getters.
+    public float getValue() {
+        return this.value;
+    }
+    public int getDepth() {
+        return this.depth;
+    }
+    public long getCountNodes() {
+        return this.countNodes;
+    }
+
+    /**
+     * Searches the best move of the current player, seeing every hand of the game.
+     * The game is not modified.
+     * @param game game that is not over.
+     * @return the code of the card to play, or GameState.DRAW if no card is playable.
+     */
+    public int solve(GameState game) {
+        load(game);
+        boolean refreshed = refreshIfEmpty();
+        long playable = playableCards();
+        int move = GameState.DRAW;
+        if (playable != 0) {
+            move = Long.numberOfTrailingZeros(playable);
+            for (int depth = 1; depth <= this.maxDepth && !this.aborted; depth++) {
+                float result = choosePlay(playable, move, depth, BELOW, ABOVE);
+                if (!this.aborted || depth == 1) {
+                    this.value = result;
+                    this.depth = depth;
+                    move = this.nodeBestMove;
+                }
+            }
+        } else {
+            for (int depth = 1; depth <= this.maxDepth && !this.aborted; depth++) {
+                float result = drawTurn(depth, BELOW, ABOVE);
+                if (!this.aborted || depth == 1) {
+                    this.value = result;
+                    this.depth = depth;
+                }
+            }
+        }
+        if (refreshed) {
+            undoRefresh();
+        }
+        return move;
+    }
+
+    /**
+     * Searches the best color to declare for the wild card on top of the discard pile,
+     * played by the current player this turn. The game is not modified.
+     * @param game game whose top card is a wild card.
+     * @return the index of the color in Card.getColors().
+     */
+    public int solveWildColor(GameState game) {
+        load(game);
+        if (Card.rankOf(this.topCode) != Card.WILD) {
+            throw new IllegalStateException("No wild card to declare");
+        }
+        int player = this.currentPlayer;
+        int next = seatAfter(player, this.direction);
+        int color = 0;
+        for (int depth = 1; depth <= this.maxDepth && !this.aborted; depth++) {
+            float result = chooseColor(player, next, depth, BELOW, ABOVE);
+            if (!this.aborted || depth == 1) {
+                this.value = result;
+                this.depth = depth;
+                color = this.nodeBestMove;
+            }
+        }
+        return color;
+    }
+
+    /**
+     * Copies the hands, piles and turn of the game into the compact position,
+     * and starts a new search in the table.
+     */
+    private void load(GameState game) {
+        if (game.isGameOver()) {
+            throw new IllegalStateException("Game is over");
+        }
+        this.countPlayers = game.getCountPlayers();
+        if (this.handSizes.length < this.countPlayers) {
+            this.handCounts = new int[this.countPlayers * Card.NUM_CODES];
+            this.handMasks = new long[this.countPlayers];
+            this.handSizes = new int[this.countPlayers];
+            this.handHashes = new long[this.countPlayers];
+        }
+        Arrays.fill(this.handCounts, 0);
+
+        // Only the number of cards of each code in the piles matters, not their order.
+        this.drawSize = game.getDeck().countDrawCards(this.drawCounts);
+        this.discardSize = game.countDiscardedCards(this.discardCounts) - 1;
+        this.topCode = game.getTopDiscardCard().getCode();
+        this.discardCounts[this.topCode]--;
+        this.handsHash = 0;
+        for (int player = 0; player < this.countPlayers; player++) {
+            Player hand = game.getPlayer(player);
+            this.handMasks[player] = hand.getHandMask();
+            this.handSizes[player] = hand.getHandSize();
+            this.handHashes[player] = hand.getHandHash();
+            this.handsHash += Zobrist.seatKey(player, this.handHashes[player]);
+            for (long codes = this.handMasks[player]; codes != 0; codes &= codes - 1) {
+                int code = Long.numberOfTrailingZeros(codes);
+                int count = hand.countCards(Card.fromCode(code));
+                this.handCounts[player * Card.NUM_CODES + code] = count;
+            }
+        }
+        this.drawMask = 0;
+        this.drawHash = 0;
+        for (int code = 0; code < Card.NUM_CODES; code++) {
+            if (this.drawCounts[code] > 0) {
+                this.drawMask |= 1L << code;
+            }
+            this.drawHash += this.drawCounts[code] * Zobrist.pileKey(code);
+        }
+
+        this.activeColor = game.getActiveColorIdx();
+        this.currentPlayer = game.getCurrentPlayerIdx();
+        this.direction = game.getDirection();
+        this.winner = -1;
+        this.rootPlayer = this.currentPlayer;
+        this.rootKey = Zobrist.perspectiveKey(this.rootPlayer);
+        this.table.newSearch();
+        this.nodeLimit = this.countNodes + this.maxNodes;
+        this.aborted = false;
+    }
+
+    /**
+     * Searches the position at the start of the turn of the current player.
+     * @param depth number of turns left to search.
+     * @param alpha value the root player is already sure to reach.
+     * @param beta value the other players are already sure to hold the root player to.
+     * @return the chance of winning of the root player, exact if strictly between
+     * alpha and beta, and otherwise a bound on the same side of the window.
+     */
+    private float search(int depth, float alpha, float beta) {
+        if (this.winner >= 0) {
+            return this.winner == this.rootPlayer ? 1 : 0;
+        } else if (depth == 0) {
+            return evaluate();
+        } else if (this.countNodes >= this.nodeLimit) {
+            // Out of budget: the deepening stops and this search is thrown away.
+            this.aborted = true;
+            return evaluate();
+        }
+        this.countNodes++;
+        long key = Zobrist.turnKey(this.topCode, this.activeColor, this.currentPlayer,
+                this.direction) + this.handsHash + this.drawHash + this.rootKey;
+        long entry = this.table.probe(key);
+        int hint = -1;
+        if (entry != TranspositionTable.MISS) {
+            if (TranspositionTable.depthOf(entry) >= depth) {
+                return TranspositionTable.valueOf(entry);
+            }
+            hint = TranspositionTable.moveOf(entry);
+        }
+
+        // Like GameState.runOneTurn(), refresh an empty draw pile before the turn.
+        boolean refreshed = refreshIfEmpty();
+        long playable = playableCards();
+        float result;
+        int move;
+        if (playable != 0) {
+            result = choosePlay(playable, hint, depth, alpha, beta);
+            move = this.nodeBestMove;
+        } else {
+            result = drawTurn(depth, alpha, beta);
+            move = GameState.DRAW;
+        }
+        if (refreshed) {
+            undoRefresh();
+        }
+        if (result > alpha && result < beta && !this.aborted) {
+            this.table.store(key, result, depth, move);
+        }
+        return result;
+    }
+
+    /**
+     * The current player chooses which playable card to play, trying the hinted card
+     * (the best one of an earlier search) first.
+     */
+    private float choosePlay(long playable, int hint, int depth, float alpha, float beta) {
+        int player = this.currentPlayer;
+        boolean maximizing = player == this.rootPlayer;
+        float best = maximizing ? BELOW : ABOVE;
+        int bestCode = -1;
+        long first = hint >= 0 ? playable & (1L << hint) : 0;
+        for (long codes = first != 0 ? first : playable; codes != 0; ) {
+            int code = Long.numberOfTrailingZeros(codes);
+            codes &= codes - 1;
+            if (codes == 0 && first != 0) {
+                // After the hinted card, the others.
+                codes = playable & ~first;
+                first = 0;
+            }
+            int previousTop = this.topCode;
+            removeFromHand(player, code);
+            discard(code);
+            if (this.handSizes[player] == 0) {
+                this.winner = player;
+            }
+            float result = afterPlay(depth, alpha, beta);
+            this.winner = -1;
+            undoDiscard(previousTop);
+            addToHand(player, code);
+
+            if (maximizing ? result > best : result < best) {
+                best = result;
+                bestCode = code;
+                if (maximizing) {
+                    alpha = Math.max(alpha, result);
+                } else {
+                    beta = Math.min(beta, result);
+                }
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        this.nodeBestMove = bestCode;
+        return best;
+    }
+
+    /**
+     * The current player has no playable card and draws one, which is played if it is
+     * playable: a chance node over the codes left in the draw pile.
+     */
+    private float drawTurn(int depth, float alpha, float beta) {
+        int player = this.currentPlayer;
+        int next = seatAfter(player, this.direction);
+        if (this.drawSize == 0) {
+            // Every other card is in a hand: the player passes.
+            return nextTurn(next, depth, alpha, beta);
+        }
+        long playable = Card.playableMask(this.topCode, this.activeColor);
+        long codes = this.drawMask;
+        float expected = 0;
+        int countCards = this.drawSize;
+        int countLeft = countCards;
+        if (depth == 1) {
+            // Kept cards all lead to the same hand sizes at the end of the search.
+            int countKept = 0;
+            for (long kept = codes & ~playable; kept != 0; kept &= kept - 1) {
+                countKept += this.drawCounts[Long.numberOfTrailingZeros(kept)];
+            }
+            if (countKept > 0) {
+                this.handSizes[player]++;
+                expected = (float) countKept / countCards * nextTurn(next, depth, BELOW, ABOVE);
+                this.handSizes[player]--;
+                countLeft -= countKept;
+                codes &= playable;
+            }
+        }
+        for (; codes != 0; codes &= codes - 1) {
+            int code = Long.numberOfTrailingZeros(codes);
+            float chance = (float) this.drawCounts[code] / countCards;
+            countLeft -= this.drawCounts[code];
+            float chanceLeft = (float) countLeft / countCards;
+            float childAlpha = (alpha - expected - chanceLeft) / chance;
+            float childBeta = (beta - expected) / chance;
+            takeFromDraw(code);
+            float result;
+            if ((playable & (1L << code)) != 0) {
+                int previousTop = this.topCode;
+                discard(code);
+                result = afterPlay(depth, childAlpha, childBeta);
+                undoDiscard(previousTop);
+            } else {
+                addToHand(player, code);
+                result = nextTurn(next, depth, childAlpha, childBeta);
+                removeFromHand(player, code);
+            }
+            returnToDraw(code);
+            expected += chance * result;
+            if (expected + chanceLeft <= alpha) {
+                return expected + chanceLeft;
+            } else if (expected >= beta) {
+                return expected;
+            }
+        }
+        return expected;
+    }
+
+    /**
+     * Applies the card the current player just put on the discard pile, then searches
+     * the turn of the next player, like GameState.handleSpecialCardsNext().
+     */
+    private float afterPlay(int depth, float alpha, float beta) {
+        if (this.winner >= 0) {
+            return this.winner == this.rootPlayer ? 1 : 0;
+        }
+        int player = this.currentPlayer;
+        int next = seatAfter(player, this.direction);
+        int rank = Card.rankOf(this.topCode);
+        if (rank == Card.WILD) {
+            return chooseColor(player, next, depth, alpha, beta);
+        }
+        int previousColor = this.activeColor;
+        this.activeColor = Card.colorOf(this.topCode);
+        float result;
+        if (rank == Card.SKIP) {
+            result = nextTurn(seatAfter(next, this.direction), depth, alpha, beta);
+        } else if (rank == Card.REVERSE) {
+            this.direction = -this.direction;
+            result = nextTurn(seatAfter(player, this.direction), depth, alpha, beta);
+            this.direction = -this.direction;
+        } else if (rank == Card.DRAW_TWO) {
+            result = drawCards(next, 2, seatAfter(next, this.direction), depth, alpha, beta);
+        } else {
+            result = nextTurn(next, depth, alpha, beta);
+        }
+        this.activeColor = previousColor;
+        return result;
+    }
+
+    /**
+     * The player who played a wild card chooses the color to declare.
+     */
+    private float chooseColor(int player, int next, int depth, float alpha, float beta) {
+        boolean maximizing = player == this.rootPlayer;
+        int previousColor = this.activeColor;
+        float best = maximizing ? BELOW : ABOVE;
+        int bestColor = -1;
+        for (int color = 0; color < NUM_COLORS; color++) {
+            this.activeColor = color;
+            float result = nextTurn(next, depth, alpha, beta);
+            if (maximizing ? result > best : result < best) {
+                best = result;
+                bestColor = color;
+                if (maximizing) {
+                    alpha = Math.max(alpha, result);
+                } else {
+                    beta = Math.min(beta, result);
+                }
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        this.activeColor = previousColor;
+        this.nodeBestMove = bestColor;
+        return best;
+    }
+
+    /**
+     * The given player draws the given number of cards, one chance node per card,
+     * then the turn passes to the given seat.
+     */
+    private float drawCards(int player, int count, int next, int depth, float alpha, float beta) {
+        if (count == 0) {
+            return nextTurn(next, depth, alpha, beta);
+        } else if (depth == 1) {
+            // Only the number of cards drawn matters at the end of the search.
+            int countDrawn = Math.min(count, this.drawSize + this.discardSize);
+            this.handSizes[player] += countDrawn;
+            float result = nextTurn(next, depth, alpha, beta);
+            this.handSizes[player] -= countDrawn;
+            return result;
+        }
+        boolean refreshed = refreshIfEmpty();
+        float expected = 0;
+        if (this.drawSize == 0) {
+            expected = drawCards(player, count - 1, next, depth, alpha, beta);
+        } else {
+            int countCards = this.drawSize;
+            int countLeft = countCards;
+            for (long codes = this.drawMask; codes != 0; codes &= codes - 1) {
+                int code = Long.numberOfTrailingZeros(codes);
+                float chance = (float) this.drawCounts[code] / countCards;
+                countLeft -= this.drawCounts[code];
+                float chanceLeft = (float) countLeft / countCards;
+                takeFromDraw(code);
+                addToHand(player, code);
+                expected += chance * drawCards(player, count - 1, next, depth,
+                        (alpha - expected - chanceLeft) / chance, (beta - expected) / chance);
+                removeFromHand(player, code);
+                returnToDraw(code);
+                if (expected + chanceLeft <= alpha) {
+                    expected += chanceLeft;
+                    break;
+                } else if (expected >= beta) {
+                    break;
+                }
+            }
+        }
+        if (refreshed) {
+            undoRefresh();
+        }
+        return expected;
+    }
+
+    /**
+     * Passes the turn to the given seat and searches one turn less.
+     */
+    private float nextTurn(int next, int depth, float alpha, float beta) {
+        int player = this.currentPlayer;
+        this.currentPlayer = next;
+        float result = search(depth - 1, alpha, beta);
+        this.currentPlayer = player;
+        return result;
+    }
+
+    /**
+     * Values a position at the end of the search: each player's share of the chances
+     * of winning is proportional to the inverse of the number of cards in their hand.
+     */
+    private float evaluate() {
+        float total = 0;
+        for (int player = 0; player < this.countPlayers; player++) {
+            total += 1f / this.handSizes[player];
+        }
+        return (1f / this.handSizes[this.rootPlayer]) / total;
+    }
+
+    /**
+     * @return the bitmask of the cards of the current player that are playable.
+     */
+    private long playableCards() {
+        return this.handMasks[this.currentPlayer]
+                & Card.playableMask(this.topCode, this.activeColor);
+    }
+
+    /**
+     * @return the seat after the given one in the given direction of play.
+     */
+    private int seatAfter(int seat, int direction) {
+        int next = seat + direction;
+        if (next == this.countPlayers) {
+            return 0;
+        } else if (next < 0) {
+            return this.countPlayers - 1;
+        }
+        return next;
+    }
+
+    private void addToHand(int player, int code) {
+        this.handsHash -= Zobrist.seatKey(player, this.handHashes[player]);
+        this.handHashes[player] += Zobrist.cardKey(code);
+        this.handsHash += Zobrist.seatKey(player, this.handHashes[player]);
+        this.handCounts[player * Card.NUM_CODES + code]++;
+        this.handMasks[player] |= 1L << code;
+        this.handSizes[player]++;
+    }
+
+    private void removeFromHand(int player, int code) {
+        this.handsHash -= Zobrist.seatKey(player, this.handHashes[player]);
+        this.handHashes[player] -= Zobrist.cardKey(code);
+        this.handsHash += Zobrist.seatKey(player, this.handHashes[player]);
+        if (--this.handCounts[player * Card.NUM_CODES + code] == 0) {
+            this.handMasks[player] &= ~(1L << code);
+        }
+        this.handSizes[player]--;
+    }
+
+    private void takeFromDraw(int code) {
+        if (--this.drawCounts[code] == 0) {
+            this.drawMask &= ~(1L << code);
+        }
+        this.drawSize--;
+        this.drawHash -= Zobrist.pileKey(code);
+    }
+
+    private void returnToDraw(int code) {
+        this.drawCounts[code]++;
+        this.drawMask |= 1L << code;
+        this.drawSize++;
+        this.drawHash += Zobrist.pileKey(code);
+    }
+
+    /**
+     * Puts the card on top of the discard pile.
+     */
+    private void discard(int code) {
+        this.discardCounts[this.topCode]++;
+        this.discardSize++;
+        this.topCode = code;
+    }
+
+    private void undoDiscard(int previousTop) {
+        this.discardCounts[previousTop]--;
+        this.discardSize--;
+        this.topCode = previousTop;
+    }
+
+    /**
+     * Moves the cards below the top of the discard pile to the empty draw pile.
+     * @return true if the piles changed.
+     */
+    private boolean refreshIfEmpty() {
+        if (this.drawSize > 0 || this.discardSize == 0) {
+            return false;
+        }
+        for (int code = 0; code < Card.NUM_CODES; code++) {
+            int count = this.discardCounts[code];
+            if (count > 0) {
+                this.drawCounts[code] = count;
+                this.drawMask |= 1L << code;
+                this.drawHash += count * Zobrist.pileKey(code);
+                this.discardCounts[code] = 0;
+            }
+        }
+        this.drawSize = this.discardSize;
+        this.discardSize = 0;
+        return true;
+    }
+
+    /**
+     * Moves the draw pile, as it was right after refreshIfEmpty(), back below the top
+     * of the discard pile.
+     */
+    private void undoRefresh() {
+        System.arraycopy(this.drawCounts, 0, this.discardCounts, 0, Card.NUM_CODES);
+        Arrays.fill(this.drawCounts, 0);
+        this.discardSize = this.drawSize;
+        this.drawSize = 0;
+        this.drawMask = 0;
+        this.drawHash = 0;
+    }
+}
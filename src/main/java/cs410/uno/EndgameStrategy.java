@@ -0,0 +1,177 @@
+package cs410.uno;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * Strategy that searches the endgame with an EndgameSolver once the hands of all players
+ * together hold fewer cards than a threshold, and follows another strategy before.
+ *
+ * The player does not see the other hands, and neither does the search: like
+ * MctsStrategy, it deals determinizations from the InformationSet of the player (the
+ * cards they cannot see, dealt at random to the other hands and the draw pile), solves
+ * each of them, and plays the move chosen in the most determinizations. The solver is
+ * limited in depth and in positions per move, and values the positions where it stops
+ * by the hand sizes, so its moves are good guesses, not proven best moves.
+ *
+ * The values found are kept in a TranspositionTable shared by the games that use this
+ * strategy, so a position searched in a turn is not searched again in the next ones;
+ * the games sharing a strategy must therefore have the same deck composition. Each
+ * thread has its own solver and determinization.
+ *
+ * This class contains the following methods:
+ *     - chooseCard() - Plays the card found by the solver in the endgame.
+ *     - chooseWildColor() - Declares the color found by the solver in the endgame.
+ *     - getCountSearches() - Returns the number of searches run so far.
+ *     - getCountNodes() - Returns the number of positions searched so far.
+ */
+public class EndgameStrategy implements Strategy {
+    // Default number of turns searched, positions searched per move,
+    // and number of entries of the table.
+    public static final int DEFAULT_DEPTH = 8;
+    public static final int DEFAULT_DETERMINIZATIONS = 4;
+    public static final long DEFAULT_MAX_NODES = 5_000;
+    public static final int DEFAULT_TABLE_ENTRIES = 1 << 20;
+
+    // Strategy followed before the endgame.
+    private final Strategy strategy;
+
+    // The endgame starts when the hands hold fewer cards than this in total.
+    private final int threshold;
+
+    // Number of turns, and of positions per move, searched by the solvers.
+    private final int maxDepth;
+    private final long maxNodes;
+
+    // Number of determinizations solved per move.
+    private final int countDeterminizations;
+
+    // Values of the positions searched, shared by the solvers.
+    private final TranspositionTable table;
+
+    // Solver and determinization of each thread.
+    private final ThreadLocal<Searcher> searchers;
+
+    // Number of searches, and of positions searched, by every thread.
+    private final LongAdder countSearches = new LongAdder();
+    private final LongAdder countNodes = new LongAdder();
+
+    /**
+     * Constructor that uses the default depth and table size.
+     * @param strategy strategy followed before the endgame.
+     * @param threshold the endgame starts when the hands hold fewer cards than this.
+     */
+    public EndgameStrategy(Strategy strategy, int threshold) {
+        this(strategy, threshold, DEFAULT_DEPTH, DEFAULT_MAX_NODES, DEFAULT_DETERMINIZATIONS,
+                DEFAULT_TABLE_ENTRIES);
+    }
+
+    /**
+     * Constructor that sets every parameter of the endgame search.
+     * @param strategy strategy followed before the endgame.
+     * @param threshold the endgame starts when the hands hold fewer cards than this.
+     * @param maxDepth number of turns searched by the solver, at least 1.
+     * @param maxNodes number of positions the solver may search per move, at least 1.
+     * @param countDeterminizations number of determinizations solved per move, at least 1.
+     * @param tableEntries number of entries of the table of searched positions, at least 2.
+     */
+    public EndgameStrategy(Strategy strategy, int threshold, int maxDepth, long maxNodes,
+                           int countDeterminizations, int tableEntries) {
+        if (strategy == null || threshold < 0 || maxDepth < 1 || maxNodes < 1
+                || countDeterminizations < 1) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        this.strategy = strategy;
+        this.threshold = threshold;
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.countDeterminizations = countDeterminizations;
+        this.table = new TranspositionTable(tableEntries);
+        this.searchers = ThreadLocal.withInitial(Searcher::new);
+    }
+
+    @Override
+    public int chooseCard(GameView view, int[] legalMoves, int countLegalMoves) {
+        if (countLegalMoves == 1 || !isEndgame(view)) {
+            return this.strategy.chooseCard(view, legalMoves, countLegalMoves);
+        }
+        int code = search(view, false);
+        for (int i = 0; i < countLegalMoves; i++) {
+            if (legalMoves[i] == code) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Illegal move");
+    }
+
+    @Override
+    public int chooseWildColor(GameView view) {
+        if (!isEndgame(view)) {
+            return this.strategy.chooseWildColor(view);
+        }
+        return search(view, true);
+    }
+
+    // Getters.
+    public long getCountSearches() {
+        return this.countSearches.sum();
+    }
+    public long getCountNodes() {
+        return this.countNodes.sum();
+    }
+
+    /**
+     * Solves determinizations of what the player sees.
+     * @param isWildColor true to search the color of the wild card just played,
+     *                    false to search the card to play.
+     * @return the move or color chosen in the most determinizations.
+     */
+    private int search(GameView view, boolean isWildColor) {
+        Searcher searcher = this.searchers.get();
+        InformationSet info = new InformationSet(view);
+        if (searcher.game == null || !searcher.game.getConfig().equals(info.getConfig())) {
+            searcher.game = new GameState(info.getConfig(), new SplittableRandom(0),
+                    GameEventListener.NONE);
+        }
+        byte[] hidden = info.copyHiddenCards();
+        RandomGenerator random = new SplittableRandom(view.getRandom().nextLong());
+        int[] votes = new int[Card.NUM_CODES];
+        int bestMove = 0;
+        long countNodes = searcher.solver.getCountNodes();
+        for (int i = 0; i < this.countDeterminizations; i++) {
+            info.deal(searcher.game, hidden, random);
+            int move = isWildColor ? searcher.solver.solveWildColor(searcher.game)
+                    : searcher.solver.solve(searcher.game);
+            if (++votes[move] > votes[bestMove]) {
+                bestMove = move;
+            }
+        }
+        this.countSearches.increment();
+        this.countNodes.add(searcher.solver.getCountNodes() - countNodes);
+        return bestMove;
+    }
+
+    /**
+     * @return true if the hands hold fewer cards than the threshold, and the player has
+     * not just won by playing their last card (then the color of a wild does not matter).
+     */
+    private boolean isEndgame(GameView view) {
+        if (view.getHandSize(view.getCurrentPlayerIdx()) == 0) {
+            return false;
+        }
+        int countCards = 0;
+        for (int i = 0; i < view.getCountPlayers(); i++) {
+            countCards += view.getHandSize(i);
+        }
+        return countCards < this.threshold;
+    }
+
+    /**
+     * Solver of one thread, and the game state it deals the determinizations into.
+     */
+    private final class Searcher {
+        private final EndgameSolver solver = new EndgameSolver(EndgameStrategy.this.maxDepth,
+                EndgameStrategy.this.maxNodes, EndgameStrategy.this.table);
+        private GameState game;
+    }
+}
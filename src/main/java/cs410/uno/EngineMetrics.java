@@ -0,0 +1,199 @@
+package cs410.uno;
+import java.util.concurrent.atomic.LongAdder;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Counters and latency histograms of the operations of every game of the process, and the
+ * JDK Flight Recorder events of the engine, for watching large simulations as they run.
+ *
+ * Metrics are off unless the JVM is started with -Dcs410.uno.metrics=true. ENABLED is a
+ * static final field, so when it is false the JIT removes the code that records the
+ * metrics from GameState and Deck, and they cost nothing. When it is true:
+ *     - the counters are LongAdders, which many game threads increment without contending;
+ *     - the time of each runOneTurn() and each refresh of a draw pile is recorded in a
+ *       LatencyHistogram;
+ *     - every turn, refresh and end of game is also a JFR event (cs410.uno.Turn,
+ *       cs410.uno.Refresh and cs410.uno.GameOver), which a recording can capture with
+ *       the rest of the JVM's events.
+ * The getters and report() can be called from a monitoring thread while games run; the
+ * counts they return may miss the operations happening during the call.
+ *
+ * This class contains the following methods:
+ *     - getters for each counter and histogram.
+ *     - report() - Returns every counter and histogram as a String.
+ *     - reset() - Sets every counter and histogram back to zero.
+ */
+public final class EngineMetrics {
+    // True if the metrics are recorded.
+    public static final boolean ENABLED = Boolean.getBoolean("cs410.uno.metrics");
+
+    // Games dealt, and games won.
+    static final LongAdder GAMES_STARTED = new LongAdder();
+    static final LongAdder GAMES_OVER = new LongAdder();
+
+    // Turns played, by runOneTurn() or makeMove().
+    static final LongAdder TURNS = new LongAdder();
+
+    // Cards played from a hand, and drawn cards played at once.
+    static final LongAdder CARDS_PLAYED = new LongAdder();
+    static final LongAdder DRAWN_CARDS_PLAYED = new LongAdder();
+
+    // Cards drawn from a draw pile, dealt to the hands, and drawn because of a DRAW TWO.
+    static final LongAdder CARDS_DRAWN = new LongAdder();
+    static final LongAdder CARDS_DEALT = new LongAdder();
+    static final LongAdder FORCED_DRAWS = new LongAdder();
+
+    // Turns without a card played, where the player kept the drawn card or could not draw.
+    static final LongAdder PASSES = new LongAdder();
+
+    // Effects of the special cards.
+    static final LongAdder SKIPS = new LongAdder();
+    static final LongAdder REVERSES = new LongAdder();
+    static final LongAdder DRAW_TWOS = new LongAdder();
+    static final LongAdder WILDS = new LongAdder();
+
+    // Refreshes of a draw pile from its discard pile, and cards shuffled by them.
+    static final LongAdder REFRESHES = new LongAdder();
+    static final LongAdder CARDS_REFRESHED = new LongAdder();
+
+    // Time of each runOneTurn() and of each refresh, in nanoseconds.
+    static final LatencyHistogram TURN_NANOS = new LatencyHistogram();
+    static final LatencyHistogram REFRESH_NANOS = new LatencyHistogram();
+
+    private EngineMetrics() {
+    }
+
+    // Getters.
+    public static long getGamesStarted() {
+        return GAMES_STARTED.sum();
+    }
+    public static long getGamesOver() {
+        return GAMES_OVER.sum();
+    }
+    public static long getTurns() {
+        return TURNS.sum();
+    }
+    public static long getCardsPlayed() {
+        return CARDS_PLAYED.sum();
+    }
+    public static long getDrawnCardsPlayed() {
+        return DRAWN_CARDS_PLAYED.sum();
+    }
+    public static long getCardsDrawn() {
+        return CARDS_DRAWN.sum();
+    }
+    public static long getCardsDealt() {
+        return CARDS_DEALT.sum();
+    }
+    public static long getForcedDraws() {
+        return FORCED_DRAWS.sum();
+    }
+    public static long getPasses() {
+        return PASSES.sum();
+    }
+    public static long getSkips() {
+        return SKIPS.sum();
+    }
+    public static long getReverses() {
+        return REVERSES.sum();
+    }
+    public static long getDrawTwos() {
+        return DRAW_TWOS.sum();
+    }
+    public static long getWilds() {
+        return WILDS.sum();
+    }
+    public static long getRefreshes() {
+        return REFRESHES.sum();
+    }
+    public static long getCardsRefreshed() {
+        return CARDS_REFRESHED.sum();
+    }
+    public static LatencyHistogram getTurnNanos() {
+        return TURN_NANOS;
+    }
+    public static LatencyHistogram getRefreshNanos() {
+        return REFRESH_NANOS;
+    }
+
+    /**
+     * @return every counter and histogram, one per line.
+     */
+    public static String report() {
+        return String.format("Games: %d started, %d over%n"
+                        + "Turns: %d (%d passes)%n"
+                        + "Cards: %d played, %d drawn and played, %d drawn, %d dealt,"
+                        + " %d forced draws%n"
+                        + "Effects: %d skips, %d reverses, %d draw twos, %d wilds%n"
+                        + "Refreshes: %d (%d cards)%n"
+                        + "Turn ns: %s%n"
+                        + "Refresh ns: %s%n",
+                getGamesStarted(), getGamesOver(), getTurns(), getPasses(),
+                getCardsPlayed(), getDrawnCardsPlayed(), getCardsDrawn(), getCardsDealt(),
+                getForcedDraws(), getSkips(), getReverses(), getDrawTwos(), getWilds(),
+                getRefreshes(), getCardsRefreshed(), TURN_NANOS, REFRESH_NANOS);
+    }
+
+    /**
+     * Sets every counter and histogram back to zero.
+     */
+    public static void reset() {
+        for (LongAdder counter : new LongAdder[] {GAMES_STARTED, GAMES_OVER, TURNS,
+                CARDS_PLAYED, DRAWN_CARDS_PLAYED, CARDS_DRAWN, CARDS_DEALT, FORCED_DRAWS,
+                PASSES, SKIPS, REVERSES, DRAW_TWOS, WILDS, REFRESHES, CARDS_REFRESHED}) {
+            counter.reset();
+        }
+        TURN_NANOS.reset();
+        REFRESH_NANOS.reset();
+    }
+
+    /**
+     * JFR event of one runOneTurn(); its duration is the time of the turn.
+     */
+    @Name("cs410.uno.Turn")
+    @Label("Uno Turn")
+    @Category("Uno")
+    @Description("A player takes their turn")
+    static class TurnEvent extends Event {
+        @Label("Player")
+        int player;
+
+        @Label("Card Played")
+        @Description("Code of the card played, or -1 if the player did not play")
+        int cardCode;
+
+        @Label("Hand Size")
+        int handSize;
+    }
+
+    /**
+     * JFR event of a refresh of a draw pile from its discard pile.
+     */
+    @Name("cs410.uno.Refresh")
+    @Label("Uno Draw Pile Refresh")
+    @Category("Uno")
+    @Description("The discard pile is shuffled into the empty draw pile")
+    static class RefreshEvent extends Event {
+        @Label("Cards")
+        int countCards;
+    }
+
+    /**
+     * JFR event of the end of a game.
+     */
+    @Name("cs410.uno.GameOver")
+    @Label("Uno Game Over")
+    @Category("Uno")
+    @Description("A player emptied their hand")
+    static class GameOverEvent extends Event {
+        @Label("Winner")
+        int winner;
+
+        @Label("Turns")
+        int turns;
+    }
+}
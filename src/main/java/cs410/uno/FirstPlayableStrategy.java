@@ -0,0 +1,20 @@
+package cs410.uno;
+
+/**
+ * Strategy that plays the playable card with the lowest code and declares a random
+ * color for wild cards. It is the default strategy of every player.
+ */
+public class FirstPlayableStrategy implements Strategy {
+    // The strategy has no state, so every player can share this instance.
+    public static final FirstPlayableStrategy INSTANCE = new FirstPlayableStrategy();
+
+    @Override
+    public int chooseCard(GameView view, int[] legalMoves, int countLegalMoves) {
+        return 0;
+    }
+
+    @Override
+    public int chooseWildColor(GameView view) {
+        return view.getRandom().nextInt(Card.getColors().length);
+    }
+}
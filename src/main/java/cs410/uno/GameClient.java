@@ -0,0 +1,24 @@
+package cs410.uno;
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface for a client of a TableServer, the transport through which a remote seat
+ * plays its moves: LocalGameClient calls a server of the same JVM, and SocketGameClient
+ * sends the requests to a SocketGameServer over a socket. The requests of a client may
+ * be sent from several threads, and each returns a future of the snapshot of the seat,
+ * which fails as the corresponding method of TableServer describes.
+ *
+ * This interface contains the following methods:
+ *     - getState() - Returns the snapshot of a seat of a table.
+ *     - play() - Plays the move of a seat, then the turns of the bots.
+ *     - newGame() - Starts a new game at a table once its game is over.
+ *     - close() - Releases the transport; requests still waiting then fail.
+ */
+public interface GameClient extends Closeable {
+    CompletableFuture<TableSnapshot> getState(int tableId, int seat);
+
+    CompletableFuture<TableSnapshot> play(int tableId, int seat, int cardCode, int wildColor);
+
+    CompletableFuture<TableSnapshot> newGame(int tableId, int seat);
+}
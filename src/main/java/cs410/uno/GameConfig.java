@@ -0,0 +1,121 @@
+package cs410.uno;
+
+/**
+ * Represents the configuration of a game of Uno: the number of players, the size of
+ * their initial hands, and the composition of the deck. It holds the same numbers as
+ * the GameState constructor, so a configuration can be passed around and reused to
+ * start many games, such as the games of a tournament.
+ *
+ * This class contains the following methods:
+ *     - getters for each number of the configuration.
+ *     - countCardsInDeck() - Returns how many cards with a code the deck has.
+ *     - toString() - Returns the formatted String of the configuration.
+ *     - equals() - Returns true if the object is a configuration with the same numbers.
+ *     - hashCode() - Returns a hash code of the numbers of the configuration.
+ */
+public class GameConfig {
+    // Number of players.
+    private final int countPlayers;
+
+    // Number of cards initially dealt to each player.
+    private final int countInitialCardsPerPlayer;
+
+    // Number of normal cards for each digit and color.
+    private final int countDigitCardsPerColor;
+
+    // Number of special cards of each kind for each color.
+    private final int countSpecialCardsPerColor;
+
+    // Number of total wild cards.
+    private final int countWildCards;
+
+    /**
+     * Constructor that initializes the configuration. The numbers are checked
+     * when a GameState is created from it.
+     *
+     * @param countPlayers number of players.
+     * @param countInitialCardsPerPlayer number of cards initially dealt to each player.
+     * @param countDigitCardsPerColor number of normal cards for each digit and color.
+     * @param countSpecialCardsPerColor number of special cards of each kind for each color.
+     * @param countWildCards number of total wild cards.
+     */
+    public GameConfig(int countPlayers, int countInitialCardsPerPlayer,
+                      int countDigitCardsPerColor, int countSpecialCardsPerColor,
+                      int countWildCards) {
+        this.countPlayers = countPlayers;
+        this.countInitialCardsPerPlayer = countInitialCardsPerPlayer;
+        this.countDigitCardsPerColor = countDigitCardsPerColor;
+        this.countSpecialCardsPerColor = countSpecialCardsPerColor;
+        this.countWildCards = countWildCards;
+    }
+
+    // Getters.
+    public int getCountPlayers() {
+        return this.countPlayers;
+    }
+    public int getCountInitialCardsPerPlayer() {
+        return this.countInitialCardsPerPlayer;
+    }
+    public int getCountDigitCardsPerColor() {
+        return this.countDigitCardsPerColor;
+    }
+    public int getCountSpecialCardsPerColor() {
+        return this.countSpecialCardsPerColor;
+    }
+    public int getCountWildCards() {
+        return this.countWildCards;
+    }
+
+    /**
+     * @param code code of a card (see Card.getCode()).
+     * @return the number of cards with the code in a full deck of this configuration.
+     */
+    public int countCardsInDeck(int code) {
+        if (Card.colorOf(code) == Card.NO_COLOR) {
+            return this.countWildCards;
+        }
+        return Card.rankOf(code) < Card.SKIP
+                ? this.countDigitCardsPerColor : this.countSpecialCardsPerColor;
+    }
+
+    /**
+     * @return the numbers of the configuration in the form of a String.
+     */
+    @Override
+    public String toString() {
+        return String.format("players=%d hand=%d digit=%d special=%d wild=%d",
+                this.countPlayers, this.countInitialCardsPerPlayer,
+                this.countDigitCardsPerColor, this.countSpecialCardsPerColor,
+                this.countWildCards);
+    }
+
+    /**
+     * @param other the object to be compared against this configuration.
+     * @return true if the given object is a configuration with the same numbers.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof GameConfig) {
+            GameConfig otherConfig = (GameConfig) other;
+            return this.countPlayers == otherConfig.countPlayers
+                    && this.countInitialCardsPerPlayer == otherConfig.countInitialCardsPerPlayer
+                    && this.countDigitCardsPerColor == otherConfig.countDigitCardsPerColor
+                    && this.countSpecialCardsPerColor == otherConfig.countSpecialCardsPerColor
+                    && this.countWildCards == otherConfig.countWildCards;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * @return a hash code of the numbers of the configuration.
+     */
+    @Override
+    public int hashCode() {
+        int hash = this.countPlayers;
+        hash = 31 * hash + this.countInitialCardsPerPlayer;
+        hash = 31 * hash + this.countDigitCardsPerColor;
+        hash = 31 * hash + this.countSpecialCardsPerColor;
+        return 31 * hash + this.countWildCards;
+    }
+}
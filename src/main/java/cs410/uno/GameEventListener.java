@@ -0,0 +1,120 @@
+package cs410.uno;
+
+/**
+ * Receives the events of a game of Uno, such as the start of the game,
+ * the cards played by each player and the end of the game.
+ *
+ * Every method has an empty default, so a listener only overrides the events it needs.
+ * A game without a listener uses NONE, whose empty methods are inlined away by the JIT,
+ * so simulations that do not need any output pay no formatting or I/O cost.
+ *
+ * This interface contains the following methods:
+ *     - onGameStarted() - Called once the hands are dealt and the first card is on the discard pile.
+ *     - onCardPlayed() - Called when a player plays a card from their hand.
+ *     - onTurnEnded() - Called at the end of every turn, with the move of the player.
+ *     - onDrawPileRefreshed() - Called when the discard pile is shuffled into the draw pile.
+ *     - onForcedDraw() - Called when a DRAW TWO makes a player draw cards.
+ *     - onGameOver() - Called when a player has no cards left in their hand.
+ *     - both() - Returns a listener that passes every event to two listeners.
+ */
+public interface GameEventListener {
+    // Listener that ignores every event.
+    GameEventListener NONE = new GameEventListener() { };
+
+    /**
+     * Called once the hands are dealt and the first card is on the discard pile.
+     * @param game the game that started.
+     */
+    default void onGameStarted(GameState game) {
+    }
+
+    /**
+     * Called when a player plays a card from their hand.
+     * @param game the game being played.
+     * @param playerIdx index of the player that played the card.
+     * @param card the card that was played.
+     */
+    default void onCardPlayed(GameState game, int playerIdx, Card card) {
+    }
+
+    /**
+     * Called at the end of every turn, once the card played has taken effect.
+     * @param game the game being played.
+     * @param playerIdx index of the player that took the turn.
+     * @param move code of the card played from the hand, or GameState.DRAW if the
+     *             player had no playable card and drew.
+     * @param wildColor index of the color declared if a wild card was played, or -1.
+     */
+    default void onTurnEnded(GameState game, int playerIdx, int move, int wildColor) {
+    }
+
+    /**
+     * Called when the draw pile is empty and the discard pile, but its top card,
+     * is shuffled into it.
+     * @param game the game being played.
+     */
+    default void onDrawPileRefreshed(GameState game) {
+    }
+
+    /**
+     * Called when a DRAW TWO makes a player draw cards.
+     * @param game the game being played.
+     * @param playerIdx index of the player that draws the cards.
+     * @param countCards number of cards drawn, fewer than 2 if the piles ran out.
+     */
+    default void onForcedDraw(GameState game, int playerIdx, int countCards) {
+    }
+
+    /**
+     * Called when a player has no cards left in their hand.
+     * @param game the game that is over.
+     * @param winnerIdx index of the player that won.
+     */
+    default void onGameOver(GameState game, int winnerIdx) {
+    }
+
+    /**
+     * @param first listener that hears each event first.
+     * @param second listener that hears each event next.
+     * @return a listener that passes every event to both listeners, in that order.
+     */
+    static GameEventListener both(GameEventListener first, GameEventListener second) {
+        return new GameEventListener() {
+            @Override
+            public void onGameStarted(GameState game) {
+                first.onGameStarted(game);
+                second.onGameStarted(game);
+            }
+
+            @Override
+            public void onCardPlayed(GameState game, int playerIdx, Card card) {
+                first.onCardPlayed(game, playerIdx, card);
+                second.onCardPlayed(game, playerIdx, card);
+            }
+
+            @Override
+            public void onTurnEnded(GameState game, int playerIdx, int move, int wildColor) {
+                first.onTurnEnded(game, playerIdx, move, wildColor);
+                second.onTurnEnded(game, playerIdx, move, wildColor);
+            }
+
+            @Override
+            public void onDrawPileRefreshed(GameState game) {
+                first.onDrawPileRefreshed(game);
+                second.onDrawPileRefreshed(game);
+            }
+
+            @Override
+            public void onForcedDraw(GameState game, int playerIdx, int countCards) {
+                first.onForcedDraw(game, playerIdx, countCards);
+                second.onForcedDraw(game, playerIdx, countCards);
+            }
+
+            @Override
+            public void onGameOver(GameState game, int winnerIdx) {
+                first.onGameOver(game, winnerIdx);
+                second.onGameOver(game, winnerIdx);
+            }
+        };
+    }
+}
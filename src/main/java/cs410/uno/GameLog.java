@@ -0,0 +1,322 @@
+package cs410.uno;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Append-only binary log of games, written through a memory-mapped file, to keep every
+ * game of a long run for later analysis. A GameReplayer reads the log back and rebuilds
+ * the game at any turn.
+ *
+ * A game started from a seed (see GameState.getSeed()) deals and draws the same cards
+ * whenever it is played again with the same moves, so a game is logged as its seed, its
+ * configuration and one byte per turn:
+ *     - bits 0 to 5: code of the card played from the hand, or DRAW_MOVE if the player
+ *       had no playable card and drew (whether the drawn card was played follows from
+ *       the deck);
+ *     - bits 6 and 7: color declared if the turn played a wild card.
+ * The effects of the cards follow from the rules, so a typical game takes well under
+ * 100 bytes, instead of the few kilobytes of its console output.
+ *
+ * Format of the file, in which numbers are big-endian:
+ *     - header: MAGIC and VERSION, 4 bytes each;
+ *     - each game: the byte GAME, the seed (8 bytes), the 5 numbers of the configuration
+ *       and the number of turns as varints (7 bits per byte, low bits first), then the
+ *       turns;
+ *     - a 0 byte, or the end of the file, ends the log.
+ * The file is mapped in windows of WINDOW_SIZE bytes and written by copying into the
+ * window, without a system call per game. The GAME byte of a game is written after the
+ * rest of it and a 0 byte, so if the process dies while writing a game, the log ends
+ * before it.
+ * Writes reach the disk every flushBytes bytes and on close(), which trims the file
+ * to the games written. Several threads may append at once; each game is one append.
+ *
+ * This class contains the following methods:
+ *     - newRecorder() - Returns a listener that appends the games it hears to this log.
+ *     - append() - Appends a game to the log.
+ *     - getCountGames() - Returns the number of games appended since the log was opened.
+ *     - getSize() - Returns the number of bytes of the log.
+ *     - flush() - Writes the games appended so far to the disk.
+ *     - close() - Flushes and trims the log, and closes the file.
+ */
+public class GameLog implements Closeable {
+    // First bytes of a log ("UNOL"), and version of the format.
+    static final int MAGIC = 0x554E4F4C;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+
+    // Byte that starts a game.
+    static final byte GAME = 1;
+
+    // Move byte of a turn in which the player drew.
+    static final int DRAW_MOVE = 0x3F;
+
+    // Number of bytes of the file mapped at once.
+    static final int WINDOW_SIZE = 1 << 24;
+
+    // Default number of bytes written between two flushes to the disk.
+    public static final int DEFAULT_FLUSH_BYTES = 1 << 20;
+
+    // File of the log.
+    private final FileChannel channel;
+
+    // Number of bytes written between two flushes.
+    private final int flushBytes;
+
+    // Mapped part of the file, and position of its first byte in the file.
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    // Position in the file of the next game, and of the first byte not yet flushed.
+    private long position;
+    private long flushedPosition;
+
+    // Number of games appended.
+    private long countGames;
+
+    // Buffer of a game being appended.
+    private byte[] buffer = new byte[64];
+
+    /**
+     * Constructor that opens the log, creating it if needed, and flushes every
+     * DEFAULT_FLUSH_BYTES bytes.
+     * @param path file of the log.
+     * @throws IOException if the file cannot be opened, or is not a game log.
+     */
+    public GameLog(Path path) throws IOException {
+        this(path, DEFAULT_FLUSH_BYTES);
+    }
+
+    /**
+     * Constructor that opens the log, creating it if needed. Games are appended after
+     * the ones already in the log.
+     * @param path file of the log.
+     * @param flushBytes number of bytes written between two flushes to the disk, at least 1.
+     * @throws IOException if the file cannot be opened, or is not a game log.
+     */
+    public GameLog(Path path, int flushBytes) throws IOException {
+        if (flushBytes < 1) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        long end = HEADER_SIZE;
+        boolean isNew = !Files.exists(path) || Files.size(path) == 0;
+        if (!isNew) {
+            try (GameReplayer replayer = new GameReplayer(path)) {
+                end = replayer.getEndPosition();
+            }
+        }
+        this.flushBytes = flushBytes;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.position = end;
+        this.flushedPosition = isNew ? 0 : end;
+        if (isNew) {
+            mapWindow(0, HEADER_SIZE);
+            this.window.putInt(0, MAGIC);
+            this.window.putInt(4, VERSION);
+        } else {
+            mapWindow(end, 1);
+        }
+    }
+
+    /**
+     * @return a listener that appends each game it hears to this log, see Recorder.
+     */
+    public Recorder newRecorder() {
+        return new Recorder(this);
+    }
+
+    /**
+     * Appends a game to the log.
+     * @param config configuration of the game.
+     * @param seed seed of the SplittableRandom the game was started from.
+     * @param turns move byte of each turn (see the format above).
+     * @param countTurns number of turns of the game.
+     */
+    public void append(GameConfig config, long seed, byte[] turns, int countTurns) {
+        if (countTurns < 0 || countTurns > turns.length) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        synchronized (this) {
+            // Encode the game in the buffer, leaving the GAME byte for last.
+            int size = 1;
+            ensureBufferCapacity(9 + 6 * 5 + countTurns);
+            for (int i = 7; i >= 0; i--) {
+                this.buffer[size++] = (byte) (seed >>> (8 * i));
+            }
+            size = putVarint(size, config.getCountPlayers());
+            size = putVarint(size, config.getCountInitialCardsPerPlayer());
+            size = putVarint(size, config.getCountDigitCardsPerColor());
+            size = putVarint(size, config.getCountSpecialCardsPerColor());
+            size = putVarint(size, config.getCountWildCards());
+            size = putVarint(size, countTurns);
+            System.arraycopy(turns, 0, this.buffer, size, countTurns);
+            size += countTurns;
+
+            try {
+                if (this.position + size + 1 > this.windowStart + this.window.capacity()) {
+                    mapWindow(this.position, size + 1);
+                }
+                int index = (int) (this.position - this.windowStart);
+                this.window.put(index + size, (byte) 0);
+                this.window.put(index + 1, this.buffer, 1, size - 1);
+                this.window.put(index, GAME);
+                this.position += size;
+                this.countGames++;
+                if (this.position - this.flushedPosition >= this.flushBytes) {
+                    flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // Getters.
+    public synchronized long getCountGames() {
+        return this.countGames;
+    }
+    public synchronized long getSize() {
+        return this.position;
+    }
+
+    /**
+     * Writes the games appended so far to the disk.
+     */
+    public synchronized void flush() {
+        long start = Math.max(this.flushedPosition, this.windowStart);
+        if (this.position > start) {
+            this.window.force((int) (start - this.windowStart), (int) (this.position - start));
+        }
+        this.flushedPosition = this.position;
+    }
+
+    /**
+     * Flushes the log, trims the file to the games written, and closes it.
+     * @throws IOException if the file cannot be trimmed or closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!this.channel.isOpen()) {
+            return;
+        }
+        flush();
+        this.window = null;
+        this.channel.truncate(this.position);
+        this.channel.close();
+    }
+
+    /**
+     * Flushes the current window and maps the file from the given position, for at
+     * least the given number of bytes.
+     */
+    private void mapWindow(long start, int size) throws IOException {
+        if (this.window != null) {
+            flush();
+        }
+        this.window = this.channel.map(FileChannel.MapMode.READ_WRITE, start,
+                Math.max(WINDOW_SIZE, size));
+        this.windowStart = start;
+    }
+
+    /**
+     * Writes a non-negative int in the buffer as a varint.
+     * @return the index after the varint.
+     */
+    private int putVarint(int index, int value) {
+        while ((value & ~0x7F) != 0) {
+            this.buffer[index++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        this.buffer[index++] = (byte) value;
+        return index;
+    }
+
+    /**
+     * Grows the buffer so that it can take the given number of bytes.
+     */
+    private void ensureBufferCapacity(int size) {
+        if (size > this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(size, this.buffer.length * 2));
+        }
+    }
+
+    /**
+     * @return the move byte of a turn, as given to GameEventListener.onTurnEnded().
+     */
+    static byte encodeTurn(int move, int wildColor) {
+        return (byte) ((move == GameState.DRAW ? DRAW_MOVE : move) | (Math.max(wildColor, 0) << 6));
+    }
+
+    /**
+     * Listener that records the turns of the games it hears, and appends each game to
+     * the log when it is over. The seed is read from the game, which must have been
+     * started from one (see GameState.getSeed()); appending a game without a seed fails.
+     * A recorder keeps the game being played, so each thread needs its own recorder;
+     * a recorder may be reused by the games a thread plays one after another.
+     */
+    public static class Recorder implements GameEventListener {
+        // Log the games are appended to.
+        private final GameLog log;
+
+        // Game being played, and its configuration.
+        private GameState game;
+        private GameConfig config;
+
+        // Move byte of each turn of the game being played.
+        private byte[] turns = new byte[256];
+        private int countTurns;
+
+        // True if the game being played has been appended to the log.
+        private boolean isAppended = true;
+
+        /**
+         * Constructor that records games into the given log.
+         * @param log log the games are appended to.
+         */
+        public Recorder(GameLog log) {
+            this.log = log;
+        }
+
+        @Override
+        public void onGameStarted(GameState game) {
+            // The seed is read when the game ends: a game created by its seeded
+            // constructor only records its seed after this event.
+            this.game = game;
+            this.config = game.getConfig();
+            this.countTurns = 0;
+            this.isAppended = false;
+        }
+
+        @Override
+        public void onTurnEnded(GameState game, int playerIdx, int move, int wildColor) {
+            if (this.countTurns == this.turns.length) {
+                this.turns = Arrays.copyOf(this.turns, 2 * this.turns.length);
+            }
+            this.turns[this.countTurns++] = encodeTurn(move, wildColor);
+        }
+
+        @Override
+        public void onGameOver(GameState game, int winnerIdx) {
+            endGame();
+        }
+
+        /**
+         * Appends the game being played to the log, if it has not been yet, such as a
+         * game stopped before anyone won. Called when a game is over.
+         * @throws IllegalStateException if the game was not started from a seed.
+         */
+        public void endGame() {
+            if (!this.isAppended) {
+                this.log.append(this.config, this.game.getSeed(), this.turns, this.countTurns);
+                this.isAppended = true;
+            }
+        }
+    }
+}
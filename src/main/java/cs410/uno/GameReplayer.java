@@ -0,0 +1,263 @@
+package cs410.uno;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a log written by a GameLog, and rebuilds any game of it at any turn by playing
+ * the logged moves again with GameState.playMove(), without calling any strategy.
+ *
+ * The whole file is mapped read-only, in windows of up to 1 GiB, and indexed once when
+ * it is opened: the position of each game is kept, so a game is found in constant time
+ * and only its own bytes are read. A game that was being written when the process
+ * writing the log died is not part of the log.
+ *
+ * This class contains the following methods:
+ *     - getCountGames() - Returns the number of games in the log.
+ *     - getSeed() / getConfig() / getCountTurns() - Returns the seed, configuration, or
+ *                                                   number of turns of a game.
+ *     - getMove() - Returns the code of the card played in a turn, or GameState.DRAW.
+ *     - getWildColor() - Returns the color declared in a turn.
+ *     - replay() - Rebuilds a game after some of its turns.
+ *     - close() - Closes the file.
+ */
+public class GameReplayer implements Closeable {
+    // Number of bytes of a window, as a number of bits.
+    private static final int WINDOW_BITS = 30;
+    private static final long WINDOW_MASK = (1L << WINDOW_BITS) - 1;
+
+    // File of the log, mapped in windows.
+    private final FileChannel channel;
+    private final MappedByteBuffer[] windows;
+    private final long size;
+
+    // Position of each game, and number of games.
+    private long[] gamePositions = new long[16];
+    private int countGames;
+
+    // Position after the last game.
+    private long endPosition;
+
+    /**
+     * Constructor that opens and indexes the log.
+     * @param path file of the log.
+     * @throws IOException if the file cannot be read, or is not a game log.
+     */
+    public GameReplayer(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.size = this.channel.size();
+            this.windows = new MappedByteBuffer[(int) ((this.size + WINDOW_MASK) >>> WINDOW_BITS)];
+            for (int i = 0; i < this.windows.length; i++) {
+                long start = (long) i << WINDOW_BITS;
+                this.windows[i] = this.channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(WINDOW_MASK + 1, this.size - start));
+            }
+            if (this.size < GameLog.HEADER_SIZE || readInt(0) != GameLog.MAGIC
+                    || readInt(4) != GameLog.VERSION) {
+                throw new IOException("Not a game log");
+            }
+            index();
+        } catch (IOException | RuntimeException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+
+    // Getters.
+    public int getCountGames() {
+        return this.countGames;
+    }
+
+    /**
+     * @return the seed of the SplittableRandom the game was started from.
+     */
+    public long getSeed(int game) {
+        long position = gamePosition(game) + 1;
+        long seed = 0;
+        for (int i = 0; i < 8; i++) {
+            seed = (seed << 8) | byteAt(position + i);
+        }
+        return seed;
+    }
+
+    /**
+     * @return the configuration of the game.
+     */
+    public GameConfig getConfig(int game) {
+        long[] position = {gamePosition(game) + 9};
+        return new GameConfig(readVarint(position), readVarint(position),
+                readVarint(position), readVarint(position), readVarint(position));
+    }
+
+    /**
+     * @return the number of turns of the game.
+     */
+    public int getCountTurns(int game) {
+        long[] position = {gamePosition(game) + 9};
+        for (int i = 0; i < 5; i++) {
+            readVarint(position);
+        }
+        return readVarint(position);
+    }
+
+    /**
+     * @return the code of the card played from the hand in the turn (from 0),
+     * or GameState.DRAW if the player drew.
+     */
+    public int getMove(int game, int turn) {
+        int move = turnAt(game, turn) & GameLog.DRAW_MOVE;
+        return move == GameLog.DRAW_MOVE ? GameState.DRAW : move;
+    }
+
+    /**
+     * @return the index of the color declared in the turn if a wild card was played.
+     */
+    public int getWildColor(int game, int turn) {
+        return turnAt(game, turn) >>> 6;
+    }
+
+    /**
+     * @return the game once it is over, or after its last logged turn.
+     */
+    public GameState replay(int game) {
+        return replay(game, getCountTurns(game));
+    }
+
+    /**
+     * Rebuilds the game after the given number of turns, with the default strategy and
+     * no listener. It is started from its logged seed, so the game can be played on
+     * from there, and logged again.
+     * @param game index of the game in the log.
+     * @param countTurns number of turns played, from 0 to getCountTurns(game).
+     * @return the game after the turns.
+     */
+    public GameState replay(int game, int countTurns) {
+        if (countTurns < 0 || countTurns > getCountTurns(game)) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        GameState state = new GameState(getConfig(game), getSeed(game), GameEventListener.NONE);
+        long position = turnsPosition(game);
+        for (int i = 0; i < countTurns; i++) {
+            int turn = byteAt(position + i);
+            int move = turn & GameLog.DRAW_MOVE;
+            try {
+                state.playMove(move == GameLog.DRAW_MOVE ? GameState.DRAW : move, turn >>> 6);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                throw new IllegalStateException("Corrupted game log", e);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * @return the position after the last game, where a GameLog appends the next one.
+     */
+    long getEndPosition() {
+        return this.endPosition;
+    }
+
+    /**
+     * Closes the file.
+     * @throws IOException if the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Finds the position of each game, up to a 0 byte, the end of the file, or a
+     * game cut short by the end of the file.
+     */
+    private void index() {
+        long position = GameLog.HEADER_SIZE;
+        this.endPosition = position;
+        while (position < this.size && byteAt(position) == GameLog.GAME) {
+            long[] cursor = {position + 9};
+            int countTurns = 0;
+            for (int i = 0; i < 6 && countTurns >= 0; i++) {
+                countTurns = readVarint(cursor);
+            }
+            if (countTurns < 0 || cursor[0] + countTurns > this.size) {
+                return;
+            }
+            if (this.countGames == this.gamePositions.length) {
+                this.gamePositions = Arrays.copyOf(this.gamePositions, 2 * this.countGames);
+            }
+            this.gamePositions[this.countGames++] = position;
+            position = cursor[0] + countTurns;
+            this.endPosition = position;
+        }
+    }
+
+    /**
+     * @return the position of the GAME byte of the game.
+     */
+    private long gamePosition(int game) {
+        if (game < 0 || game >= this.countGames) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        return this.gamePositions[game];
+    }
+
+    /**
+     * @return the position of the first turn of the game, after its seed and varints.
+     */
+    private long turnsPosition(int game) {
+        long[] position = {gamePosition(game) + 9};
+        for (int i = 0; i < 6; i++) {
+            readVarint(position);
+        }
+        return position[0];
+    }
+
+    /**
+     * @return the move byte of the turn of the game.
+     */
+    private int turnAt(int game, int turn) {
+        if (turn < 0 || turn >= getCountTurns(game)) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        return byteAt(turnsPosition(game) + turn);
+    }
+
+    /**
+     * @return the byte at the position in the file, from 0 to 255.
+     */
+    private int byteAt(long position) {
+        return this.windows[(int) (position >>> WINDOW_BITS)].get((int) (position & WINDOW_MASK))
+                & 0xFF;
+    }
+
+    private int readInt(long position) {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | byteAt(position + i);
+        }
+        return value;
+    }
+
+    /**
+     * Reads a varint and moves the cursor after it.
+     * @return the value of the varint, or -1 if the file ends before it does.
+     */
+    private int readVarint(long[] cursor) {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (cursor[0] >= this.size || shift > 28) {
+                return -1;
+            }
+            b = byteAt(cursor[0]++);
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -1,12 +1,29 @@
 package cs410.uno;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
 
 /**
  * GamesState is a class that represents the current state of the Uno game, containing:
  *     - startGame() - Initializes the game with already arranged players,
  *                    their initial hands have been dealt, and the discard pile and
  *                    draw pile have been created.
+ *     - restart() - Starts a new game with the same configuration, reusing this game state.
+ *     - getSeed() - Returns the seed the game was started from.
+ *     - copy() - Returns an independent copy of the game.
+ *     - copyInto() - Copies the game into another game with the same configuration.
+ *     - makeMove() - Plays the given move for the current player, recording how to undo it.
+ *     - unmakeMove() - Undoes the last move played by makeMove().
  *     - getDeck() - Returns the draw pile.
+ *     - getCountPlayers() - Returns the number of players.
+ *     - getPlayer() - Returns the player at the given index.
+ *     - getView() - Returns the read-only view of the game given to a player's strategy.
+ *     - getCurrentPlayerIdx() - Returns the index of the player whose turn it is.
+ *     - getDirection() - Returns the direction of play.
+ *     - getTurnCount() - Returns the number of turns played so far.
+ *     - getActiveColor() - Returns the color that the next card must match.
+ *     - getLegalMoves() - Fills a buffer with the codes of the cards the current player can play.
  *     - isPlayable() - Returns true if the given card is playable from the color, digit,
  *                      and special instruction, false otherwise.
  *     - playMatchingCardOrDraw() - Simulates the action of a player choosing the card to play,
@@ -15,19 +32,57 @@ import java.util.Random;
  *                                  checking if it affects the next player's turn.
  *     - runOneTurn() - Runs one turn of the game, keeping it going until game is over.
  *     - isGameOver() - Returns true if the game is over.
+ *     - getWinnerIdx() - Returns the index of the player that won, or -1.
+ *     - getHash() - Returns the Zobrist hash of the hands and turn of the game.
+ *
+ * The turn passes around the table in the direction of play, which a REVERSE card flips.
+ * The winner is recorded as soon as a player empties their hand, and the listener hears
+ * about it at the end of that turn, so the cost of a turn does not grow with the table.
+ *
+ * The strategies of the players never get the game itself: each seat has its own
+ * read-only GameView of it, created with the game and reused on every turn, which only
+ * shows what that seat knows (its own hand, the size of the other hands and the piles),
+ * so a strategy cannot see the other hands or change the game.
+ * Large decks (COUNTED_DECK_MIN_CARDS or more) keep their draw pile as counts per card,
+ * so a game with millions of cards or thousands of players stays small in memory.
+ *
+ * For search, makeMove() and unmakeMove() explore moves in place: every change made by
+ * a move (cards drawn, played or dealt, refreshes of the draw pile, and the turn fields)
+ * is pushed on an undo journal of ints, which is reused from move to move, so exploring
+ * a move does not allocate. copyInto() forks a game into a preallocated game state.
+ * getHash() identifies a situation reached by different orders of moves, to look it up
+ * in a TranspositionTable; each hand keeps its own hash as cards come and go.
+ * When the JVM runs with -Dcs410.uno.metrics=true, turns, cards and effects are counted
+ * in EngineMetrics, and each runOneTurn() is timed and emitted as a JFR event.
  *
  *     - Invariant 1: The game must have at least 2 players to start.
  *     - Invariant 2: A player must have more than 0 normal cards for each digit and color.
  *     - Invariant 3: A player can have 0 or more special cards of each kind for each color.
  *     - Invariant 4: A player can have 0 or more wild cards.
  */
-public class GameState {
+public class GameState implements GameView {
     // Number of colors.
     private static final int NUM_COLORS = 4;
 
     // Represents the list of colors.
     private static final String[] colors = {"RED", "YELLOW", "GREEN", "BLUE"};
 
+    // Decks with at least this many cards keep their draw pile as counts per code
+    // (see Deck), so their memory does not grow with the number of cards.
+    public static final int COUNTED_DECK_MIN_CARDS = 1 << 12;
+
+    // Move of makeMove() that draws a card instead of playing one.
+    public static final int DRAW = -1;
+
+    // Kinds of changes recorded on the undo journal, pushed after their operands.
+    private static final int OP_DRAW = 0;
+    private static final int OP_ADD_TO_HAND = 1;
+    private static final int OP_REMOVE_FROM_HAND = 2;
+    private static final int OP_DISCARD = 3;
+    private static final int OP_REFRESH = 4;
+
+    // Number of turn fields pushed at the start of each move on the undo journal.
+    private static final int COUNT_TURN_FIELDS = 5;
 
     // Number of players.
     private final int countPlayers;
@@ -53,9 +108,53 @@ public class GameState {
     // Represents the list of players.
     private Player[] players;
 
+    // Read-only view of the game given to the strategy of each player.
+    private PlayerView[] views;
+
     // Represents the index of current player.
     private int currentPlayerIdx;
 
+    // Direction of play: 1 while the turn passes to the next index, -1 once reversed.
+    private int direction;
+
+    // Index of the player who emptied their hand, or -1 while the game goes on.
+    // It is updated when a card is played, so checking for the end of the game
+    // does not depend on the number of players.
+    private int winnerIdx;
+
+    // Number of turns played so far.
+    private int turnCount;
+
+    // Buffer of legal moves given to the strategies, reused on every turn.
+    private final int[] legalMoves = new int[Card.NUM_CODES];
+
+    // Source of randomness of the game, used to declare the color of wild cards.
+    // The deck shuffles with a generator split from it, so a game created
+    // with a seeded generator replays exactly.
+    private SplittableGenerator random;
+
+    // Seed of the SplittableRandom the game was started from, if isSeeded. A game started
+    // from a generator, or whose hands were copied or dealt by hand, has no seed.
+    private long seed;
+    private boolean isSeeded;
+
+    // Receives the events of the game; GameEventListener.NONE when nothing listens.
+    private final GameEventListener listener;
+
+    // Undo journal of makeMove(); each move pushes the turn fields, its changes,
+    // and finally the index where its entries start.
+    private int[] journal = new int[64];
+    private int journalSize;
+
+    // Number of moves that can be undone, and whether changes are being recorded.
+    private int undoDepth;
+    private boolean recording;
+
+    // Represents the index of the color that must be matched. It is the color of the
+    // top discard card, or the color declared when a wild card was played.
+    // Keeping it here instead of on the card lets every game share the same cards.
+    private int activeColor;
+
     /**
      * Constructor that initializes the state of the Uno game, with the respective
      * number of players and cards that each player must have according to the invariants.
@@ -69,6 +168,46 @@ public class GameState {
     public GameState(int countPlayers, int countInitialCardsPerPlayer,
                      int countDigitCardsPerColor, int countSpecialCardsPerColor,
                      int countWildCards) {
+        this(countPlayers, countInitialCardsPerPlayer, countDigitCardsPerColor,
+                countSpecialCardsPerColor, countWildCards, GameEventListener.NONE);
+    }
+
+    /**
+     * Constructor that initializes the state of the Uno game like the one above,
+     * and reports the events of the game to the given listener.
+     *
+     * @param countPlayers number of players.
+     * @param countInitialCardsPerPlayer number of cards initially dealt to each player.
+     * @param countDigitCardsPerColor number of normal cards for each digit and color.
+     * @param countSpecialCardsPerColor number of special cards of each kind for each color.
+     * @param countWildCards number of total wild cards.
+     * @param listener listener that receives the events of the game.
+     */
+    public GameState(int countPlayers, int countInitialCardsPerPlayer,
+                     int countDigitCardsPerColor, int countSpecialCardsPerColor,
+                     int countWildCards, GameEventListener listener) {
+        this(countPlayers, countInitialCardsPerPlayer, countDigitCardsPerColor,
+                countSpecialCardsPerColor, countWildCards, new SplittableRandom(), listener);
+    }
+
+    /**
+     * Constructor that initializes the state of the Uno game like the ones above,
+     * drawing all of its randomness from the given generator, and reports the events
+     * of the game to the given listener. Two games created with generators in the same
+     * state (e.g. new SplittableRandom(seed)) play exactly the same way.
+     *
+     * @param countPlayers number of players.
+     * @param countInitialCardsPerPlayer number of cards initially dealt to each player.
+     * @param countDigitCardsPerColor number of normal cards for each digit and color.
+     * @param countSpecialCardsPerColor number of special cards of each kind for each color.
+     * @param countWildCards number of total wild cards.
+     * @param random source of randomness of the game, owned by this game from now on.
+     * @param listener listener that receives the events of the game.
+     */
+    public GameState(int countPlayers, int countInitialCardsPerPlayer,
+                     int countDigitCardsPerColor, int countSpecialCardsPerColor,
+                     int countWildCards, SplittableGenerator random,
+                     GameEventListener listener) {
         // If there are less than 2 players or negative number of cards,
         // throw an IllegalArgumentException error.
         int totalCards = NUM_COLORS * countDigitCardsPerColor +
@@ -86,35 +225,177 @@ public class GameState {
             this.countDigitCardsPerColor = countDigitCardsPerColor;
             this.countSpecialCardsPerColor = countSpecialCardsPerColor;
             this.countWildCards = countWildCards;
-            this.currentPlayerIdx = 0;
+            this.random = random;
+            this.listener = listener;
 
             // Initialize the list of players and deck.
             this.players = new Player[countPlayers];
-            this.deck = new Deck(countDigitCardsPerColor, countSpecialCardsPerColor, countWildCards);
+            long countCards = Deck.countCards(countDigitCardsPerColor,
+                    countSpecialCardsPerColor, countWildCards);
+            this.deck = new Deck(countDigitCardsPerColor, countSpecialCardsPerColor, countWildCards,
+                    random.split(), countCards >= COUNTED_DECK_MIN_CARDS);
 
             // Add players to the list of players.
             for (int i = 0; i < countPlayers; i++) {
-                Player player = new Player(String.format("Player %d\n", i + 1));
-                for (int j = 0; j < countInitialCardsPerPlayer; j++) {
-                    player.addToHand(this.deck.draw());
-                }
-                this.players[i] = player;
+                this.players[i] = new Player(String.format("Player %d\n", i + 1));
             }
+            this.views = createViews();
+            dealNewGame();
+        }
+    }
 
-            System.out.printf("Total Players: %d\n", this.players.length);
-            System.out.printf("Hand size per player: %d\n\n", this.players[0].getHand().size());
+    /**
+     * Constructor that initializes the state of the Uno game from a configuration,
+     * drawing all of its randomness from the given generator.
+     *
+     * @param config number of players and composition of the deck.
+     * @param random source of randomness of the game, owned by this game from now on.
+     * @param listener listener that receives the events of the game.
+     */
+    public GameState(GameConfig config, SplittableGenerator random, GameEventListener listener) {
+        this(config.getCountPlayers(), config.getCountInitialCardsPerPlayer(),
+                config.getCountDigitCardsPerColor(), config.getCountSpecialCardsPerColor(),
+                config.getCountWildCards(), random, listener);
+    }
 
-            // Draws the first card from deck.
-            this.deck.addCardToDiscard(this.deck.draw());
+    /**
+     * Constructor that initializes the state of the Uno game from a configuration,
+     * drawing all of its randomness from new SplittableRandom(seed), so that the game
+     * can be logged and replayed from its seed and moves.
+     *
+     * @param config number of players and composition of the deck.
+     * @param seed seed of the source of randomness of the game.
+     * @param listener listener that receives the events of the game.
+     */
+    public GameState(GameConfig config, long seed, GameEventListener listener) {
+        this(config, new SplittableRandom(seed), listener);
+        this.seed = seed;
+        this.isSeeded = true;
+    }
 
-            // If the first card is a wild card, set the card to a random color.
-            if (this.deck.getTopDiscardCard().isWild()) {
-                Random random = new Random();
-                int randomIdx = random.nextInt(NUM_COLORS);
-                this.deck.getTopDiscardCard().setColor(colors[randomIdx]);
-            }
-            System.out.printf("Starting Top Card: %s\n", this.deck.getTopDiscardCard().toString());
+    /**
+     * Starts a new game with the same players and deck composition, reusing the
+     * memory of this game state instead of allocating a new one.
+     * @param random source of randomness of the new game, owned by this game from now on.
+     */
+    public void restart(SplittableGenerator random) {
+        this.isSeeded = false;
+        reshuffleAndDeal(random);
+    }
+
+    /**
+     * Starts a new game with the same players and deck composition, drawing all of its
+     * randomness from new SplittableRandom(seed), reusing the memory of this game state.
+     * @param seed seed of the source of randomness of the new game.
+     */
+    public void restart(long seed) {
+        this.seed = seed;
+        this.isSeeded = true;
+        reshuffleAndDeal(new SplittableRandom(seed));
+    }
+
+    /**
+     * Shuffles a full deck with the given source of randomness and deals a new game.
+     */
+    private void reshuffleAndDeal(SplittableGenerator random) {
+        this.random = random;
+        this.deck.reset(this.countDigitCardsPerColor, this.countSpecialCardsPerColor,
+                this.countWildCards, random.split());
+        for (Player player : this.players) {
+            player.clearHand();
+        }
+        dealNewGame();
+    }
+
+    /**
+     * Constructor that initializes a copy of another game, used by copy().
+     * @param source game to be copied.
+     * @param random source of randomness of the copy.
+     */
+    private GameState(GameState source, SplittableGenerator random) {
+        this.countPlayers = source.countPlayers;
+        this.countInitialCardsPerPlayer = source.countInitialCardsPerPlayer;
+        this.countDigitCardsPerColor = source.countDigitCardsPerColor;
+        this.countSpecialCardsPerColor = source.countSpecialCardsPerColor;
+        this.countWildCards = source.countWildCards;
+        this.random = random;
+        this.listener = GameEventListener.NONE;
+        this.deck = new Deck(source.deck, random.split());
+        this.players = new Player[this.countPlayers];
+        for (int i = 0; i < this.countPlayers; i++) {
+            Player player = source.players[i];
+            this.players[i] = new Player(player.getName(), player.getStrategy());
         }
+        this.views = createViews();
+        source.copyInto(this);
+    }
+
+    /**
+     * Returns an independent copy of the game: same hands, piles and turn, and the same
+     * strategies, with no listener and the given source of randomness. Like copyInto(),
+     * it draws nothing from this game's generator, so forking a seeded game does not
+     * change how it plays on.
+     * @param random source of randomness of the copy, owned by the copy from now on.
+     * @return the copy of the game.
+     */
+    public GameState copy(SplittableGenerator random) {
+        return new GameState(this, random);
+    }
+
+    /**
+     * Copies the hands, piles and turn of this game into the target game, reusing its
+     * memory. The target keeps its own strategies, listener and source of randomness,
+     * and its undo journal is cleared.
+     * @param target game created with the same configuration as this one.
+     */
+    public void copyInto(GameState target) {
+        if (target.countPlayers != this.countPlayers
+                || target.countInitialCardsPerPlayer != this.countInitialCardsPerPlayer
+                || target.countDigitCardsPerColor != this.countDigitCardsPerColor
+                || target.countSpecialCardsPerColor != this.countSpecialCardsPerColor
+                || target.countWildCards != this.countWildCards) {
+            throw new IllegalArgumentException("Different configuration");
+        }
+        this.deck.copyInto(target.deck);
+        for (int i = 0; i < this.countPlayers; i++) {
+            this.players[i].copyInto(target.players[i]);
+        }
+        target.currentPlayerIdx = this.currentPlayerIdx;
+        target.direction = this.direction;
+        target.activeColor = this.activeColor;
+        target.turnCount = this.turnCount;
+        target.winnerIdx = this.winnerIdx;
+        target.isSeeded = false;
+        target.clearJournal();
+    }
+
+    /**
+     * Deals the initial hands and the first card of the discard pile from a full deck.
+     */
+    private void dealNewGame() {
+        this.currentPlayerIdx = 0;
+        this.direction = 1;
+        this.turnCount = 0;
+        this.winnerIdx = -1;
+        clearJournal();
+        for (Player player : this.players) {
+            this.deck.deal(player, this.countInitialCardsPerPlayer);
+        }
+
+        // Draws the first card from deck.
+        this.deck.addCardToDiscard(this.deck.draw());
+
+        // If the first card is a wild card, declare a random color.
+        int topCode = this.deck.getTopDiscardCode();
+        if (Card.rankOf(topCode) == Card.WILD) {
+            this.activeColor = this.random.nextInt(NUM_COLORS);
+        } else {
+            this.activeColor = Card.colorOf(topCode);
+        }
+        if (EngineMetrics.ENABLED) {
+            EngineMetrics.GAMES_STARTED.increment();
+        }
+        this.listener.onGameStarted(this);
     }
 
     /**
@@ -141,173 +422,799 @@ public class GameState {
         return deck;
     }
 
+    @Override
+    public GameConfig getConfig() {
+        return new GameConfig(this.countPlayers, this.countInitialCardsPerPlayer,
+                this.countDigitCardsPerColor, this.countSpecialCardsPerColor, this.countWildCards);
+    }
+
+    @Override
+    public int getCountPlayers() {
+        return this.countPlayers;
+    }
+
+    public Player getPlayer(int index) {
+        return this.players[index];
+    }
+
+    /**
+     * @param playerIdx index of a player.
+     * @return the read-only view of the game that the strategy of the player gets.
+     */
+    public GameView getView(int playerIdx) {
+        return this.views[playerIdx];
+    }
+
+    @Override
+    public int getCurrentPlayerIdx() {
+        return this.currentPlayerIdx;
+    }
+
+    @Override
+    public int getDirection() {
+        return this.direction;
+    }
+
+    @Override
+    public int getTurnCount() {
+        return this.turnCount;
+    }
+
+    @Override
+    public int getHandSize(int playerIdx) {
+        return this.players[playerIdx].getHandSize();
+    }
+
+    @Override
+    public long getOwnHandMask() {
+        return this.players[this.currentPlayerIdx].getHandMask();
+    }
+
+    @Override
+    public int countOwnCards(int code) {
+        return this.players[this.currentPlayerIdx].countCards(Card.fromCode(code));
+    }
+
+    @Override
+    public Card getTopDiscardCard() {
+        return this.deck.getTopDiscardCard();
+    }
+
+    @Override
+    public int getActiveColorIdx() {
+        return this.activeColor;
+    }
+
+    @Override
+    public long getPlayableMask() {
+        return playableMask();
+    }
+
+    @Override
+    public int getDrawPileSize() {
+        return this.deck.getDrawPileSize();
+    }
+
+    @Override
+    public int countDiscardedCards(int[] counts) {
+        return this.deck.countDiscardedCards(counts);
+    }
+
+    @Override
+    public RandomGenerator getRandom() {
+        return this.random;
+    }
+
     /**
-     * Returns true if the card is playable. A card is playable if the color, digit,
-     * or special instruction of the card matches with the card on top of the discard pile.
-     * A card is also playable if it's a wild card.
+     * Not part of GameView: a strategy that knew the seed could predict the draw pile.
+     * @return the seed of the SplittableRandom the game was started from.
+     * @throws IllegalStateException if the game was not started from a seed.
+     */
+    public long getSeed() {
+        if (!this.isSeeded) {
+            throw new IllegalStateException("Game was not started from a seed");
+        }
+        return this.seed;
+    }
+
+    /**
+     * Sets whose turn it is, the direction of play, the active color and the number of
+     * turns played, such as after the hands and piles have been dealt by hand.
+     * Forgets every recorded move.
+     */
+    void setTurn(int currentPlayerIdx, int direction, int activeColor, int turnCount) {
+        this.currentPlayerIdx = currentPlayerIdx;
+        this.direction = direction;
+        this.activeColor = activeColor;
+        this.turnCount = turnCount;
+        this.winnerIdx = findWinnerIdx();
+        this.isSeeded = false;
+        clearJournal();
+    }
+
+    /**
+     * @return the color that the next card must match, either the color of the top
+     * discard card or the color declared for a wild card.
+     */
+    public String getActiveColor() {
+        return this.activeColor == Card.NO_COLOR ? "~" : colors[this.activeColor];
+    }
+
+    /**
+     * Returns true if the card is playable. A card is playable if its color matches
+     * the active color, or its digit or special instruction matches the card on top
+     * of the discard pile. A card is also playable if it's a wild card.
+     * The answer is one bit of a precomputed mask (see Card.playableMask()).
      * @param card card to be compared against the card on top of the discard pile.
      * @return true if the card is playable, otherwise false.
      */
     public boolean isPlayable(Card card) {
-        String cardColor = card.getColor();
-        int cardDigit = card.getDigit();
-        String cardSpecial = card.getSpecialInstruct();
+        return (playableMask() & (1L << card.getCode())) != 0;
+    }
 
-        String discardColor = this.deck.getTopDiscardCard().getColor();
-        int discardDigit = this.deck.getTopDiscardCard().getDigit();
-        String discardSpecial = this.deck.getTopDiscardCard().getSpecialInstruct();
+    /**
+     * Fills the buffer with the codes of the cards that the current player can play,
+     * in increasing order.
+     * @param buffer array of at least Card.NUM_CODES entries, provided by the caller.
+     * @return the number of codes written at the start of the buffer.
+     */
+    public int getLegalMoves(int[] buffer) {
+        long playableCards = this.players[this.currentPlayerIdx].getHandMask() & playableMask();
+        int count = 0;
+        while (playableCards != 0) {
+            buffer[count++] = Long.numberOfTrailingZeros(playableCards);
+            playableCards &= playableCards - 1;
+        }
+        return count;
+    }
 
-        return (cardColor.equals(discardColor) || cardDigit == discardDigit || card.isWild());
+    /**
+     * @return the bitmask of the card codes that can be played on the top discard card.
+     */
+    private long playableMask() {
+        return Card.playableMask(this.deck.getTopDiscardCode(), this.activeColor);
     }
 
     /**
      * Simulates the player's actions upon seeing the top card on the discard pile.
      * If no match is found, draw a card. If the drawn card is a match, play that card,
      * otherwise, the player keeps the card.
+     * @return true if the player played a card, false if they kept the drawn card or passed.
      */
-    public void playMatchingCardOrDraw() {
-        // Get the color and digit of the card on top of discard pile.
-        String topDiscardedCardColor = this.deck.getTopDiscardCard().getColor();
-        int topDiscardedCardDigit = this.deck.getTopDiscardCard().getDigit();
-
-        // Check every card in the player's hand against the card on the discard pile.
-        int i = 0;
-        int totalCardsInHand = this.players[currentPlayerIdx].getHand().size();
-        while (i < totalCardsInHand) {
-            // Get the card from the player.
-            Card playerCard = this.players[currentPlayerIdx].getCard(i);
-
-            // Get card's color and digit.
-            String playerCardColor = playerCard.getColor();
-            int playerCardDigit = playerCard.getDigit();
-
-            // If the color or digit of the card matches the card on the discard pile,
-            // or it's a wild card, the player plays its card on the discard pile.
-            if (isPlayable(playerCard)) {
-                this.players[currentPlayerIdx].removeCard(playerCard);
-                this.deck.addCardToDiscard(playerCard);
-
-                System.out.printf("Player %d plays %sCurrent hand size: %s\n\n",
-                        this.currentPlayerIdx + 1,
-                        playerCard.toString(),
-                        this.players[currentPlayerIdx].getHand().size());
-                break;
-            }
+    public boolean playMatchingCardOrDraw() {
+        Player player = this.players[currentPlayerIdx];
+
+        // Look up the cards of the player's hand that match the card on the discard pile:
+        // its color or digit, or a wild card. The hand index answers this in one step.
+        int countLegalMoves = getLegalMoves(this.legalMoves);
+        if (countLegalMoves > 0) {
+            // The strategy of the player chooses which matching card to play.
+            int move = player.chooseCard(this.views[this.currentPlayerIdx], this.legalMoves,
+                    countLegalMoves);
+            playCard(Card.fromCode(this.legalMoves[move]));
+            return true;
 
-            i++; // Check next card.
+        // If no card match is found, draw a card from the draw pile
+        // and check if the player can place that card.
+        } else {
+            return drawAndPlayIfPlayable();
         }
+    }
 
-        // If the player has the same number of cards in his hand
-        // (no card match found -> card not played, yet),
-        // draw a card from the draw pile and check if the player can place that card.
-        if (totalCardsInHand == this.players[currentPlayerIdx].getHand().size()) {
-            Card drawnCard = this.deck.draw();
-            String drawnCardColor = drawnCard.getColor();
-            int drawnCardDigit = drawnCard.getDigit();
+    /**
+     * The current player plays the card from their hand on the discard pile.
+     * Only playing a card can empty a hand, so this is where the winner is found.
+     */
+    private void playCard(Card card) {
+        removeFromHand(this.currentPlayerIdx, card);
+        discard(card);
+        if (this.players[this.currentPlayerIdx].isHandEmpty()) {
+            this.winnerIdx = this.currentPlayerIdx;
+        }
+        if (EngineMetrics.ENABLED) {
+            EngineMetrics.CARDS_PLAYED.increment();
+        }
+        this.listener.onCardPlayed(this, this.currentPlayerIdx, card);
+    }
 
-            // If the drawn card is playable, add it to the discard pile.
-            if (isPlayable(drawnCard)) {
-                this.deck.addCardToDiscard(drawnCard);
+    /**
+     * The current player draws a card, and plays it if it's playable.
+     * If every other card is in the players' hands, there is nothing to draw
+     * and the player passes.
+     * @return true if the drawn card was played, false otherwise.
+     */
+    private boolean drawAndPlayIfPlayable() {
+        Card drawnCard = drawCard();
+        if (drawnCard == null) {
+            return false;
+        }
 
-            // Otherwise, add the drawn card to the player's hand.
-            } else {
-                this.players[currentPlayerIdx].addToHand(drawnCard);
+        // If the drawn card is playable, add it to the discard pile.
+        if (isPlayable(drawnCard)) {
+            discard(drawnCard);
+            if (EngineMetrics.ENABLED) {
+                EngineMetrics.DRAWN_CARDS_PLAYED.increment();
             }
+            return true;
+
+        // Otherwise, add the drawn card to the player's hand.
+        } else {
+            addToHand(this.currentPlayerIdx, drawnCard);
+            return false;
         }
     }
 
     /**
-     * Handles with the special instruction cards.
-     *
+     * @return the seat after the given one in the direction of play, going around
+     * the table without a modulo.
+     */
+    private int seatAfter(int seat) {
+        int next = seat + this.direction;
+        if (next == this.countPlayers) {
+            return 0;
+        } else if (next < 0) {
+            return this.countPlayers - 1;
+        }
+        return next;
+    }
+
+    /**
+     * Handles with the special instruction cards, and passes the turn on.
+     * The card on top of the discard pile only takes effect in the turn it was played;
+     * a player who did not play passes the turn to the next player.
+     * @param played true if the current player played a card this turn.
+     * @param wildColor color to declare if the top card is a wild card,
+     *                  or -1 to let the strategy of the current player choose.
      */
-    private void handleSpecialCardsNext() {
-        // Get the next/prev player, accounting for the "circular" behavior.
-        // E.g, 4 players in game, and it's Player 3's turn. Player 3 places a
+    private void handleSpecialCardsNext(boolean played, int wildColor) {
+        // Get the next player in the direction of play, accounting for the "circular"
+        // behavior. E.g, 4 players in game, and it's Player 3's turn. Player 3 places a
         // skip special instruction card. Next player will be Player 1, not Player 5.
-        // E.g., 4 players in game, and it's Player 1's turn. Player 1 places a
-        // reverse special instruction card. Next player will be Player 4, not Player 0.
-        int nextPlayerIdx = (this.currentPlayerIdx + 1) % this.countPlayers;
-        int nextNextPlayerIdx = (this.currentPlayerIdx + 2) % this.countPlayers;
-        int prevPlayerIdx = (this.currentPlayerIdx - 1 + this.countPlayers) % this.countPlayers;
+        int nextPlayerIdx = seatAfter(this.currentPlayerIdx);
+        if (!played) {
+            this.currentPlayerIdx = nextPlayerIdx;
+            return;
+        }
+        int topCode = this.deck.getTopDiscardCode();
+        int topRank = Card.rankOf(topCode);
 
         // If the card placed by player is a wild card,
-        // set the current card placed to a random color
-        // (AIs are playing, color will be random so no need to give choice).
-        if (this.deck.getTopDiscardCard().isWild()) {
-            Random random = new Random();
-            int randomIdx = random.nextInt(NUM_COLORS);
-            this.deck.getTopDiscardCard().setColor(colors[randomIdx]);
+        // the strategy of the player declares the active color.
+        if (topRank == Card.WILD) {
+            this.activeColor = wildColor >= 0 ? wildColor
+                    : this.players[this.currentPlayerIdx].chooseWildColor(this.views[this.currentPlayerIdx]);
             this.currentPlayerIdx = nextPlayerIdx;
+            if (EngineMetrics.ENABLED) {
+                EngineMetrics.WILDS.increment();
+            }
 
         // In addition, if the card placed by player is a special card,
         // check which special instruction does it apply to the other players.
-        } else if (this.deck.getTopDiscardCard().isSpecial()) {
+        } else if (topRank >= Card.SKIP) {
+            this.activeColor = Card.colorOf(topCode);
 
             // If the placed card is a "SKIP", skip the next player.
-            switch (this.deck.getTopDiscardCard().getSpecialInstruct()) {
-                case "SKIP":
-                    this.currentPlayerIdx = nextNextPlayerIdx;
+            switch (topRank) {
+                case Card.SKIP:
+                    this.currentPlayerIdx = seatAfter(nextPlayerIdx);
+                    if (EngineMetrics.ENABLED) {
+                        EngineMetrics.SKIPS.increment();
+                    }
                     break;
 
                 // If the placed card is a "REVERSE",
                 // change the direction of the normal flow among players.
-                // E.g., Clockwise to counter-clockwise.
-                case "REVERSE":
-                    this.currentPlayerIdx = prevPlayerIdx;
+                // E.g., Clockwise to counter-clockwise: with 4 players, after Player 1
+                // places a reverse card, Player 4 plays next, then Player 3.
+                case Card.REVERSE:
+                    this.direction = -this.direction;
+                    this.currentPlayerIdx = seatAfter(this.currentPlayerIdx);
+                    if (EngineMetrics.ENABLED) {
+                        EngineMetrics.REVERSES.increment();
+                    }
                     break;
 
                 // If the placed card is a "DRAW TWO", add two cards from
                 // the draw pile to the next player's hand
-                case "DRAW TWO":
-                    this.players[nextPlayerIdx].addToHand(deck.draw());
-                    this.players[nextPlayerIdx].addToHand(deck.draw());
-                    this.currentPlayerIdx = nextNextPlayerIdx;
+                case Card.DRAW_TWO:
+                    int countDrawn = 0;
+                    for (int i = 0; i < 2; i++) {
+                        Card drawnCard = drawCard();
+                        if (drawnCard != null) {
+                            addToHand(nextPlayerIdx, drawnCard);
+                            countDrawn++;
+                            if (EngineMetrics.ENABLED) {
+                                EngineMetrics.FORCED_DRAWS.increment();
+                            }
+                        }
+                    }
+                    this.listener.onForcedDraw(this, nextPlayerIdx, countDrawn);
+                    this.currentPlayerIdx = seatAfter(nextPlayerIdx);
+                    if (EngineMetrics.ENABLED) {
+                        EngineMetrics.DRAW_TWOS.increment();
+                    }
                     break;
             }
         } else {
+            this.activeColor = Card.colorOf(topCode);
             this.currentPlayerIdx = nextPlayerIdx;
         }
     }
 
+    /**
+     * Draws a card, refreshing the draw pile from the discard pile first if it is empty.
+     * @return the drawn card, or null if both piles are out of cards to draw.
+     */
+    private Card drawCard() {
+        if (this.deck.isEmpty()) {
+            refreshDrawPile();
+            if (this.deck.isEmpty()) {
+                return null;
+            }
+        }
+        Card card = this.deck.draw();
+        if (this.recording) {
+            record(card.getCode());
+            record(OP_DRAW);
+        }
+        return card;
+    }
+
+    /**
+     * Refreshes the draw pile from the discard pile, saving the discard pile first
+     * when a move is being recorded, since the refresh shuffles it.
+     */
+    private void refreshDrawPile() {
+        if (this.recording) {
+            ensureJournalCapacity(this.deck.getDiscardPileSize() + 2);
+            int count = this.deck.copyDiscardPile(this.journal, this.journalSize);
+            this.journalSize += count;
+            record(count);
+            record(OP_REFRESH);
+        }
+        this.deck.refreshDrawPile();
+        if (!this.deck.isEmpty()) {
+            this.listener.onDrawPileRefreshed(this);
+        }
+    }
+
+    /**
+     * Adds the card to the hand of the player.
+     */
+    private void addToHand(int playerIdx, Card card) {
+        this.players[playerIdx].addToHand(card);
+        if (this.recording) {
+            record(playerIdx);
+            record(card.getCode());
+            record(OP_ADD_TO_HAND);
+        }
+    }
+
+    /**
+     * Removes the card from the hand of the player.
+     */
+    private void removeFromHand(int playerIdx, Card card) {
+        this.players[playerIdx].removeCard(card);
+        if (this.recording) {
+            record(playerIdx);
+            record(card.getCode());
+            record(OP_REMOVE_FROM_HAND);
+        }
+    }
+
+    /**
+     * Adds the card to the discard pile.
+     */
+    private void discard(Card card) {
+        this.deck.addCardToDiscard(card);
+        if (this.recording) {
+            record(OP_DISCARD);
+        }
+    }
+
     /** The current player takes their turn, and if they play a special card
      * the corresponding effects are performed. When the method returns,
      * the next player is ready to take their turn.
      * If the game is already over, this method has no effect.
+     * Moves played by makeMove() can no longer be undone afterwards.
      */
     public void runOneTurn() {
+        if (this.winnerIdx >= 0) {
+            return;
+        }
+        if (EngineMetrics.ENABLED) {
+            runOneTurnMeasured();
+        } else {
+            playTurn();
+        }
+    }
+
+    /**
+     * The current player takes their turn, as described in runOneTurn().
+     * @return true if the player played a card.
+     */
+    private boolean playTurn() {
+        clearJournal();
+
         // If the draw pile is empty, refresh the draw pile from the discard pile.
         if (this.deck.isEmpty()) {
-            this.deck.refreshDrawPile();
+            refreshDrawPile();
         }
 
         // Check if player has a card to play. If not, draw a card from draw pile.
         // If the drawn card is a match, play the card, otherwise add the card
         // to the player's hand.
-        playMatchingCardOrDraw();
+        long playableCards = this.players[this.currentPlayerIdx].getHandMask() & playableMask();
+        boolean played = playMatchingCardOrDraw();
+        int move = playableCards != 0 ? this.deck.getTopDiscardCode() : DRAW;
 
         // Deal with the next turn depending on the card on top of the discard pile
         // (deal with possible special cards).
-        handleSpecialCardsNext();
+        finishTurn(played, move, -1);
+        return played;
+    }
+
+    /**
+     * Plays the turn like runOneTurn(), recording its time and events in EngineMetrics.
+     */
+    private void runOneTurnMeasured() {
+        EngineMetrics.TurnEvent event = new EngineMetrics.TurnEvent();
+        event.begin();
+        long startTime = System.nanoTime();
+        int playerIdx = this.currentPlayerIdx;
+        boolean played = playTurn();
+        EngineMetrics.TURN_NANOS.record(System.nanoTime() - startTime);
+        event.end();
+        if (event.shouldCommit()) {
+            event.player = playerIdx;
+            event.cardCode = played ? this.deck.getTopDiscardCode() : -1;
+            event.handSize = this.players[playerIdx].getHandSize();
+            event.commit();
+        }
+    }
+
+    /**
+     * Applies the card played this turn, passes the turn on, and reports the turn,
+     * and the end of the game if the player won.
+     * @param move code of the card played from the hand, or DRAW.
+     */
+    private void finishTurn(boolean played, int move, int wildColor) {
+        int playerIdx = this.currentPlayerIdx;
+        handleSpecialCardsNext(played, wildColor);
+        this.turnCount++;
+        boolean playedWild = played && Card.rankOf(this.deck.getTopDiscardCode()) == Card.WILD;
+        this.listener.onTurnEnded(this, playerIdx, move, playedWild ? this.activeColor : -1);
+        if (EngineMetrics.ENABLED) {
+            EngineMetrics.TURNS.increment();
+            if (!played) {
+                EngineMetrics.PASSES.increment();
+            }
+        }
+        if (this.winnerIdx == playerIdx) {
+            if (EngineMetrics.ENABLED) {
+                EngineMetrics.GAMES_OVER.increment();
+                EngineMetrics.GameOverEvent event = new EngineMetrics.GameOverEvent();
+                if (event.shouldCommit()) {
+                    event.winner = playerIdx;
+                    event.turns = this.turnCount;
+                    event.commit();
+                }
+            }
+            this.listener.onGameOver(this, playerIdx);
+        }
+    }
+
+    /**
+     * Plays one turn like runOneTurn(), but with the given move instead of the one chosen
+     * by the strategy, and records the changes so that unmakeMove() can undo them.
+     * Randomness used by the move (the card drawn after a refresh of the draw pile) is
+     * not rewound by unmakeMove(), so replaying the move may draw differently.
+     *
+     * @param cardCode code of the card to play, or DRAW if the player has no playable card.
+     * @param wildColor color to declare if a wild card is played, or -1 to let the
+     *                  strategy of the player choose.
+     */
+    public void makeMove(int cardCode, int wildColor) {
+        checkMove(cardCode, wildColor);
+        int frameStart = this.journalSize;
+        record(this.currentPlayerIdx);
+        record(this.direction);
+        record(this.activeColor);
+        record(this.turnCount);
+        record(this.winnerIdx);
+        this.recording = true;
+
+        if (this.deck.isEmpty()) {
+            refreshDrawPile();
+        }
+        boolean played;
+        if (cardCode == DRAW) {
+            played = drawAndPlayIfPlayable();
+        } else {
+            playCard(Card.fromCode(cardCode));
+            played = true;
+        }
+        finishTurn(played, cardCode, wildColor);
+
+        this.recording = false;
+        record(frameStart);
+        this.undoDepth++;
     }
 
     /**
-     * @return true if the game is over by checking for an empty hand, false otherwise.
+     * Plays one turn with the given move like makeMove(), without recording how to undo
+     * it, as runOneTurn() does. Used to replay a game from its log, and to play the moves
+     * sent by the clients of a TableServer.
+     * @param cardCode code of the card to play, or DRAW if the player has no playable card.
+     * @param wildColor color to declare if a wild card is played, or -1 to let the
+     *                  strategy of the player choose.
+     */
+    void playMove(int cardCode, int wildColor) {
+        checkMove(cardCode, wildColor);
+        clearJournal();
+        if (this.deck.isEmpty()) {
+            refreshDrawPile();
+        }
+        boolean played;
+        if (cardCode == DRAW) {
+            played = drawAndPlayIfPlayable();
+        } else {
+            playCard(Card.fromCode(cardCode));
+            played = true;
+        }
+        finishTurn(played, cardCode, wildColor);
+    }
+
+    /**
+     * Checks that the game is not over and that the current player can play the move.
+     */
+    private void checkMove(int cardCode, int wildColor) {
+        if (this.winnerIdx >= 0) {
+            throw new IllegalStateException("Game is over");
+        }
+        long playableCards = this.players[this.currentPlayerIdx].getHandMask() & playableMask();
+        boolean isLegal = cardCode == DRAW ? playableCards == 0
+                : cardCode >= 0 && cardCode < Card.NUM_CODES
+                        && (playableCards & (1L << cardCode)) != 0;
+        if (!isLegal || wildColor < -1 || wildColor >= NUM_COLORS) {
+            throw new IllegalArgumentException("Illegal move");
+        }
+    }
+
+    /**
+     * Undoes the last move played by makeMove(), restoring the hands, piles and turn.
+     * The hands get back the same cards, though not necessarily in the same order.
+     */
+    public void unmakeMove() {
+        if (this.undoDepth == 0) {
+            throw new IllegalStateException("No move to undo");
+        }
+        int frameStart = this.journal[--this.journalSize];
+        while (this.journalSize > frameStart + COUNT_TURN_FIELDS) {
+            undoChange();
+        }
+        this.currentPlayerIdx = this.journal[frameStart];
+        this.direction = this.journal[frameStart + 1];
+        this.activeColor = this.journal[frameStart + 2];
+        this.turnCount = this.journal[frameStart + 3];
+        this.winnerIdx = this.journal[frameStart + 4];
+        this.journalSize = frameStart;
+        this.undoDepth--;
+    }
+
+    /**
+     * @return the number of moves played by makeMove() that can be undone.
+     */
+    public int getUndoDepth() {
+        return this.undoDepth;
+    }
+
+    /**
+     * Undoes the last change recorded on the journal.
+     */
+    private void undoChange() {
+        int op = this.journal[--this.journalSize];
+        switch (op) {
+            case OP_DRAW:
+                this.deck.undoDraw(this.journal[--this.journalSize]);
+                break;
+            case OP_ADD_TO_HAND: {
+                int code = this.journal[--this.journalSize];
+                int playerIdx = this.journal[--this.journalSize];
+                this.players[playerIdx].removeCard(Card.fromCode(code));
+                break;
+            }
+            case OP_REMOVE_FROM_HAND: {
+                int code = this.journal[--this.journalSize];
+                int playerIdx = this.journal[--this.journalSize];
+                this.players[playerIdx].addToHand(Card.fromCode(code));
+                break;
+            }
+            case OP_DISCARD:
+                this.deck.undoDiscard();
+                break;
+            case OP_REFRESH: {
+                int count = this.journal[--this.journalSize];
+                this.journalSize -= count;
+                this.deck.undoRefresh(this.journal, this.journalSize, count);
+                break;
+            }
+            default:
+                throw new IllegalStateException("Corrupted undo journal");
+        }
+    }
+
+    /**
+     * Pushes a value on the undo journal.
+     */
+    private void record(int value) {
+        if (this.journalSize == this.journal.length) {
+            ensureJournalCapacity(1);
+        }
+        this.journal[this.journalSize++] = value;
+    }
+
+    /**
+     * Grows the undo journal so that it can take the given number of extra values.
+     */
+    private void ensureJournalCapacity(int extra) {
+        if (this.journalSize + extra > this.journal.length) {
+            this.journal = Arrays.copyOf(this.journal,
+                    Math.max(this.journalSize + extra, this.journal.length * 2));
+        }
+    }
+
+    /**
+     * Forgets every recorded move.
+     */
+    private void clearJournal() {
+        this.journalSize = 0;
+        this.undoDepth = 0;
+        this.recording = false;
+    }
+
+    /**
+     * @return true if the game is over because a player emptied their hand, false otherwise.
      */
     public boolean isGameOver() {
-        for (Player player : this.players) {
-            if (player.isHandEmpty()) {
-                System.out.printf("%sWON!!!", player.toString());
-                return true;
+        return this.winnerIdx >= 0;
+    }
+
+    /**
+     * @return the index of the player who emptied their hand, or -1 if nobody won yet.
+     */
+    public int getWinnerIdx() {
+        return this.winnerIdx;
+    }
+
+    /**
+     * Returns the Zobrist hash of the situation: the cards in each hand, the top card,
+     * the active color, the current player and the direction of play. Games in the same
+     * situation have the same hash, whatever moves led there; the rest of the piles is
+     * not part of it. The hands keep their hashes up to date, so this only mixes one
+     * value per player.
+     * @return the 64-bit hash of the game.
+     */
+    public long getHash() {
+        long hash = Zobrist.turnKey(this.deck.getTopDiscardCode(), this.activeColor,
+                this.currentPlayerIdx, this.direction);
+        for (int i = 0; i < this.countPlayers; i++) {
+            hash += Zobrist.seatKey(i, this.players[i].getHandHash());
+        }
+        return hash;
+    }
+
+    /**
+     * @return the index of the first player with an empty hand, or -1 if there is none.
+     */
+    private int findWinnerIdx() {
+        for (int i = 0; i < this.countPlayers; i++) {
+            if (this.players[i].isHandEmpty()) {
+                return i;
             }
         }
-        return false;
+        return -1;
+    }
+
+    /**
+     * @return a view for each seat of the game.
+     */
+    private PlayerView[] createViews() {
+        PlayerView[] views = new PlayerView[this.countPlayers];
+        for (int i = 0; i < this.countPlayers; i++) {
+            views[i] = new PlayerView(i);
+        }
+        return views;
+    }
+
+    /**
+     * Read-only view of the game from one seat, given to the strategy of that seat.
+     * It reads the game as it is now, so one view serves every turn of the game.
+     */
+    private final class PlayerView implements GameView {
+        // Seat whose hand the view shows.
+        private final int seat;
+
+        private PlayerView(int seat) {
+            this.seat = seat;
+        }
+
+        @Override
+        public GameConfig getConfig() {
+            return GameState.this.getConfig();
+        }
+
+        @Override
+        public int getCountPlayers() {
+            return GameState.this.countPlayers;
+        }
+
+        @Override
+        public int getCurrentPlayerIdx() {
+            return GameState.this.currentPlayerIdx;
+        }
+
+        @Override
+        public int getDirection() {
+            return GameState.this.direction;
+        }
+
+        @Override
+        public int getTurnCount() {
+            return GameState.this.turnCount;
+        }
+
+        @Override
+        public int getHandSize(int playerIdx) {
+            return GameState.this.players[playerIdx].getHandSize();
+        }
+
+        @Override
+        public long getOwnHandMask() {
+            return GameState.this.players[this.seat].getHandMask();
+        }
+
+        @Override
+        public int countOwnCards(int code) {
+            return GameState.this.players[this.seat].countCards(Card.fromCode(code));
+        }
+
+        @Override
+        public Card getTopDiscardCard() {
+            return GameState.this.deck.getTopDiscardCard();
+        }
+
+        @Override
+        public int getActiveColorIdx() {
+            return GameState.this.activeColor;
+        }
+
+        @Override
+        public long getPlayableMask() {
+            return playableMask();
+        }
+
+        @Override
+        public int getDrawPileSize() {
+            return GameState.this.deck.getDrawPileSize();
+        }
+
+        @Override
+        public int countDiscardedCards(int[] counts) {
+            return GameState.this.deck.countDiscardedCards(counts);
+        }
+
+        @Override
+        public RandomGenerator getRandom() {
+            return GameState.this.random;
+        }
     }
 
     /**
      * Main function to simulate a game of Uno.
      */
     public static void main(String[] args) {
-        GameState game = new GameState(4, 7, 1, 1, 0);
+        GameState game = new GameState(4, 7, 1, 1, 0, new ConsoleGameListener());
         while (!game.isGameOver()) {
             game.runOneTurn();
         }
@@ -0,0 +1,321 @@
+package cs410.uno;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streaming statistics of any number of games of the same number of players: the win
+ * rate of each seat, the distribution of the length of the games, and the number of
+ * refreshes of the draw pile and of cards drawn because of a DRAW TWO per game.
+ *
+ * Each thread playing games records them with its own Recorder, a listener that only
+ * its thread writes, so recording a game takes no lock and no atomic operation. Each
+ * recorder keeps counters, a log-bucketed histogram of the number of turns (the buckets
+ * of LatencyHistogram) and a RunningStats per measure, so the memory used stays the
+ * same however many games are played. snapshot() merges the recorders into a Snapshot
+ * at any time, also while games are being recorded: each recorder is read under a
+ * sequence lock, that is, it counts its updates, and a reader copies it again if an
+ * update happened during the copy. The writer never waits for the readers.
+ *
+ * This class contains the following methods:
+ *     - getCountPlayers() - Returns the number of players of the games.
+ *     - newRecorder() - Returns a new listener that records the games of one thread.
+ *     - snapshot() - Returns the statistics of every game recorded so far.
+ *     - toString() - Returns the formatted report of the statistics.
+ */
+public class GameStatistics {
+    // Number of players of the games.
+    private final int countPlayers;
+
+    // Recorders of every thread.
+    private final AtomicReference<Recorder[]> recorders = new AtomicReference<>(new Recorder[0]);
+
+    /**
+     * Constructor that initializes statistics without any game.
+     * @param countPlayers number of players of the games, at least 1.
+     */
+    public GameStatistics(int countPlayers) {
+        if (countPlayers < 1) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        this.countPlayers = countPlayers;
+    }
+
+    public int getCountPlayers() {
+        return this.countPlayers;
+    }
+
+    /**
+     * @return a new recorder, to be used by one thread at a time as the listener of its
+     * games; it may be reused by the games the thread plays one after another.
+     */
+    public Recorder newRecorder() {
+        Recorder recorder = new Recorder(this.countPlayers);
+        Recorder[] current;
+        Recorder[] updated;
+        do {
+            current = this.recorders.get();
+            updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = recorder;
+        } while (!this.recorders.compareAndSet(current, updated));
+        return recorder;
+    }
+
+    /**
+     * @return the statistics of every game recorded so far. Games recorded while the
+     * snapshot is taken may or may not be part of it, but each game is either fully
+     * part of it or not at all.
+     */
+    public Snapshot snapshot() {
+        Snapshot total = new Snapshot(this.countPlayers);
+        Snapshot copy = new Snapshot(this.countPlayers);
+        for (Recorder recorder : this.recorders.get()) {
+            recorder.copyInto(copy);
+            total.merge(copy);
+        }
+        return total;
+    }
+
+    /**
+     * @return the formatted report of the statistics recorded so far.
+     */
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /**
+     * Listener that records the games of one thread. Games are recorded when they are
+     * over; a game stopped before anyone won is recorded by calling endGame().
+     */
+    public static class Recorder implements GameEventListener {
+        // Version of the statistics, odd while they are updated.
+        private static final VarHandle VERSION;
+
+        static {
+            try {
+                VERSION = MethodHandles.lookup().findVarHandle(Recorder.class, "version", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private volatile long version;
+
+        // Statistics of the games recorded, only written by the thread of the recorder.
+        private final Snapshot statistics;
+
+        // Refreshes and forced draws of the game being played.
+        private int countRefreshes;
+        private int countForcedDraws;
+
+        // True if the game being played has been recorded.
+        private boolean isRecorded = true;
+
+        private Recorder(int countPlayers) {
+            this.statistics = new Snapshot(countPlayers);
+        }
+
+        @Override
+        public void onGameStarted(GameState game) {
+            this.countRefreshes = 0;
+            this.countForcedDraws = 0;
+            this.isRecorded = false;
+        }
+
+        @Override
+        public void onDrawPileRefreshed(GameState game) {
+            this.countRefreshes++;
+        }
+
+        @Override
+        public void onForcedDraw(GameState game, int playerIdx, int countCards) {
+            this.countForcedDraws += countCards;
+        }
+
+        @Override
+        public void onGameOver(GameState game, int winnerIdx) {
+            endGame(game);
+        }
+
+        /**
+         * Records the game, if it has not been yet, such as a game stopped before
+         * anyone won. Called when a game is over.
+         * @param game the game that was played with this recorder as its listener.
+         */
+        public void endGame(GameState game) {
+            if (this.isRecorded) {
+                return;
+            }
+            this.isRecorded = true;
+            long version = this.version;
+            VERSION.setOpaque(this, version + 1);
+            VarHandle.storeStoreFence();
+            this.statistics.recordGame(game.getWinnerIdx(), game.getTurnCount(),
+                    this.countRefreshes, this.countForcedDraws);
+            VERSION.setRelease(this, version + 2);
+        }
+
+        /**
+         * Copies the statistics of this recorder into the target, from any thread.
+         */
+        private void copyInto(Snapshot target) {
+            while (true) {
+                long version = (long) VERSION.getAcquire(this);
+                if ((version & 1) == 0) {
+                    this.statistics.copyInto(target);
+                    VarHandle.loadLoadFence();
+                    if ((long) VERSION.getOpaque(this) == version) {
+                        return;
+                    }
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Statistics of a set of games, as returned by snapshot().
+     */
+    public static class Snapshot {
+        // Number of games won by each seat.
+        private final long[] winsPerSeat;
+
+        // Number of games, and of games stopped without a winner.
+        private long countGames;
+        private long countUnfinishedGames;
+
+        // Number of games of each length, in the buckets of LatencyHistogram.
+        private final long[] turnBuckets = new long[LatencyHistogram.COUNT_BUCKETS];
+
+        // Number of turns, refreshes of the draw pile, and forced draws per game.
+        private final RunningStats turns = new RunningStats();
+        private final RunningStats refreshes = new RunningStats();
+        private final RunningStats forcedDraws = new RunningStats();
+
+        Snapshot(int countPlayers) {
+            this.winsPerSeat = new long[countPlayers];
+        }
+
+        /**
+         * Adds the outcome of one game.
+         */
+        void recordGame(int winnerIdx, int countTurns, int countRefreshes, int countForcedDraws) {
+            this.countGames++;
+            if (winnerIdx >= 0) {
+                this.winsPerSeat[winnerIdx]++;
+            } else {
+                this.countUnfinishedGames++;
+            }
+            this.turnBuckets[LatencyHistogram.bucketOf(countTurns)]++;
+            this.turns.add(countTurns);
+            this.refreshes.add(countRefreshes);
+            this.forcedDraws.add(countForcedDraws);
+        }
+
+        /**
+         * Adds the statistics of another snapshot to this one.
+         */
+        void merge(Snapshot other) {
+            for (int i = 0; i < this.winsPerSeat.length; i++) {
+                this.winsPerSeat[i] += other.winsPerSeat[i];
+            }
+            this.countGames += other.countGames;
+            this.countUnfinishedGames += other.countUnfinishedGames;
+            for (int i = 0; i < this.turnBuckets.length; i++) {
+                this.turnBuckets[i] += other.turnBuckets[i];
+            }
+            this.turns.merge(other.turns);
+            this.refreshes.merge(other.refreshes);
+            this.forcedDraws.merge(other.forcedDraws);
+        }
+
+        /**
+         * Copies the statistics into another snapshot with the same number of seats.
+         */
+        void copyInto(Snapshot target) {
+            System.arraycopy(this.winsPerSeat, 0, target.winsPerSeat, 0, this.winsPerSeat.length);
+            target.countGames = this.countGames;
+            target.countUnfinishedGames = this.countUnfinishedGames;
+            System.arraycopy(this.turnBuckets, 0, target.turnBuckets, 0, this.turnBuckets.length);
+            this.turns.copyInto(target.turns);
+            this.refreshes.copyInto(target.refreshes);
+            this.forcedDraws.copyInto(target.forcedDraws);
+        }
+
+        // Getters.
+        public int getCountPlayers() {
+            return this.winsPerSeat.length;
+        }
+        public long getWins(int seat) {
+            return this.winsPerSeat[seat];
+        }
+        public long getCountGames() {
+            return this.countGames;
+        }
+        public long getCountUnfinishedGames() {
+            return this.countUnfinishedGames;
+        }
+        public RunningStats getTurns() {
+            return this.turns;
+        }
+        public RunningStats getRefreshes() {
+            return this.refreshes;
+        }
+        public RunningStats getForcedDraws() {
+            return this.forcedDraws;
+        }
+
+        /**
+         * @return the fraction of the games won by the given seat.
+         */
+        public double getWinRate(int seat) {
+            return this.countGames == 0 ? 0 : (double) this.winsPerSeat[seat] / this.countGames;
+        }
+
+        /**
+         * @return the standard error of the win rate of the given seat.
+         */
+        public double getWinRateError(int seat) {
+            double winRate = getWinRate(seat);
+            return this.countGames == 0 ? 0 : Math.sqrt(winRate * (1 - winRate) / this.countGames);
+        }
+
+        /**
+         * @param percentile percentage of the games, between 0 and 100.
+         * @return the number of turns within which the percentage of the games ended,
+         * within 12.5%.
+         */
+        public long getTurnsAtPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Illegal input!");
+            }
+            return LatencyHistogram.valueAtPercentile(this.turnBuckets, percentile,
+                    (long) this.turns.getMax());
+        }
+
+        /**
+         * @return the formatted report of the statistics.
+         */
+        @Override
+        public String toString() {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("Games: %d (%d without a winner)\n",
+                    this.countGames, this.countUnfinishedGames));
+            for (int i = 0; i < this.winsPerSeat.length; i++) {
+                report.append(String.format("Player %d wins: %d (%.2f%% +- %.2f%%)\n",
+                        i + 1, this.winsPerSeat[i], 100 * getWinRate(i),
+                        100 * 1.96 * getWinRateError(i)));
+            }
+            report.append(String.format("Turns per game: mean %.2f, sd %.2f, p50 %d, p99 %d,"
+                            + " max %.0f\n", this.turns.getMean(), this.turns.getStandardDeviation(),
+                    getTurnsAtPercentile(50), getTurnsAtPercentile(99), this.turns.getMax()));
+            report.append(String.format("Refreshes per game: mean %.2f, sd %.2f\n",
+                    this.refreshes.getMean(), this.refreshes.getStandardDeviation()));
+            report.append(String.format("Forced draws per game: mean %.2f, sd %.2f\n",
+                    this.forcedDraws.getMean(), this.forcedDraws.getStandardDeviation()));
+            return report.toString();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package cs410.uno;
+import java.util.random.RandomGenerator;
+
+/**
+ * Read-only view of a game of Uno, from the point of view of the player whose turn it is.
+ * It shows what that player knows: their own hand, the size of the other hands,
+ * the top discard card, the active color and the size of the draw pile.
+ *
+ * Colors are given as indices into Card.getColors(), and cards as codes (see Card.getCode()).
+ *
+ * This interface contains the following methods:
+ *     - getConfig() - Returns the number of players and the composition of the deck.
+ *     - getCountPlayers() - Returns the number of players.
+ *     - getCurrentPlayerIdx() - Returns the index of the player whose turn it is.
+ *     - getDirection() - Returns the direction of play.
+ *     - getTurnCount() - Returns the number of turns played so far.
+ *     - getHandSize() - Returns the number of cards in a player's hand.
+ *     - getOwnHandMask() - Returns the bitmask of the card codes in the current player's hand.
+ *     - countOwnCards() - Returns how many cards with a code the current player has.
+ *     - getTopDiscardCard() - Returns the card on top of the discard pile.
+ *     - getActiveColorIdx() - Returns the index of the color that the next card must match.
+ *     - getPlayableMask() - Returns the bitmask of the card codes that can be played now.
+ *     - getDrawPileSize() - Returns the number of cards in the draw pile.
+ *     - countDiscardedCards() - Counts the cards of each code in the discard pile.
+ *     - getRandom() - Returns the source of randomness that strategies may use.
+ */
+public interface GameView {
+    GameConfig getConfig();
+
+    int getCountPlayers();
+
+    int getCurrentPlayerIdx();
+
+    /**
+     * @return 1 if the turn passes to the player with the next index, -1 after a reverse.
+     */
+    int getDirection();
+
+    int getTurnCount();
+
+    int getHandSize(int playerIdx);
+
+    long getOwnHandMask();
+
+    int countOwnCards(int code);
+
+    Card getTopDiscardCard();
+
+    int getActiveColorIdx();
+
+    /**
+     * @return the bitmask of the card codes that can be played on the top discard card
+     * (bit c is set if code c is playable), so getOwnHandMask() & getPlayableMask()
+     * are the playable cards of the current player.
+     */
+    long getPlayableMask();
+
+    int getDrawPileSize();
+
+    /**
+     * Counts the cards of each code in the discard pile, which every player has seen.
+     * @param counts array of at least Card.NUM_CODES entries, provided by the caller,
+     *               that receives the number of cards of each code.
+     * @return the number of cards in the discard pile.
+     */
+    int countDiscardedCards(int[] counts);
+
+    /**
+     * @return the source of randomness of the game, so that seeded games stay reproducible
+     * when strategies make random choices.
+     */
+    RandomGenerator getRandom();
+}
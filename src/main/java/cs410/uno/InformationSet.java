@@ -0,0 +1,138 @@
+package cs410.uno;
+import java.util.random.RandomGenerator;
+
+/**
+ * What the player whose turn it is knows about a game, read once per move from their
+ * GameView: their hand, the discard pile, the size of the other hands and of the draw
+ * pile, and the cards they cannot see. Strategies that search the game, such as
+ * MctsStrategy and EndgameStrategy, deal determinizations from it: games where what the
+ * player sees is real, and the cards they cannot see are dealt at random to the other
+ * hands and the draw pile. It never looks at the other hands, so a search from it plays
+ * with the same information as the player.
+ *
+ * This class contains the following methods:
+ *     - getConfig() - Returns the configuration of the game.
+ *     - copyHiddenCards() - Returns a copy of the codes of the cards the player cannot see.
+ *     - deal() - Deals a random determinization into a game state.
+ */
+final class InformationSet {
+    // Configuration of the game.
+    private final GameConfig config;
+
+    // Turn fields.
+    private final int currentPlayerIdx;
+    private final int direction;
+    private final int activeColor;
+    private final int turnCount;
+
+    // Number of cards in each hand.
+    private final int[] handSizes;
+
+    // Codes of the cards of the player, of the discard pile with the top card last,
+    // and of the cards the player cannot see.
+    private final byte[] ownHand;
+    private final byte[] discardPile;
+    private final byte[] hidden;
+
+    /**
+     * Constructor that reads what the player whose turn it is knows from their view.
+     */
+    InformationSet(GameView view) {
+        this.config = view.getConfig();
+        this.currentPlayerIdx = view.getCurrentPlayerIdx();
+        this.direction = view.getDirection();
+        this.activeColor = view.getActiveColorIdx();
+        this.turnCount = view.getTurnCount();
+        this.handSizes = new int[view.getCountPlayers()];
+        for (int i = 0; i < this.handSizes.length; i++) {
+            this.handSizes[i] = view.getHandSize(i);
+        }
+
+        int[] discarded = new int[Card.NUM_CODES];
+        this.discardPile = new byte[view.countDiscardedCards(discarded)];
+        this.ownHand = new byte[this.handSizes[this.currentPlayerIdx]];
+        this.hidden = new byte[countHidden(view)];
+
+        // The top discard card stays on top; the order of the rest does not matter,
+        // since the discard pile is shuffled before it is drawn from again.
+        int topCode = view.getTopDiscardCard().getCode();
+        this.discardPile[this.discardPile.length - 1] = (byte) topCode;
+
+        int discardSize = 0;
+        int ownSize = 0;
+        int hiddenSize = 0;
+        for (int code = 0; code < Card.NUM_CODES; code++) {
+            int own = view.countOwnCards(code);
+            int hiddenCount = this.config.countCardsInDeck(code) - own - discarded[code];
+            if (hiddenCount < 0 || hiddenSize + hiddenCount > this.hidden.length) {
+                throw new IllegalStateException("Inconsistent game");
+            }
+            int belowTop = code == topCode ? discarded[code] - 1 : discarded[code];
+            for (int i = 0; i < belowTop; i++) {
+                this.discardPile[discardSize++] = (byte) code;
+            }
+            for (int i = 0; i < own; i++) {
+                this.ownHand[ownSize++] = (byte) code;
+            }
+            for (int i = 0; i < hiddenCount; i++) {
+                this.hidden[hiddenSize++] = (byte) code;
+            }
+        }
+        if (hiddenSize != this.hidden.length) {
+            throw new IllegalStateException("Inconsistent game");
+        }
+    }
+
+    public GameConfig getConfig() {
+        return this.config;
+    }
+
+    /**
+     * @return a copy of the codes of the cards the player cannot see, for deal().
+     */
+    byte[] copyHiddenCards() {
+        return this.hidden.clone();
+    }
+
+    /**
+     * @return the number of cards in the other hands and in the draw pile.
+     */
+    private static int countHidden(GameView view) {
+        int count = view.getDrawPileSize();
+        for (int i = 0; i < view.getCountPlayers(); i++) {
+            if (i != view.getCurrentPlayerIdx()) {
+                count += view.getHandSize(i);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Deals a random determinization into the game: the hidden cards are shuffled,
+     * dealt to the other hands, and the rest make up the draw pile.
+     * @param cards copy of the hidden cards owned by the calling thread, in any order.
+     */
+    void deal(GameState game, byte[] cards, RandomGenerator random) {
+        for (int i = cards.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte swap = cards[i];
+            cards[i] = cards[j];
+            cards[j] = swap;
+        }
+
+        int dealt = 0;
+        for (int i = 0; i < this.handSizes.length; i++) {
+            Player player = game.getPlayer(i);
+            player.clearHand();
+            if (i == this.currentPlayerIdx) {
+                player.addToHand(this.ownHand, 0, this.ownHand.length);
+            } else {
+                player.addToHand(cards, dealt, this.handSizes[i]);
+                dealt += this.handSizes[i];
+            }
+        }
+        game.getDeck().setPiles(cards, dealt, cards.length - dealt,
+                this.discardPile, this.discardPile.length);
+        game.setTurn(this.currentPlayerIdx, this.direction, this.activeColor, this.turnCount);
+    }
+}
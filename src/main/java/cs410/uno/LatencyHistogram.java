@@ -0,0 +1,197 @@
+package cs410.uno;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations (or any non-negative long values), recorded by many threads at
+ * once and read by another, such as a monitoring thread, while they record.
+ *
+ * Values are counted in log-linear buckets: each power of two is split into 8 buckets,
+ * so a percentile is reported within 12.5% of the value recorded, from 0 up to
+ * Long.MAX_VALUE, in a fixed amount of memory. Each bucket is a LongAdder, so threads
+ * recording at once do not contend on the same counter. A reader sums the buckets
+ * while they change, so a report may miss the values recorded during the read.
+ *
+ * This class contains the following methods:
+ *     - record() - Counts a value.
+ *     - recordWithExpectedInterval() - Counts a value, and the values a stall hid.
+ *     - getCount() - Returns the number of values recorded.
+ *     - getMax() / getMean() - Returns the largest or the mean value recorded.
+ *     - getValueAtPercentile() - Returns the value below which a percentage of the values fall.
+ *     - reset() - Forgets every value recorded.
+ *     - toString() - Returns the count, mean, p50, p99, p99.9 and max as a String.
+ */
+public class LatencyHistogram {
+    // Buckets per power of two, as a number of bits.
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    // Values below SUB_BUCKETS have a bucket each; then SUB_BUCKETS per power of two.
+    static final int COUNT_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    // Number of values in each bucket.
+    private final LongAdder[] buckets;
+
+    // Sum and largest of the values recorded.
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    /**
+     * Constructor that initializes an empty histogram.
+     */
+    public LatencyHistogram() {
+        this.buckets = new LongAdder[COUNT_BUCKETS];
+        for (int i = 0; i < COUNT_BUCKETS; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+        this.sum = new LongAdder();
+        this.max = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * Counts a value; negative values are counted as 0.
+     * @param value value to be counted, such as a duration in nanoseconds.
+     */
+    public void record(long value) {
+        value = Math.max(value, 0);
+        this.buckets[bucketOf(value)].increment();
+        this.sum.add(value);
+        this.max.accumulate(value);
+    }
+
+    /**
+     * Counts a value measured by a closed loop that sends a request every expectedInterval,
+     * such as a client that waits for each response. While a response took longer than the
+     * interval, the requests it held back were not sent, so their latencies, from value -
+     * expectedInterval down to expectedInterval, are counted as well: otherwise the stall
+     * would be counted once instead of as often as it delayed a request (coordinated
+     * omission).
+     * @param value value to be counted, such as a duration in nanoseconds.
+     * @param expectedInterval time between two requests when nothing stalls, or 0 to
+     *                         count the value alone.
+     */
+    public void recordWithExpectedInterval(long value, long expectedInterval) {
+        record(value);
+        if (expectedInterval <= 0) {
+            return;
+        }
+        for (long missing = value - expectedInterval; missing >= expectedInterval;
+             missing -= expectedInterval) {
+            record(missing);
+        }
+    }
+
+    /**
+     * @return the number of values recorded.
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : this.buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * @return the largest value recorded, or 0 if there is none.
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * @return the mean of the values recorded, or 0 if there is none.
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) this.sum.sum() / count;
+    }
+
+    /**
+     * @param percentile percentage of the values, between 0 and 100.
+     * @return the largest value of the bucket holding the value at the percentile,
+     * at most the largest value recorded, or 0 if there is none.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        long[] counts = new long[COUNT_BUCKETS];
+        for (int i = 0; i < COUNT_BUCKETS; i++) {
+            counts[i] = this.buckets[i].sum();
+        }
+        return valueAtPercentile(counts, percentile, getMax());
+    }
+
+    /**
+     * @param counts number of values in each bucket.
+     * @param percentile percentage of the values, between 0 and 100.
+     * @param max largest value counted.
+     * @return the value at the percentile of the values counted in the buckets,
+     * as getValueAtPercentile() does.
+     */
+    static long valueAtPercentile(long[] counts, double percentile, long max) {
+        long count = 0;
+        for (long bucketCount : counts) {
+            count += bucketCount;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Forgets every value recorded. Values recorded during the reset may be kept in part.
+     */
+    public void reset() {
+        for (LongAdder bucket : this.buckets) {
+            bucket.reset();
+        }
+        this.sum.reset();
+        this.max.reset();
+    }
+
+    /**
+     * @return the index of the bucket counting the value.
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return the largest value counted in the bucket.
+     */
+    private static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + ((1L << shift) - 1);
+    }
+
+    /**
+     * @return the count, mean, p50, p99, p99.9 and max of the values, as a String.
+     */
+    @Override
+    public String toString() {
+        return String.format("count %d, mean %.0f, p50 %d, p99 %d, p99.9 %d, max %d",
+                getCount(), getMean(), getValueAtPercentile(50), getValueAtPercentile(99),
+                getValueAtPercentile(99.9), getMax());
+    }
+}
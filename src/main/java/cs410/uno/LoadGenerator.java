@@ -0,0 +1,348 @@
+package cs410.uno;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generates load on a TableServer through a GameClient, and measures the latency of
+ * every request: N players, each at the remote seat of its own table against bots, ask
+ * for a new game when theirs is over and otherwise play their lowest playable card.
+ *
+ * A run is either open loop or closed loop. In open loop, each player has a schedule of
+ * requests at a fixed rate (movesPerSecond spread over the players), which does not wait
+ * for the server: if a response comes back after the next request was due, that request
+ * is sent at once and its latency counts from the time it was due. In closed loop, each
+ * player thinks for thinkTime after each response before its next request, and a
+ * response slower than thinkTime also counts the requests it held back (see
+ * LatencyHistogram.recordWithExpectedInterval()). Either way the response time is
+ * corrected for coordinated omission: a stall of the server shows up in the percentiles
+ * as long as it lasted, instead of as one slow request among the few that were sent.
+ * The service time, from the actual send of each request, is reported beside it.
+ *
+ * Requests due during the warmup are played but not measured. Requests of an open loop
+ * that were still due at the end of the run, because the server could not keep up, are
+ * counted as not sent, with the time they had waited as their response time.
+ *
+ * This class contains the following methods:
+ *     - run() - Plays the requests of a run and returns its report.
+ *     - main() - Runs a server and a load over the loopback interface, and prints the report.
+ */
+public class LoadGenerator {
+    // Client through which the players send their requests.
+    private final GameClient client;
+
+    // Table of each player, who plays seat 0 of it.
+    private final int[] tableIds;
+
+    /**
+     * Constructor that creates a table per player, with bots with the FirstPlayableStrategy
+     * at the other seats.
+     * @param server server on which the tables are created.
+     * @param client client through which the players send their requests.
+     * @param config configuration of the games of the tables.
+     * @param countPlayers number of players, at least 1.
+     * @param seed seed from which the seed of every table is derived.
+     */
+    public LoadGenerator(TableServer server, GameClient client, GameConfig config,
+                         int countPlayers, long seed) {
+        if (server == null || client == null || countPlayers < 1) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        this.client = client;
+        Strategy[] strategies = new Strategy[config.getCountPlayers()];
+        for (int i = 1; i < strategies.length; i++) {
+            strategies[i] = FirstPlayableStrategy.INSTANCE;
+        }
+        this.tableIds = new int[countPlayers];
+        for (int i = 0; i < countPlayers; i++) {
+            this.tableIds[i] = server.createTable(config, Tournament.chunkSeed(seed, i), strategies);
+        }
+    }
+
+    /**
+     * Plays the requests of a run, and waits until it is over.
+     * @param warmupNanos time during which the requests are not measured.
+     * @param durationNanos time during which the requests are measured, after the warmup.
+     * @param movesPerSecond requests per second of all the players in open loop, or 0 for
+     *                       a closed loop.
+     * @param thinkTimeNanos time between a response and the next request in closed loop.
+     * @return the report of the requests measured.
+     */
+    public Report run(long warmupNanos, long durationNanos, double movesPerSecond,
+                      long thinkTimeNanos) throws InterruptedException {
+        if (warmupNanos < 0 || durationNanos <= 0 || movesPerSecond < 0 || thinkTimeNanos < 0) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        long interval = movesPerSecond > 0
+                ? Math.max(1, (long) (1e9 * this.tableIds.length / movesPerSecond)) : 0;
+        Report report = new Report(this.tableIds.length, movesPerSecond, thinkTimeNanos,
+                durationNanos);
+        Run run = new Run(report, interval, thinkTimeNanos, warmupNanos, durationNanos);
+        run.start();
+        return report;
+    }
+
+    /**
+     * @return the color of which the hand holds the most cards, to declare for a wild card.
+     */
+    private static int chooseWildColor(TableSnapshot snapshot) {
+        int[] countsPerColor = new int[Card.NO_COLOR];
+        for (int i = 0; i < snapshot.getCountHandCodes(); i++) {
+            int code = snapshot.getHandCode(i);
+            if (code != Card.WILD_CODE) {
+                countsPerColor[Card.colorOf(code)] += snapshot.getHandCount(i);
+            }
+        }
+        int color = 0;
+        for (int i = 1; i < countsPerColor.length; i++) {
+            if (countsPerColor[i] > countsPerColor[color]) {
+                color = i;
+            }
+        }
+        return color;
+    }
+
+    /**
+     * Requests and measures of one run.
+     */
+    private class Run {
+        // Report filled by the run.
+        private final Report report;
+
+        // Time between two requests of a player in open loop, or 0 in closed loop.
+        private final long interval;
+
+        // Time between a response and the next request in closed loop.
+        private final long thinkTime;
+
+        // Start of the run, start of the measures, and end of the run, in nanoseconds.
+        private final long startTime;
+        private final long measureTime;
+        private final long endTime;
+
+        // Thread that sends the requests when they are due.
+        private final ScheduledThreadPoolExecutor scheduler;
+
+        // Number of players that have not sent their last request yet.
+        private final CountDownLatch countActivePlayers;
+
+        // Last snapshot of each player, or null before its first response.
+        private final TableSnapshot[] snapshots;
+
+        private Run(Report report, long interval, long thinkTime, long warmupNanos,
+                    long durationNanos) {
+            this.report = report;
+            this.interval = interval;
+            this.thinkTime = thinkTime;
+            this.startTime = System.nanoTime();
+            this.measureTime = this.startTime + warmupNanos;
+            this.endTime = this.measureTime + durationNanos;
+            this.scheduler = new ScheduledThreadPoolExecutor(1, task -> {
+                Thread thread = new Thread(task, "uno-load");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.countActivePlayers = new CountDownLatch(LoadGenerator.this.tableIds.length);
+            this.snapshots = new TableSnapshot[LoadGenerator.this.tableIds.length];
+        }
+
+        /**
+         * Schedules the first request of each player, spread over one interval, and waits
+         * for the last responses.
+         */
+        private void start() throws InterruptedException {
+            int countPlayers = this.snapshots.length;
+            long spread = this.interval > 0 ? this.interval : this.thinkTime;
+            for (int i = 0; i < countPlayers; i++) {
+                schedule(i, this.startTime + spread * i / countPlayers);
+            }
+            try {
+                this.countActivePlayers.await();
+            } finally {
+                this.scheduler.shutdownNow();
+            }
+        }
+
+        private void schedule(int player, long dueTime) {
+            this.scheduler.schedule(() -> send(player, dueTime),
+                    dueTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Sends the next request of the player: a new game if its game is over, and its
+         * move otherwise.
+         */
+        private void send(int player, long dueTime) {
+            int tableId = LoadGenerator.this.tableIds[player];
+            GameClient client = LoadGenerator.this.client;
+            TableSnapshot snapshot = this.snapshots[player];
+            long sendTime = System.nanoTime();
+            CompletableFuture<TableSnapshot> response;
+            if (snapshot == null) {
+                response = client.getState(tableId, 0);
+            } else if (snapshot.isOver()) {
+                response = client.newGame(tableId, 0);
+            } else {
+                long playable = snapshot.getPlayableMask();
+                response = client.play(tableId, 0,
+                        playable == 0 ? GameState.DRAW : Long.numberOfTrailingZeros(playable),
+                        chooseWildColor(snapshot));
+            }
+            response.whenComplete((next, error) -> receive(player, dueTime, sendTime, next, error));
+        }
+
+        /**
+         * Measures the response to a request, and schedules the next request of the player.
+         */
+        private void receive(int player, long dueTime, long sendTime, TableSnapshot snapshot,
+                             Throwable error) {
+            long now = System.nanoTime();
+            if (dueTime >= this.measureTime) {
+                if (error != null) {
+                    this.report.countErrors.increment();
+                } else {
+                    this.report.countRequests.increment();
+                    this.report.serviceTime.record(now - sendTime);
+                    if (this.interval > 0) {
+                        this.report.responseTime.record(now - dueTime);
+                    } else {
+                        this.report.responseTime.recordWithExpectedInterval(now - dueTime,
+                                this.thinkTime);
+                    }
+                }
+            }
+            // After an error, the player asks for the state of its table again.
+            this.snapshots[player] = error == null ? snapshot : null;
+
+            long nextDueTime = this.interval > 0 ? dueTime + this.interval : now + this.thinkTime;
+            if (nextDueTime < this.endTime && now < this.endTime) {
+                schedule(player, nextDueTime);
+                return;
+            }
+            // Requests of an open loop still due at the end have waited at least until now.
+            for (long due = nextDueTime; due < this.endTime; due += this.interval) {
+                if (due >= this.measureTime) {
+                    this.report.countUnsent.increment();
+                    this.report.responseTime.record(now - due);
+                }
+            }
+            this.countActivePlayers.countDown();
+        }
+    }
+
+    /**
+     * Report of a run: the number of requests measured, and the distribution of their
+     * response time and of their service time.
+     */
+    public static class Report {
+        // Settings of the run.
+        private final int countPlayers;
+        private final double movesPerSecond;
+        private final long thinkTimeNanos;
+        private final long durationNanos;
+
+        // Number of requests measured, failed, and still due at the end of an open loop.
+        private final LongAdder countRequests = new LongAdder();
+        private final LongAdder countErrors = new LongAdder();
+        private final LongAdder countUnsent = new LongAdder();
+
+        // Time from when each request was due, and from when it was sent, to its response.
+        private final LatencyHistogram responseTime = new LatencyHistogram();
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+
+        private Report(int countPlayers, double movesPerSecond, long thinkTimeNanos,
+                       long durationNanos) {
+            this.countPlayers = countPlayers;
+            this.movesPerSecond = movesPerSecond;
+            this.thinkTimeNanos = thinkTimeNanos;
+            this.durationNanos = durationNanos;
+        }
+
+        // Getters.
+        public int getCountPlayers() {
+            return this.countPlayers;
+        }
+        public long getCountRequests() {
+            return this.countRequests.sum();
+        }
+        public long getCountErrors() {
+            return this.countErrors.sum();
+        }
+        public long getCountUnsent() {
+            return this.countUnsent.sum();
+        }
+        public LatencyHistogram getResponseTime() {
+            return this.responseTime;
+        }
+        public LatencyHistogram getServiceTime() {
+            return this.serviceTime;
+        }
+
+        /**
+         * @return the number of requests measured per second.
+         */
+        public double getThroughput() {
+            return this.countRequests.sum() * 1e9 / this.durationNanos;
+        }
+
+        /**
+         * @return the formatted report, one line per measure, with times in microseconds.
+         */
+        @Override
+        public String toString() {
+            String load = this.movesPerSecond > 0
+                    ? String.format("open loop at %.0f requests/s", this.movesPerSecond)
+                    : String.format("closed loop, think time %.3f ms", this.thinkTimeNanos / 1e6);
+            return String.format("Players: %d, %s\n", this.countPlayers, load)
+                    + String.format("Requests: %d in %.2f s (%.0f/s), %d errors, %d not sent\n",
+                    getCountRequests(), this.durationNanos / 1e9, getThroughput(),
+                    getCountErrors(), getCountUnsent())
+                    + formatLatency("Response time (us)", this.responseTime)
+                    + formatLatency("Service time (us)", this.serviceTime);
+        }
+
+        private static String formatLatency(String name, LatencyHistogram histogram) {
+            return String.format("%s: p50 %.1f, p99 %.1f, p99.9 %.1f, max %.1f, mean %.1f\n",
+                    name, histogram.getValueAtPercentile(50) / 1e3,
+                    histogram.getValueAtPercentile(99) / 1e3,
+                    histogram.getValueAtPercentile(99.9) / 1e3, histogram.getMax() / 1e3,
+                    histogram.getMean() / 1e3);
+        }
+    }
+
+    /**
+     * Runs a TableServer, and a load on it through a SocketGameClient on the loopback
+     * interface (or a LocalGameClient), then prints the report.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 4) {
+            System.out.println("Usage: LoadGenerator players requestsPerSecond thinkTimeMillis "
+                    + "seconds [warmupSeconds] [socket|local] [threads]");
+            return;
+        }
+        int countPlayers = Integer.parseInt(args[0]);
+        double movesPerSecond = Double.parseDouble(args[1]);
+        long thinkTimeNanos = (long) (Double.parseDouble(args[2]) * 1e6);
+        long durationNanos = (long) (Double.parseDouble(args[3]) * 1e9);
+        long warmupNanos = args.length > 4 ? (long) (Double.parseDouble(args[4]) * 1e9)
+                : durationNanos / 5;
+        boolean isLocal = args.length > 5 && args[5].equals("local");
+        int countThreads = args.length > 6 ? Integer.parseInt(args[6])
+                : Runtime.getRuntime().availableProcessors();
+        GameConfig config = new GameConfig(4, 7, 2, 2, 4);
+
+        System.out.printf("Configuration: %s\nTransport: %s\nThreads: %d\n\n", config,
+                isLocal ? "local" : "socket", countThreads);
+        try (TableServer server = new TableServer(countThreads,
+                TableServer.DEFAULT_MAX_PENDING_PER_TABLE, Tournament.DEFAULT_MAX_TURNS);
+             SocketGameServer socketServer = new SocketGameServer(server);
+             GameClient client = isLocal ? new LocalGameClient(server)
+                     : new SocketGameClient(socketServer.getPort())) {
+            LoadGenerator generator = new LoadGenerator(server, client, config, countPlayers, 1);
+            System.out.print(generator.run(warmupNanos, durationNanos, movesPerSecond, thinkTimeNanos));
+        }
+    }
+}
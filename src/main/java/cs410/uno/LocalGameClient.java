@@ -0,0 +1,45 @@
+package cs410.uno;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Client of a TableServer of the same JVM: each request is a direct call to the server,
+ * without copying or encoding anything, to measure the server without a transport.
+ *
+ * This class contains the following methods:
+ *     - getState(), play(), newGame() - Send the request to the server (see GameClient).
+ *     - close() - Does nothing; the server stays open.
+ */
+public class LocalGameClient implements GameClient {
+    // Server the requests are sent to.
+    private final TableServer server;
+
+    /**
+     * Constructor that initializes a client of a server.
+     * @param server server the requests are sent to.
+     */
+    public LocalGameClient(TableServer server) {
+        if (server == null) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        this.server = server;
+    }
+
+    @Override
+    public CompletableFuture<TableSnapshot> getState(int tableId, int seat) {
+        return this.server.getState(tableId, seat);
+    }
+
+    @Override
+    public CompletableFuture<TableSnapshot> play(int tableId, int seat, int cardCode, int wildColor) {
+        return this.server.play(tableId, seat, cardCode, wildColor);
+    }
+
+    @Override
+    public CompletableFuture<TableSnapshot> newGame(int tableId, int seat) {
+        return this.server.newGame(tableId, seat);
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,336 @@
+package cs410.uno;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Strategy that chooses its card with an information set Monte Carlo tree search (ISMCTS).
+ *
+ * The player cannot see the other hands nor the order of the draw pile. Every simulation
+ * therefore starts from a determinization: a game where the player's own hand, the
+ * discard pile, the size of each hand and the turn are the real ones, and the cards the
+ * player cannot see are dealt at random to the other hands and the draw pile. The
+ * simulation walks down a tree of moves shared by every determinization (a move is a
+ * card code, or drawing a card), choosing among the moves legal in its determinization
+ * with UCB1, expands one new move, and plays the rest of the game with the rollout
+ * strategy. The winner is then credited to every move of the player who won.
+ * The determinizations are dealt from an InformationSet, shared with EndgameStrategy.
+ *
+ * Each search thread grows its own tree until the time budget of the move is spent
+ * (root parallelization): the threads share nothing while searching, and the visits of
+ * the moves at the root are added up at the end to pick the most visited card.
+ * Determinizations are dealt into a game state that each thread reuses, so a simulation
+ * allocates only the nodes it adds to the tree.
+ *
+ * The strategy keeps counters of the simulations it ran and of the time it searched,
+ * to check that it fits the latency budget of a decision.
+ *
+ * This class contains the following methods:
+ *     - chooseCard() - Searches for the best playable card within the time budget.
+ *     - chooseWildColor() - Declares the color the player holds the most cards of.
+ *     - getCountSimulations() - Returns the number of simulations run so far.
+ *     - getCountDecisions() - Returns the number of searches run so far.
+ *     - getSimulationsPerSecond() - Returns the simulations run per second of search.
+ *     - close() - Stops the search threads.
+ *     - toString() - Returns the formatted String of the search counters.
+ */
+public class MctsStrategy implements Strategy, AutoCloseable {
+    // Number of moves: one per card code, then drawing a card.
+    private static final int COUNT_MOVES = Card.NUM_CODES + 1;
+    private static final int DRAW_MOVE = Card.NUM_CODES;
+
+    // Weight of the exploration term of UCB1; the rewards are between 0 and 1.
+    private static final double EXPLORATION = 0.7;
+
+    // Rollouts that last longer than this are stopped and count as a loss for everyone.
+    private static final int MAX_ROLLOUT_TURNS = 2_000;
+
+    // Time budget of each move, in nanoseconds.
+    private final long budgetNanos;
+
+    // Maximum number of simulations of each search thread per move.
+    private final int maxSimulationsPerThread;
+
+    // Number of search threads.
+    private final int countThreads;
+
+    // Strategy of every player during the rollouts.
+    private final Strategy rolloutStrategy;
+
+    // Runs the search threads; null when the search runs on the calling thread.
+    private final ForkJoinPool pool;
+
+    // Counters of the searches, updated by every thread that asks for a move.
+    private final LongAdder countSimulations = new LongAdder();
+    private final LongAdder countDecisions = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+
+    /**
+     * Constructor that initializes a strategy searching with the given time budget per
+     * move on the given number of threads, with random rollouts.
+     * @param budget wall-clock time budget of each move.
+     * @param countThreads number of search threads.
+     */
+    public MctsStrategy(Duration budget, int countThreads) {
+        this(budget, Integer.MAX_VALUE, countThreads, RandomStrategy.INSTANCE);
+    }
+
+    /**
+     * Constructor that initializes a strategy searching with the given time budget per
+     * move on the given number of threads.
+     * @param budget wall-clock time budget of each move.
+     * @param maxSimulationsPerThread maximum number of simulations of each thread per move.
+     * @param countThreads number of search threads.
+     * @param rolloutStrategy strategy of every player during the rollouts.
+     */
+    public MctsStrategy(Duration budget, int maxSimulationsPerThread, int countThreads,
+                        Strategy rolloutStrategy) {
+        if (budget.isNegative() || budget.isZero() || maxSimulationsPerThread <= 0
+                || countThreads <= 0) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        this.budgetNanos = budget.toNanos();
+        this.maxSimulationsPerThread = maxSimulationsPerThread;
+        this.countThreads = countThreads;
+        this.rolloutStrategy = rolloutStrategy;
+        this.pool = countThreads > 1 ? new ForkJoinPool(countThreads) : null;
+    }
+
+    @Override
+    public int chooseCard(GameView view, int[] legalMoves, int countLegalMoves) {
+        if (countLegalMoves == 1) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        long deadline = start + this.budgetNanos;
+        InformationSet info = new InformationSet(view);
+        SplittableRandom random = new SplittableRandom(view.getRandom().nextLong());
+
+        // Each thread searches its own tree, and their root visits are added up.
+        long[] visits = new long[COUNT_MOVES];
+        if (this.pool == null) {
+            addVisits(visits, search(info, deadline, random));
+        } else {
+            List<Callable<Node>> searches = new ArrayList<>();
+            for (int i = 0; i < this.countThreads; i++) {
+                SplittableRandom threadRandom = random.split();
+                searches.add(() -> search(info, deadline, threadRandom));
+            }
+            try {
+                for (Future<Node> result : this.pool.invokeAll(searches)) {
+                    addVisits(visits, result.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Search interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search failed", e.getCause());
+            }
+        }
+        this.countDecisions.increment();
+        this.searchNanos.add(System.nanoTime() - start);
+
+        // Play the most visited card.
+        int bestMove = 0;
+        for (int i = 1; i < countLegalMoves; i++) {
+            if (visits[legalMoves[i]] > visits[legalMoves[bestMove]]) {
+                bestMove = i;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * Declares the color that the player holds the most cards of, so the next
+     * cards are easier to match, or a random color if the hand has no colored card.
+     */
+    @Override
+    public int chooseWildColor(GameView view) {
+        int bestColor = -1;
+        int bestCount = 0;
+        for (int color = 0; color < Card.NO_COLOR; color++) {
+            long cards = view.getOwnHandMask() & Card.colorMask(color) & ~Card.WILD_MASK;
+            int count = 0;
+            while (cards != 0) {
+                count += view.countOwnCards(Long.numberOfTrailingZeros(cards));
+                cards &= cards - 1;
+            }
+            if (count > bestCount) {
+                bestColor = color;
+                bestCount = count;
+            }
+        }
+        return bestColor >= 0 ? bestColor : view.getRandom().nextInt(Card.NO_COLOR);
+    }
+
+    /**
+     * Grows a search tree until the deadline or the maximum number of simulations.
+     * @return the root of the tree.
+     */
+    private Node search(InformationSet info, long deadline, SplittableRandom random) {
+        GameState game = new GameState(info.getConfig(), random.split(), GameEventListener.NONE);
+        for (int i = 0; i < game.getCountPlayers(); i++) {
+            game.getPlayer(i).setStrategy(this.rolloutStrategy);
+        }
+        byte[] hidden = info.copyHiddenCards();
+        int[] legalMoves = new int[Card.NUM_CODES];
+        Node[] path = new Node[64];
+        Node root = new Node(-1);
+
+        int countSimulations = 0;
+        while (countSimulations < this.maxSimulationsPerThread && System.nanoTime() < deadline) {
+            info.deal(game, hidden, random);
+            int depth = 0;
+            path[depth++] = root;
+
+            // Selection and expansion: walk down the tree with the moves that are legal in
+            // this determinization, until a move that was never tried is added.
+            Node node = root;
+            boolean expanded = false;
+            while (!expanded && game.getWinnerIdx() < 0) {
+                int player = game.getCurrentPlayerIdx();
+                int countLegalMoves = game.getLegalMoves(legalMoves);
+                if (countLegalMoves == 0) {
+                    legalMoves[countLegalMoves++] = DRAW_MOVE;
+                }
+
+                Node chosen = null;
+                int chosenMove = -1;
+                int countUntried = 0;
+                double bestScore = Double.NEGATIVE_INFINITY;
+                for (int i = 0; i < countLegalMoves; i++) {
+                    int move = legalMoves[i];
+                    Node child = node.children[move];
+                    if (child == null) {
+                        // Reservoir sampling of one untried move.
+                        if (random.nextInt(++countUntried) == 0) {
+                            chosenMove = move;
+                        }
+                    } else if (countUntried == 0) {
+                        child.availability++;
+                        double score = child.wins / child.visits + EXPLORATION
+                                * Math.sqrt(Math.log(child.availability) / child.visits);
+                        if (score > bestScore) {
+                            bestScore = score;
+                            chosen = child;
+                            chosenMove = move;
+                        }
+                    } else {
+                        child.availability++;
+                    }
+                }
+                if (countUntried > 0) {
+                    chosen = new Node(player);
+                    chosen.availability = 1;
+                    node.children[chosenMove] = chosen;
+                    expanded = true;
+                }
+
+                game.makeMove(chosenMove == DRAW_MOVE ? GameState.DRAW : chosenMove, -1);
+                if (depth == path.length) {
+                    path = Arrays.copyOf(path, depth * 2);
+                }
+                path[depth++] = chosen;
+                node = chosen;
+            }
+
+            // Rollout: the rest of the game is played by the rollout strategy.
+            for (int turns = 0; turns < MAX_ROLLOUT_TURNS && game.getWinnerIdx() < 0; turns++) {
+                game.runOneTurn();
+            }
+
+            // Backpropagation: credit the win to every move of the winner.
+            int winnerIdx = game.getWinnerIdx();
+            for (int i = 0; i < depth; i++) {
+                Node visited = path[i];
+                visited.visits++;
+                if (visited.player == winnerIdx && winnerIdx >= 0) {
+                    visited.wins++;
+                }
+            }
+            countSimulations++;
+        }
+        this.countSimulations.add(countSimulations);
+        return root;
+    }
+
+    /**
+     * Adds the visits of the moves at the root of a tree.
+     */
+    private static void addVisits(long[] visits, Node root) {
+        for (int move = 0; move < COUNT_MOVES; move++) {
+            if (root.children[move] != null) {
+                visits[move] += root.children[move].visits;
+            }
+        }
+    }
+
+    // Getters.
+    public long getCountSimulations() {
+        return this.countSimulations.sum();
+    }
+    public long getCountDecisions() {
+        return this.countDecisions.sum();
+    }
+
+    /**
+     * @return the number of simulations run per second of search, or 0 before the first search.
+     */
+    public double getSimulationsPerSecond() {
+        long nanos = this.searchNanos.sum();
+        return nanos == 0 ? 0 : getCountSimulations() * 1e9 / nanos;
+    }
+
+    /**
+     * Stops the search threads. The strategy can still be asked for moves,
+     * but only if it searched on the calling thread.
+     */
+    @Override
+    public void close() {
+        if (this.pool != null) {
+            this.pool.shutdown();
+        }
+    }
+
+    /**
+     * @return the search counters in the form of a String.
+     */
+    @Override
+    public String toString() {
+        long decisions = getCountDecisions();
+        return String.format("MCTS: %d decisions, %.0f simulations per decision,"
+                        + " %.0f simulations/s, %.3f ms per decision\n",
+                decisions, decisions == 0 ? 0.0 : (double) getCountSimulations() / decisions,
+                getSimulationsPerSecond(),
+                decisions == 0 ? 0.0 : this.searchNanos.sum() / 1e6 / decisions);
+    }
+
+    /**
+     * Node of a search tree, reached by playing a move.
+     */
+    private static final class Node {
+        // Index of the player who played the move leading to this node.
+        private final int player;
+
+        // Child reached by each move, or null if the move was never tried.
+        private final Node[] children = new Node[COUNT_MOVES];
+
+        // Number of simulations through this node, and how many the player won.
+        private int visits;
+        private double wins;
+
+        // Number of simulations where the move of this node was legal.
+        private int availability;
+
+        private Node(int player) {
+            this.player = player;
+        }
+    }
+}
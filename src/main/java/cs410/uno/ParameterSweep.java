@@ -0,0 +1,431 @@
+package cs410.uno;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Measures many configurations of games, such as a grid of deck compositions, hand sizes
+ * and numbers of players, playing only as many games of each configuration as needed.
+ *
+ * The sweep runs in rounds. In each round, every configuration still running plays
+ * BATCHES_PER_ROUND batches of GAMES_PER_BATCH games, all configurations on the same pool
+ * of threads, and its statistics are updated. Each objective keeps a confidence interval
+ * on the mean of a metric, of half-width z times the standard error. A configuration:
+ *     - CONVERGED once every interval is narrower than the precision of its objective;
+ *     - is DOMINATED once another configuration is better on every objective, with
+ *       both intervals apart, so its games are better spent on the others;
+ *     - EXHAUSTED its budget once it played maxGamesPerConfig games.
+ * Intervals are only compared once a configuration played MIN_GAMES games. Since the
+ * intervals are looked at after every round, z should be larger than for a single look;
+ * the default is DEFAULT_Z.
+ *
+ * The games of a batch draw their randomness from a generator seeded by the seed of the
+ * sweep, the configuration and the batch, and a round always plays the same batches,
+ * so the result only depends on the seed, not on the number of threads.
+ *
+ * This class contains the following methods:
+ *     - grid() - Returns every configuration of the given values that can be dealt.
+ *     - run() - Plays the games and returns the statistics of each configuration.
+ */
+public class ParameterSweep {
+    // Number of games of a batch, and batches of each configuration per round.
+    public static final int GAMES_PER_BATCH = 512;
+    public static final int BATCHES_PER_ROUND = 4;
+
+    // Number of games a configuration plays before its intervals are used.
+    public static final int MIN_GAMES = GAMES_PER_BATCH * BATCHES_PER_ROUND;
+
+    // Default width of the intervals, in standard errors.
+    public static final double DEFAULT_Z = 3;
+
+    /**
+     * Per-game measure whose mean is compared between configurations.
+     */
+    public enum Metric {
+        // Number of turns of a game.
+        TURNS,
+        // Number of refreshes of the draw pile in a game.
+        REFRESHES,
+        // Number of cards drawn because of a DRAW TWO in a game.
+        FORCED_DRAWS,
+        // Fraction of the games won by the first player.
+        FIRST_SEAT_WIN_RATE,
+        // Fraction of the games stopped at the turn limit without a winner.
+        UNFINISHED_RATE;
+
+        /**
+         * @return the mean of the metric over the games.
+         */
+        double meanOf(GameStatistics.Snapshot statistics) {
+            switch (this) {
+                case TURNS:
+                    return statistics.getTurns().getMean();
+                case REFRESHES:
+                    return statistics.getRefreshes().getMean();
+                case FORCED_DRAWS:
+                    return statistics.getForcedDraws().getMean();
+                case FIRST_SEAT_WIN_RATE:
+                    return statistics.getWinRate(0);
+                default:
+                    return fractionUnfinished(statistics);
+            }
+        }
+
+        /**
+         * @return the standard error of the mean of the metric.
+         */
+        double errorOf(GameStatistics.Snapshot statistics) {
+            switch (this) {
+                case TURNS:
+                    return statistics.getTurns().getStandardError();
+                case REFRESHES:
+                    return statistics.getRefreshes().getStandardError();
+                case FORCED_DRAWS:
+                    return statistics.getForcedDraws().getStandardError();
+                case FIRST_SEAT_WIN_RATE:
+                    return statistics.getWinRateError(0);
+                default:
+                    double fraction = fractionUnfinished(statistics);
+                    long countGames = statistics.getCountGames();
+                    return countGames == 0 ? 0 : Math.sqrt(fraction * (1 - fraction) / countGames);
+            }
+        }
+
+        private static double fractionUnfinished(GameStatistics.Snapshot statistics) {
+            long countGames = statistics.getCountGames();
+            return countGames == 0 ? 0 : (double) statistics.getCountUnfinishedGames() / countGames;
+        }
+    }
+
+    /**
+     * A metric to be minimized or maximized, and the half-width its interval must reach.
+     */
+    public static class Objective {
+        private final Metric metric;
+        private final boolean isMaximized;
+        private final double precision;
+
+        /**
+         * @param metric the metric measured.
+         * @param isMaximized true if larger means are better, false if smaller ones are.
+         * @param precision half-width of the interval at which the metric is known enough.
+         */
+        public Objective(Metric metric, boolean isMaximized, double precision) {
+            if (metric == null || !(precision > 0)) {
+                throw new IllegalArgumentException("Illegal input!");
+            }
+            this.metric = metric;
+            this.isMaximized = isMaximized;
+            this.precision = precision;
+        }
+
+        // Getters.
+        public Metric getMetric() {
+            return this.metric;
+        }
+        public boolean isMaximized() {
+            return this.isMaximized;
+        }
+        public double getPrecision() {
+            return this.precision;
+        }
+    }
+
+    /**
+     * State of a configuration in the sweep.
+     */
+    public enum Status {
+        RUNNING, CONVERGED, DOMINATED, EXHAUSTED
+    }
+
+    /**
+     * A configuration of the sweep, with the statistics of its games so far.
+     */
+    public static class Point {
+        // Configuration of the games, and its index in the sweep.
+        private final GameConfig config;
+        private final int index;
+
+        // Statistics of the games played, and number of batches played.
+        private final GameStatistics.Snapshot statistics;
+        private long countBatches;
+
+        // State of the configuration.
+        private Status status = Status.RUNNING;
+
+        // Width of the intervals, in standard errors.
+        private final double z;
+
+        private Point(GameConfig config, int index, double z) {
+            this.config = config;
+            this.index = index;
+            this.z = z;
+            this.statistics = new GameStatistics.Snapshot(config.getCountPlayers());
+        }
+
+        // Getters.
+        public GameConfig getConfig() {
+            return this.config;
+        }
+        public GameStatistics.Snapshot getStatistics() {
+            return this.statistics;
+        }
+        public Status getStatus() {
+            return this.status;
+        }
+        public long getCountGames() {
+            return this.statistics.getCountGames();
+        }
+        public double getMean(Metric metric) {
+            return metric.meanOf(this.statistics);
+        }
+
+        /**
+         * @return the half-width of the confidence interval of the metric.
+         */
+        public double getHalfWidth(Metric metric) {
+            return this.z * metric.errorOf(this.statistics);
+        }
+
+        /**
+         * @return true if the other configuration is better on every objective,
+         * with the intervals apart.
+         */
+        private boolean isDominatedBy(Point other, Objective[] objectives) {
+            for (Objective objective : objectives) {
+                Metric metric = objective.metric;
+                double gap = other.getMean(metric) - getMean(metric);
+                if (!objective.isMaximized) {
+                    gap = -gap;
+                }
+                if (gap <= getHalfWidth(metric) + other.getHalfWidth(metric)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return the configuration, state, number of games and interval of each metric.
+         */
+        @Override
+        public String toString() {
+            StringBuilder report = new StringBuilder(String.format("%s: %s after %d games",
+                    this.config, this.status, getCountGames()));
+            for (Metric metric : Metric.values()) {
+                report.append(String.format(", %s %.4f +- %.4f", metric.name().toLowerCase(),
+                        getMean(metric), getHalfWidth(metric)));
+            }
+            return report.toString();
+        }
+    }
+
+    // Configurations measured.
+    private final List<GameConfig> configs;
+
+    // Seed from which the randomness of every game is derived.
+    private final long seed;
+
+    // Largest number of games played per configuration.
+    private final long maxGamesPerConfig;
+
+    // Number of turns after which a game is stopped without a winner.
+    private final int maxTurnsPerGame;
+
+    // Width of the intervals, in standard errors.
+    private final double z;
+
+    // Metrics compared, and how.
+    private final Objective[] objectives;
+
+    /**
+     * Constructor that initializes a sweep with the default turn limit and interval width.
+     * @param configs configurations to be measured.
+     * @param seed seed from which the randomness of every game is derived.
+     * @param maxGamesPerConfig largest number of games played per configuration.
+     * @param objectives metrics compared, at least one.
+     */
+    public ParameterSweep(List<GameConfig> configs, long seed, long maxGamesPerConfig,
+                          Objective... objectives) {
+        this(configs, seed, maxGamesPerConfig, Tournament.DEFAULT_MAX_TURNS, DEFAULT_Z,
+                objectives);
+    }
+
+    /**
+     * Constructor that initializes a sweep.
+     * @param configs configurations to be measured.
+     * @param seed seed from which the randomness of every game is derived.
+     * @param maxGamesPerConfig largest number of games played per configuration.
+     * @param maxTurnsPerGame number of turns after which a game is stopped without a winner.
+     * @param z width of the intervals, in standard errors.
+     * @param objectives metrics compared, at least one.
+     */
+    public ParameterSweep(List<GameConfig> configs, long seed, long maxGamesPerConfig,
+                          int maxTurnsPerGame, double z, Objective... objectives) {
+        if (configs.isEmpty() || maxGamesPerConfig <= 0 || maxTurnsPerGame <= 0 || !(z > 0)
+                || objectives.length == 0) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        this.configs = List.copyOf(configs);
+        this.seed = seed;
+        this.maxGamesPerConfig = maxGamesPerConfig;
+        this.maxTurnsPerGame = maxTurnsPerGame;
+        this.z = z;
+        this.objectives = objectives.clone();
+    }
+
+    /**
+     * @return every configuration made of one of each of the given values, leaving out
+     * the ones whose deck cannot deal the initial hands and the first card.
+     */
+    public static List<GameConfig> grid(int[] countsPlayers, int[] countsInitialCardsPerPlayer,
+                                        int[] countsDigitCardsPerColor,
+                                        int[] countsSpecialCardsPerColor, int[] countsWildCards) {
+        List<GameConfig> configs = new ArrayList<>();
+        for (int countPlayers : countsPlayers) {
+            for (int countCards : countsInitialCardsPerPlayer) {
+                for (int countDigitCards : countsDigitCardsPerColor) {
+                    for (int countSpecialCards : countsSpecialCardsPerColor) {
+                        for (int countWildCards : countsWildCards) {
+                            if (countPlayers >= 2 && countCards > 0 && countDigitCards > 0
+                                    && countSpecialCards >= 0 && countWildCards >= 0
+                                    && Deck.countCards(countDigitCards, countSpecialCards,
+                                    countWildCards) > (long) countPlayers * countCards) {
+                                configs.add(new GameConfig(countPlayers, countCards,
+                                        countDigitCards, countSpecialCards, countWildCards));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return configs;
+    }
+
+    /**
+     * Plays the games on one thread per available processor.
+     * @return the statistics of each configuration, in the order of the configurations.
+     */
+    public List<Point> run() {
+        return run(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Plays the games on the given number of threads, until every configuration has
+     * converged, been dominated or exhausted its budget.
+     * @param countThreads number of worker threads.
+     * @return the statistics of each configuration, in the order of the configurations.
+     */
+    public List<Point> run(int countThreads) {
+        if (countThreads <= 0) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        List<Point> points = new ArrayList<>();
+        for (GameConfig config : this.configs) {
+            // Fail on an invalid configuration before starting any thread.
+            new GameState(config, new SplittableRandom(this.seed), GameEventListener.NONE);
+            points.add(new Point(config, points.size(), this.z));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(countThreads);
+        try {
+            List<Point> running = new ArrayList<>(points);
+            while (!running.isEmpty()) {
+                playRound(pool, running);
+                for (Point point : running) {
+                    updateStatus(point, points);
+                }
+                running.removeIf(point -> point.status != Status.RUNNING);
+            }
+            return points;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sweep interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Sweep failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays one round of batches of every running configuration on the pool, and adds
+     * the statistics of each batch to its configuration, in the order of the batches.
+     */
+    private void playRound(ForkJoinPool pool, List<Point> running)
+            throws InterruptedException, ExecutionException {
+        List<Callable<GameStatistics.Snapshot>> batches = new ArrayList<>();
+        List<Point> batchPoints = new ArrayList<>();
+        for (Point point : running) {
+            for (int i = 0; i < BATCHES_PER_ROUND; i++) {
+                long countGames = Math.min(GAMES_PER_BATCH,
+                        this.maxGamesPerConfig - point.countBatches * GAMES_PER_BATCH);
+                if (countGames <= 0) {
+                    break;
+                }
+                long batchSeed = Tournament.chunkSeed(Tournament.chunkSeed(this.seed, point.index),
+                        point.countBatches++);
+                batches.add(() -> playBatch(point.config, batchSeed, countGames));
+                batchPoints.add(point);
+            }
+        }
+        List<Future<GameStatistics.Snapshot>> results = pool.invokeAll(batches);
+        for (int i = 0; i < results.size(); i++) {
+            batchPoints.get(i).statistics.merge(results.get(i).get());
+        }
+    }
+
+    /**
+     * Plays a batch of games of a configuration.
+     * @return the statistics of the games.
+     */
+    private GameStatistics.Snapshot playBatch(GameConfig config, long batchSeed, long countGames) {
+        GameStatistics statistics = new GameStatistics(config.getCountPlayers());
+        GameStatistics.Recorder recorder = statistics.newRecorder();
+        SplittableRandom random = new SplittableRandom(batchSeed);
+        GameState game = new GameState(config, random, recorder);
+        for (long i = 0; i < countGames; i++) {
+            if (i > 0) {
+                game.restart(random);
+            }
+            while (game.getWinnerIdx() < 0 && game.getTurnCount() < this.maxTurnsPerGame) {
+                game.runOneTurn();
+            }
+            recorder.endGame(game);
+        }
+        return statistics.snapshot();
+    }
+
+    /**
+     * Marks the configuration as exhausted, dominated or converged, if it is.
+     */
+    private void updateStatus(Point point, List<Point> points) {
+        if (point.getCountGames() >= this.maxGamesPerConfig) {
+            point.status = Status.EXHAUSTED;
+        }
+        if (point.getCountGames() < MIN_GAMES) {
+            return;
+        }
+        for (Point other : points) {
+            if (other != point && other.status != Status.DOMINATED
+                    && other.getCountGames() >= MIN_GAMES
+                    && point.isDominatedBy(other, this.objectives)) {
+                point.status = Status.DOMINATED;
+                return;
+            }
+        }
+        if (point.status == Status.RUNNING) {
+            boolean isConverged = true;
+            for (Objective objective : this.objectives) {
+                isConverged &= point.getHalfWidth(objective.metric) <= objective.precision;
+            }
+            if (isConverged) {
+                point.status = Status.CONVERGED;
+            }
+        }
+    }
+}
@@ -1,47 +1,170 @@
 package cs410.uno;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.ArrayList;
 
 /**
- * Represents a player that has a hand, represented by an ArrayList of cards.
- * Constructor takes in a name for the player.
+ * Represents a player that has a hand of cards.
+ * Constructor takes in a name for the player, and optionally the strategy that
+ * chooses their moves (FirstPlayableStrategy by default).
+ *
+ * The hand is kept as an array of card codes, together with an index per card code:
+ * the number of copies held, a bitmask of the codes held (bit c is set if the player
+ * has at least one card with code c), and a linked list through the slots holding
+ * each code. Finding a card that matches a mask of codes and removing a given card
+ * are therefore constant time, whatever the size of the hand.
+ * Removing a card moves the last card of the hand into its slot.
+ * The index also keeps the Zobrist hash of the hand: the sum of the keys of its cards.
+ *
  * This class contains the following methods:
- *     - getHand() - Returns the current hand of the player.
+ *     - getHand() - Returns a read-only view of the current hand of the player.
+ *     - getHandSize() - Returns the number of cards in the hand.
+ *     - getHandMask() - Returns the bitmask of the card codes in the hand.
+ *     - getHandHash() - Returns the Zobrist hash of the hand, whatever the order of its cards.
+ *     - countCards() - Returns how many copies of a card are in the hand.
  *     - getName() - Returns the name of the player.
- *     - addToHand() - Adds the input card to the player's hand.
+ *     - getStrategy() / setStrategy() - Returns or replaces the strategy of the player.
+ *     - chooseCard() - Asks the strategy which playable card to play.
+ *     - chooseWildColor() - Asks the strategy which color to declare for a wild card.
+ *     - addToHand() - Adds the input card, or a block of card codes, to the player's hand.
  *     - getCard() - Places a card to the discard pile, if applicable.
  *     - removeCard() - Removes the given card from the player's hand.
+ *     - clearHand() - Removes every card from the player's hand.
  *     - isHandEmpty() - Checks if the player's hand is empty or not.
  *     - toString() - Returns the formatted String of Player, displaying the name of the player.
  */
 public class Player {
+    // Capacity of an empty hand.
+    private static final int INITIAL_CAPACITY = 8;
+
+    // Marks the end of a linked list of slots.
+    private static final int NONE = -1;
+
     // Represents the name of a player.
     private final String name;
-    // Represents the hand of a player.
-    private List<Card> hand;
+
+    // Represents the policy that chooses the moves of the player.
+    private Strategy strategy;
+
+    // Represents the hand of a player, as card codes; only the first size slots are used.
+    private byte[] hand;
+    private int size;
+
+    // Previous and next slot holding the same code as each slot.
+    private int[] prevSlot;
+    private int[] nextSlot;
+
+    // First slot holding each code, or NONE.
+    private final int[] firstSlot;
+
+    // Number of copies of each code in the hand.
+    private final int[] counts;
+
+    // Bit c is set if the hand has at least one card with code c.
+    private long handMask;
+
+    // Sum of the Zobrist keys of the cards in the hand.
+    private long handHash;
 
     /**
      * Constructor that initializes the hand of a player.
      */
     public Player(String name) {
+        this(name, FirstPlayableStrategy.INSTANCE);
+    }
+
+    /**
+     * Constructor that initializes the hand of a player whose moves are chosen by a strategy.
+     */
+    public Player(String name, Strategy strategy) {
         this.name = name;
-        this.hand = new ArrayList<>();
+        this.strategy = strategy;
+        this.hand = new byte[INITIAL_CAPACITY];
+        this.prevSlot = new int[INITIAL_CAPACITY];
+        this.nextSlot = new int[INITIAL_CAPACITY];
+        this.firstSlot = new int[Card.NUM_CODES];
+        Arrays.fill(this.firstSlot, NONE);
+        this.counts = new int[Card.NUM_CODES];
     }
 
     // Getters.
     public List<Card> getHand() {
-        return this.hand;
+        return new HandView();
+    }
+    public int getHandSize() {
+        return this.size;
+    }
+    public long getHandMask() {
+        return this.handMask;
+    }
+    public long getHandHash() {
+        return this.handHash;
     }
     public String getName() {
         return this.name;
     }
+    public Strategy getStrategy() {
+        return this.strategy;
+    }
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Asks the strategy of the player which playable card to play.
+     * @param view read-only view of the game, from the point of view of this player.
+     * @param legalMoves codes of the playable cards in the hand, in increasing order.
+     * @param countLegalMoves number of valid entries at the start of legalMoves.
+     * @return the index in legalMoves of the card to play.
+     */
+    public int chooseCard(GameView view, int[] legalMoves, int countLegalMoves) {
+        int move = this.strategy.chooseCard(view, legalMoves, countLegalMoves);
+        if (move < 0 || move >= countLegalMoves) {
+            throw new IllegalStateException("Illegal move");
+        }
+        return move;
+    }
+
+    /**
+     * Asks the strategy of the player which color to declare for a wild card.
+     * @param view read-only view of the game, from the point of view of this player.
+     * @return the index of the color in Card.getColors().
+     */
+    public int chooseWildColor(GameView view) {
+        int color = this.strategy.chooseWildColor(view);
+        if (color < 0 || color >= Card.NO_COLOR) {
+            throw new IllegalStateException("Illegal color");
+        }
+        return color;
+    }
+
+    /**
+     * @param card card to be counted.
+     * @return the number of copies of the card in the hand.
+     */
+    public int countCards(Card card) {
+        return this.counts[card.getCode()];
+    }
 
     /**
      * Adds a card to the player's hand from the draw pile.
      * @param card a card to be added to the hand.
      */
     public void addToHand(Card card) {
-        this.hand.add(card);
+        addCode(card.getCode());
+    }
+
+    /**
+     * Adds a block of cards to the player's hand, such as the cards dealt from the deck.
+     * @param codes array holding the codes of the cards to be added.
+     * @param offset index of the first code to be added.
+     * @param length number of codes to be added.
+     */
+    public void addToHand(byte[] codes, int offset, int length) {
+        ensureCapacity(this.size + length);
+        for (int i = offset; i < offset + length; i++) {
+            addCode(codes[i]);
+        }
     }
 
     /**
@@ -51,28 +174,145 @@ public class Player {
     public Card getCard(int index) {
         if (isHandEmpty()) {
             throw new IllegalStateException("Hand is empty!");
-        } else if (index < 0 || index >= this.hand.size()) {
+        } else if (index < 0 || index >= this.size) {
             throw new IllegalArgumentException("Illegal index");
         }
-        return this.hand.get(index);
+        return Card.fromCode(this.hand[index]);
     }
 
     /**
-     * Removes the given card from the player's hand
+     * Removes the given card from the player's hand.
+     * Nothing happens if the card is not in the hand.
      * @param card card to be removed
      */
     public void removeCard(Card card) {
         if (isHandEmpty()) {
             throw new IllegalStateException("Hand is empty!");
         }
-        this.hand.remove(card);
+        int slot = this.firstSlot[card.getCode()];
+        if (slot != NONE) {
+            removeSlot(slot);
+        }
+    }
+
+    /**
+     * Removes every card from the player's hand, keeping its memory for the next game.
+     */
+    public void clearHand() {
+        this.size = 0;
+        this.handMask = 0;
+        this.handHash = 0;
+        Arrays.fill(this.firstSlot, NONE);
+        Arrays.fill(this.counts, 0);
+    }
+
+    /**
+     * Copies the hand of this player into the hand of the target player,
+     * growing it if needed. The name and strategy of the target are kept.
+     * @param target player that receives the hand.
+     */
+    void copyInto(Player target) {
+        target.ensureCapacity(this.size);
+        System.arraycopy(this.hand, 0, target.hand, 0, this.size);
+        System.arraycopy(this.prevSlot, 0, target.prevSlot, 0, this.size);
+        System.arraycopy(this.nextSlot, 0, target.nextSlot, 0, this.size);
+        System.arraycopy(this.firstSlot, 0, target.firstSlot, 0, Card.NUM_CODES);
+        System.arraycopy(this.counts, 0, target.counts, 0, Card.NUM_CODES);
+        target.size = this.size;
+        target.handMask = this.handMask;
+        target.handHash = this.handHash;
     }
 
     /**
      * @return true if the player's hand is empty, false otherwise.
      */
     public boolean isHandEmpty() {
-        return this.hand.isEmpty();
+        return this.size == 0;
+    }
+
+    /**
+     * Adds a card code to the end of the hand and to the index.
+     */
+    private void addCode(int code) {
+        ensureCapacity(this.size + 1);
+        int slot = this.size++;
+        this.hand[slot] = (byte) code;
+        link(slot, code);
+        this.counts[code]++;
+        this.handMask |= 1L << code;
+        this.handHash += Zobrist.cardKey(code);
+    }
+
+    /**
+     * Removes the card in the given slot, moving the last card of the hand into it.
+     */
+    private void removeSlot(int slot) {
+        int code = this.hand[slot];
+        unlink(slot, code);
+        if (--this.counts[code] == 0) {
+            this.handMask &= ~(1L << code);
+        }
+        this.handHash -= Zobrist.cardKey(code);
+
+        int last = --this.size;
+        if (slot != last) {
+            // Move the last card into the freed slot and repoint its neighbors.
+            int lastCode = this.hand[last];
+            this.hand[slot] = (byte) lastCode;
+            int prev = this.prevSlot[last];
+            int next = this.nextSlot[last];
+            this.prevSlot[slot] = prev;
+            this.nextSlot[slot] = next;
+            if (prev == NONE) {
+                this.firstSlot[lastCode] = slot;
+            } else {
+                this.nextSlot[prev] = slot;
+            }
+            if (next != NONE) {
+                this.prevSlot[next] = slot;
+            }
+        }
+    }
+
+    /**
+     * Pushes the slot at the front of the list of slots holding the code.
+     */
+    private void link(int slot, int code) {
+        int first = this.firstSlot[code];
+        this.prevSlot[slot] = NONE;
+        this.nextSlot[slot] = first;
+        if (first != NONE) {
+            this.prevSlot[first] = slot;
+        }
+        this.firstSlot[code] = slot;
+    }
+
+    /**
+     * Removes the slot from the list of slots holding the code.
+     */
+    private void unlink(int slot, int code) {
+        int prev = this.prevSlot[slot];
+        int next = this.nextSlot[slot];
+        if (prev == NONE) {
+            this.firstSlot[code] = next;
+        } else {
+            this.nextSlot[prev] = next;
+        }
+        if (next != NONE) {
+            this.prevSlot[next] = prev;
+        }
+    }
+
+    /**
+     * Grows the slot arrays so that they can hold the given number of cards.
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > this.hand.length) {
+            int newCapacity = Math.max(capacity, this.hand.length * 2);
+            this.hand = Arrays.copyOf(this.hand, newCapacity);
+            this.prevSlot = Arrays.copyOf(this.prevSlot, newCapacity);
+            this.nextSlot = Arrays.copyOf(this.nextSlot, newCapacity);
+        }
     }
 
     /**
@@ -82,4 +322,22 @@ public class Player {
     public String toString() {
         return String.format("%s", getName());
     }
-}
\ No newline at end of file
+
+    /**
+     * Read-only list view over the hand, in slot order.
+     */
+    private class HandView extends AbstractList<Card> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Card get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Illegal index");
+            }
+            return Card.fromCode(hand[index]);
+        }
+    }
+}
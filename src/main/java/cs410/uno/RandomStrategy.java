@@ -0,0 +1,19 @@
+package cs410.uno;
+
+/**
+ * Strategy that plays a random playable card and declares a random color for wild cards.
+ */
+public class RandomStrategy implements Strategy {
+    // The strategy has no state, so every player can share this instance.
+    public static final RandomStrategy INSTANCE = new RandomStrategy();
+
+    @Override
+    public int chooseCard(GameView view, int[] legalMoves, int countLegalMoves) {
+        return view.getRandom().nextInt(countLegalMoves);
+    }
+
+    @Override
+    public int chooseWildColor(GameView view) {
+        return view.getRandom().nextInt(Card.getColors().length);
+    }
+}
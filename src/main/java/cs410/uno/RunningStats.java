@@ -0,0 +1,135 @@
+package cs410.uno;
+
+/**
+ * Mean, variance, minimum and maximum of a stream of values, updated one value at a time
+ * in constant memory (Welford's algorithm), so that the variance stays accurate even
+ * after billions of values whose mean is large compared to their spread.
+ *
+ * Two streams summarized separately, such as the games of two threads, are combined
+ * with merge() as if their values had been added to one (Chan et al.).
+ * A RunningStats is not safe to update from several threads; each thread keeps its own.
+ *
+ * This class contains the following methods:
+ *     - add() - Adds a value to the stream.
+ *     - merge() - Adds the values summarized by another RunningStats.
+ *     - reset() - Forgets every value.
+ *     - getters for the count, sum, mean, minimum and maximum.
+ *     - getVariance() / getStandardDeviation() - Returns the sample variance or deviation.
+ *     - getStandardError() - Returns the standard error of the mean.
+ *     - toString() - Returns the count, mean, deviation, minimum and maximum as a String.
+ */
+public class RunningStats {
+    // Number of values.
+    private long count;
+
+    // Sum and mean of the values, and sum of the squared differences from the mean.
+    private double sum;
+    private double mean;
+    private double squaredDeviations;
+
+    // Smallest and largest value.
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Adds a value to the stream.
+     * @param value the value to be added.
+     */
+    public void add(double value) {
+        this.count++;
+        this.sum += value;
+        double delta = value - this.mean;
+        this.mean += delta / this.count;
+        this.squaredDeviations += delta * (value - this.mean);
+        this.min = Math.min(this.min, value);
+        this.max = Math.max(this.max, value);
+    }
+
+    /**
+     * Adds the values summarized by another RunningStats to this one.
+     * @param other summary of the values to be added.
+     */
+    public void merge(RunningStats other) {
+        if (other.count == 0) {
+            return;
+        }
+        long count = this.count + other.count;
+        double delta = other.mean - this.mean;
+        this.mean += delta * other.count / count;
+        this.squaredDeviations += other.squaredDeviations
+                + delta * delta * ((double) this.count * other.count / count);
+        this.count = count;
+        this.sum += other.sum;
+        this.min = Math.min(this.min, other.min);
+        this.max = Math.max(this.max, other.max);
+    }
+
+    /**
+     * Forgets every value.
+     */
+    public void reset() {
+        this.count = 0;
+        this.sum = 0;
+        this.mean = 0;
+        this.squaredDeviations = 0;
+        this.min = Double.POSITIVE_INFINITY;
+        this.max = Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Copies the summary into another RunningStats.
+     */
+    void copyInto(RunningStats target) {
+        target.count = this.count;
+        target.sum = this.sum;
+        target.mean = this.mean;
+        target.squaredDeviations = this.squaredDeviations;
+        target.min = this.min;
+        target.max = this.max;
+    }
+
+    // Getters.
+    public long getCount() {
+        return this.count;
+    }
+    public double getSum() {
+        return this.sum;
+    }
+    public double getMean() {
+        return this.mean;
+    }
+    public double getMin() {
+        return this.count == 0 ? 0 : this.min;
+    }
+    public double getMax() {
+        return this.count == 0 ? 0 : this.max;
+    }
+
+    /**
+     * @return the sample variance of the values, or 0 if there are fewer than 2.
+     */
+    public double getVariance() {
+        return this.count < 2 ? 0 : this.squaredDeviations / (this.count - 1);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    /**
+     * @return the standard error of the mean, the standard deviation of the mean of
+     * as many values drawn again, or 0 if there are fewer than 2 values.
+     */
+    public double getStandardError() {
+        return this.count < 2 ? 0 : Math.sqrt(getVariance() / this.count);
+    }
+
+    /**
+     * @return the count, mean, standard deviation, minimum and maximum of the values.
+     */
+    @Override
+    public String toString() {
+        return String.format("count %d, mean %.3f, sd %.3f, min %.0f, max %.0f",
+                this.count, this.mean, getStandardDeviation(), getMin(), getMax());
+    }
+}
@@ -0,0 +1,113 @@
+package cs410.uno;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor that runs its tasks one at a time, in the order they were submitted, on the
+ * threads of a shared executor. A TableServer gives one to each table, so the turns of
+ * a table never run at the same time while thousands of tables share a few threads.
+ *
+ * Submitting a task takes no lock: the task is counted with a compare-and-set and added
+ * to a lock-free queue, and the submitter that finds no pending task schedules a drain
+ * on the shared executor. The drain runs a batch of tasks and then schedules itself
+ * again if tasks are left, so that a busy table does not keep a thread from the others.
+ * A task that throws is counted as done all the same, and even an Error thrown by a task
+ * leaves the tasks after it scheduled, so a failing task never stops its executor.
+ * At most maxPending tasks wait at a time; beyond that, execute() rejects the task, so
+ * the memory used by a table stays bounded however fast its clients send requests.
+ *
+ * This class contains the following methods:
+ *     - execute() - Submits a task to run after every task submitted before it.
+ *     - getCountPending() - Returns the number of tasks submitted and not yet done.
+ */
+class SerialExecutor implements Executor {
+    // Number of tasks that a drain runs before letting other tables have the thread.
+    private static final int BATCH_SIZE = 64;
+
+    // Executor whose threads run the tasks.
+    private final Executor delegate;
+
+    // Number of tasks that can wait at a time.
+    private final int maxPending;
+
+    // Tasks waiting to run.
+    private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    // Number of tasks submitted and not yet done, including the running one.
+    private final AtomicInteger countPending = new AtomicInteger();
+
+    // Task that runs the queued tasks on the delegate.
+    private final Runnable drain = this::drain;
+
+    /**
+     * Constructor that initializes an executor without any task.
+     * @param delegate executor whose threads run the tasks.
+     * @param maxPending number of tasks that can wait at a time, at least 1.
+     */
+    SerialExecutor(Executor delegate, int maxPending) {
+        if (delegate == null || maxPending < 1) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        this.delegate = delegate;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * Submits a task, to run after every task submitted before it.
+     * @param task the task to be run.
+     * @throws RejectedExecutionException if maxPending tasks are already waiting.
+     */
+    @Override
+    public void execute(Runnable task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        int count;
+        do {
+            count = this.countPending.get();
+            if (count >= this.maxPending) {
+                throw new RejectedExecutionException("Too many pending requests");
+            }
+        } while (!this.countPending.compareAndSet(count, count + 1));
+        this.tasks.add(task);
+        if (count == 0) {
+            this.delegate.execute(this.drain);
+        }
+    }
+
+    public int getCountPending() {
+        return this.countPending.get();
+    }
+
+    /**
+     * Runs up to BATCH_SIZE tasks, and schedules itself again if tasks are left.
+     */
+    private void drain() {
+        boolean isIdle = false;
+        try {
+            for (int i = 0; i < BATCH_SIZE && !isIdle; i++) {
+                Runnable task;
+                // A task is counted before it is queued, so it may take a moment to appear.
+                while ((task = this.tasks.poll()) == null) {
+                    Thread.yield();
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    // A failing task must not stop the tasks after it.
+                    Thread thread = Thread.currentThread();
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                } finally {
+                    isIdle = this.countPending.decrementAndGet() == 0;
+                }
+            }
+        } finally {
+            // Also when a task threw an Error, which goes on to the delegate's thread.
+            if (!isIdle) {
+                this.delegate.execute(this.drain);
+            }
+        }
+    }
+}
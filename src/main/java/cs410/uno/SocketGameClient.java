@@ -0,0 +1,161 @@
+package cs410.uno;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Client of a SocketGameServer on the loopback interface, over one connection that any
+ * number of threads and seats share. Each request gets an id, and a reader thread
+ * completes the future of the request whose id comes back with a response, so requests
+ * do not wait for each other's responses. The errors of the server come back as the
+ * same kinds of exceptions as with a LocalGameClient.
+ *
+ * This class contains the following methods:
+ *     - getState(), play(), newGame() - Send the request to the server (see GameClient).
+ *     - close() - Closes the connection; requests still waiting then fail.
+ */
+public class SocketGameClient implements GameClient {
+    // Connection to the server.
+    private final Socket socket;
+    private final DataOutputStream out;
+
+    // Id of the next request.
+    private final AtomicInteger nextRequestId = new AtomicInteger();
+
+    // Futures of the requests waiting for their response, by id.
+    private final ConcurrentHashMap<Integer, CompletableFuture<TableSnapshot>> pending =
+            new ConcurrentHashMap<>();
+
+    // True once the connection is closed.
+    private volatile boolean isClosed;
+
+    /**
+     * Constructor that connects to a server of this machine.
+     * @param port port of the SocketGameServer.
+     */
+    public SocketGameClient(int port) throws IOException {
+        this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        this.socket.setTcpNoDelay(true);
+        this.out = new DataOutputStream(new BufferedOutputStream(this.socket.getOutputStream()));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(this.socket.getInputStream()));
+        Thread reader = new Thread(() -> readResponses(in), "uno-client");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    @Override
+    public CompletableFuture<TableSnapshot> getState(int tableId, int seat) {
+        return send(SocketGameServer.STATE, tableId, seat, 0, 0);
+    }
+
+    @Override
+    public CompletableFuture<TableSnapshot> play(int tableId, int seat, int cardCode, int wildColor) {
+        // The server checks the move; this only keeps the codes within their bytes.
+        if (cardCode < GameState.DRAW || cardCode >= Card.NUM_CODES
+                || wildColor < -1 || wildColor >= Card.NO_COLOR) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Illegal move"));
+        }
+        return send(SocketGameServer.PLAY, tableId, seat, cardCode, wildColor);
+    }
+
+    @Override
+    public CompletableFuture<TableSnapshot> newGame(int tableId, int seat) {
+        return send(SocketGameServer.NEW_GAME, tableId, seat, 0, 0);
+    }
+
+    /**
+     * Closes the connection, and fails the requests still waiting for their response.
+     */
+    @Override
+    public void close() throws IOException {
+        this.isClosed = true;
+        this.socket.close();
+        failPending();
+    }
+
+    /**
+     * Writes a request, and returns the future of its response.
+     */
+    private CompletableFuture<TableSnapshot> send(int op, int tableId, int seat, int cardCode,
+                                                  int wildColor) {
+        CompletableFuture<TableSnapshot> future = new CompletableFuture<>();
+        int requestId = this.nextRequestId.getAndIncrement();
+        this.pending.put(requestId, future);
+        synchronized (this.out) {
+            try {
+                this.out.writeInt(requestId);
+                this.out.writeByte(op);
+                this.out.writeInt(tableId);
+                this.out.writeInt(seat);
+                this.out.writeByte(cardCode);
+                this.out.writeByte(wildColor);
+                this.out.flush();
+            } catch (IOException e) {
+                this.pending.remove(requestId);
+                future.completeExceptionally(new UncheckedIOException(e));
+            }
+        }
+        if (this.isClosed) {
+            failPending();
+        }
+        return future;
+    }
+
+    /**
+     * Completes the futures of the requests as their responses arrive, until the
+     * connection is closed.
+     */
+    private void readResponses(DataInputStream in) {
+        try {
+            while (true) {
+                int requestId = in.readInt();
+                int status = in.readByte();
+                TableSnapshot snapshot = status == SocketGameServer.OK ? TableSnapshot.readFrom(in) : null;
+                String message = status == SocketGameServer.OK ? null : in.readUTF();
+                CompletableFuture<TableSnapshot> future = this.pending.remove(requestId);
+                if (future == null) {
+                    continue;
+                }
+                switch (status) {
+                    case SocketGameServer.OK:
+                        future.complete(snapshot);
+                        break;
+                    case SocketGameServer.ILLEGAL_ARGUMENT:
+                        future.completeExceptionally(new IllegalArgumentException(message));
+                        break;
+                    case SocketGameServer.REJECTED:
+                        future.completeExceptionally(new RejectedExecutionException(message));
+                        break;
+                    default:
+                        future.completeExceptionally(new IllegalStateException(message));
+                }
+            }
+        } catch (IOException e) {
+            // The connection was closed.
+        } finally {
+            this.isClosed = true;
+            failPending();
+        }
+    }
+
+    /**
+     * Fails the requests still waiting for their response.
+     */
+    private void failPending() {
+        for (Integer requestId : this.pending.keySet()) {
+            CompletableFuture<TableSnapshot> future = this.pending.remove(requestId);
+            if (future != null) {
+                future.completeExceptionally(new IllegalStateException("Connection closed"));
+            }
+        }
+    }
+}
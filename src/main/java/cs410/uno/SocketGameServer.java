@@ -0,0 +1,254 @@
+package cs410.uno;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Serves the tables of a TableServer to SocketGameClients over TCP on the loopback
+ * interface, so that a server and many clients can be load-tested on one machine.
+ *
+ * Each connection carries requests and responses in small binary frames. A request is
+ * its id, the operation (STATE, PLAY or NEW_GAME), the table, the seat, the card code and
+ * the wild color; a response is the id of its request, a status, then the TableSnapshot
+ * or the message of the error. A thread per connection reads the requests and hands them
+ * to the TableServer without waiting for them, so the requests of a connection to
+ * different tables run in parallel and their responses may come back in any order.
+ * The threads of the tables never write to a socket: they only queue the responses of a
+ * connection, and a writer thread per connection writes them, flushing once its queue is
+ * empty, so a slow client never holds up a table. A client that lets more than
+ * MAX_QUEUED_RESPONSES responses pile up is disconnected.
+ *
+ * This class contains the following methods:
+ *     - getPort() - Returns the port the server listens on.
+ *     - close() - Closes the listening socket and every connection.
+ */
+public class SocketGameServer implements Closeable {
+    // Operations of the requests.
+    static final int STATE = 0;
+    static final int PLAY = 1;
+    static final int NEW_GAME = 2;
+
+    // Statuses of the responses.
+    static final int OK = 0;
+    static final int ILLEGAL_ARGUMENT = 1;
+    static final int ILLEGAL_STATE = 2;
+    static final int REJECTED = 3;
+
+    // Number of responses of a connection waiting to be written before it is closed.
+    static final int MAX_QUEUED_RESPONSES = 4096;
+
+    // Server whose tables are served.
+    private final TableServer server;
+
+    // Socket that accepts the connections.
+    private final ServerSocket serverSocket;
+
+    // Open connections.
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor that starts listening on a free port of the loopback interface.
+     * @param server server whose tables are served; it is not closed with this one.
+     */
+    public SocketGameServer(TableServer server) throws IOException {
+        if (server == null) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        this.server = server;
+        this.serverSocket = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+        Thread acceptThread = new Thread(this::acceptConnections, "uno-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    /**
+     * Closes the listening socket and every connection.
+     */
+    @Override
+    public void close() throws IOException {
+        this.serverSocket.close();
+        for (Socket socket : this.connections) {
+            socket.close();
+        }
+    }
+
+    /**
+     * Accepts connections, with a reader thread for each, until the server is closed.
+     */
+    private void acceptConnections() {
+        while (!this.serverSocket.isClosed()) {
+            try {
+                Socket socket = this.serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                this.connections.add(socket);
+                Thread thread = new Thread(() -> serve(socket), "uno-connection");
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                // The server socket was closed, or the connection failed before it started.
+            }
+        }
+    }
+
+    /**
+     * Reads the requests of a connection until it is closed.
+     */
+    private void serve(Socket socket) {
+        Thread writerThread = null;
+        try (socket) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            ResponseWriter writer = new ResponseWriter(socket);
+            writerThread = new Thread(writer, "uno-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+            while (true) {
+                int requestId;
+                try {
+                    requestId = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                int op = in.readByte();
+                int tableId = in.readInt();
+                int seat = in.readInt();
+                int cardCode = in.readByte();
+                int wildColor = in.readByte();
+                CompletableFuture<TableSnapshot> response;
+                switch (op) {
+                    case STATE:
+                        response = this.server.getState(tableId, seat);
+                        break;
+                    case PLAY:
+                        response = this.server.play(tableId, seat, cardCode, wildColor);
+                        break;
+                    case NEW_GAME:
+                        response = this.server.newGame(tableId, seat);
+                        break;
+                    default:
+                        response = CompletableFuture.failedFuture(
+                                new IllegalArgumentException("Unknown operation"));
+                }
+                response.whenComplete((snapshot, error) -> writer.queue(requestId, snapshot, error));
+            }
+        } catch (IOException e) {
+            // The connection was closed by the client or by close().
+        } finally {
+            this.connections.remove(socket);
+            if (writerThread != null) {
+                writerThread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Response to a request, waiting to be written.
+     */
+    private static final class Response {
+        // Id of the request.
+        private final int requestId;
+
+        // Snapshot of the seat, or null if the request failed.
+        private final TableSnapshot snapshot;
+
+        // Error of the request, or null if it succeeded.
+        private final Throwable error;
+
+        private Response(int requestId, TableSnapshot snapshot, Throwable error) {
+            this.requestId = requestId;
+            this.snapshot = snapshot;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Writer thread of a connection: writes the queued responses in order, and flushes
+     * the socket whenever no other response is waiting, until the connection is closed.
+     */
+    private static final class ResponseWriter implements Runnable {
+        // Connection the responses are written to.
+        private final Socket socket;
+        private final DataOutputStream out;
+
+        // Responses waiting to be written.
+        private final BlockingQueue<Response> responses = new ArrayBlockingQueue<>(MAX_QUEUED_RESPONSES);
+
+        private ResponseWriter(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        /**
+         * Queues the response to a request without blocking, or closes the connection
+         * if too many responses are already waiting.
+         */
+        private void queue(int requestId, TableSnapshot snapshot, Throwable error) {
+            if (!this.responses.offer(new Response(requestId, snapshot, error))) {
+                close();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Response response = this.responses.take();
+                    do {
+                        write(response);
+                    } while ((response = this.responses.poll()) != null);
+                    this.out.flush();
+                }
+            } catch (InterruptedException | IOException e) {
+                // The connection was closed, or the client is gone.
+                close();
+            }
+        }
+
+        /**
+         * Writes a response, without flushing it.
+         */
+        private void write(Response response) throws IOException {
+            Throwable error = response.error;
+            if (error instanceof CompletionException && error.getCause() != null) {
+                error = error.getCause();
+            }
+            this.out.writeInt(response.requestId);
+            if (error == null) {
+                this.out.writeByte(OK);
+                response.snapshot.writeTo(this.out);
+            } else {
+                this.out.writeByte(error instanceof IllegalArgumentException ? ILLEGAL_ARGUMENT
+                        : error instanceof RejectedExecutionException ? REJECTED : ILLEGAL_STATE);
+                this.out.writeUTF(String.valueOf(error.getMessage()));
+            }
+        }
+
+        /**
+         * Closes the connection, which also stops its reader thread.
+         */
+        private void close() {
+            try {
+                this.socket.close();
+            } catch (IOException e) {
+                // Already closed.
+            }
+        }
+    }
+}
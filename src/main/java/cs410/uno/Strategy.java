@@ -0,0 +1,32 @@
+package cs410.uno;
+
+/**
+ * Represents the policy that a player follows on their turn: which card to play among
+ * the playable ones, and which color to declare for a wild card.
+ *
+ * The game fills a buffer of legal moves that it owns and reuses, so asking a strategy
+ * for a move does not allocate. A strategy must not keep the buffer after it returns.
+ * A strategy shared by several games, such as the games of a tournament,
+ * must be safe to call from several threads.
+ *
+ * This interface contains the following methods:
+ *     - chooseCard() - Returns the index of the card to play in the buffer of legal moves.
+ *     - chooseWildColor() - Returns the color to declare for a wild card.
+ */
+public interface Strategy {
+    /**
+     * Chooses the card to play. Only called if the player has at least one playable card.
+     * @param view read-only view of the game, from the point of view of the player.
+     * @param legalMoves codes of the playable cards in the player's hand, in increasing order.
+     * @param countLegalMoves number of valid entries at the start of legalMoves.
+     * @return the index in legalMoves of the card to play.
+     */
+    int chooseCard(GameView view, int[] legalMoves, int countLegalMoves);
+
+    /**
+     * Chooses the color to declare after playing a wild card.
+     * @param view read-only view of the game, from the point of view of the player.
+     * @return the index of the color in Card.getColors().
+     */
+    int chooseWildColor(GameView view);
+}
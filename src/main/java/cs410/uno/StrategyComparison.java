@@ -0,0 +1,174 @@
+package cs410.uno;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares a candidate strategy with a baseline strategy, by how often a player with
+ * each of them wins against opponents with the same strategies, with far fewer games
+ * than two independent tournaments would need to tell them apart.
+ *
+ * Both strategies play the same games (common random numbers): for each seed, the
+ * candidate and then the baseline take the compared seat of a game started from
+ * new SplittableRandom(seed), so they are dealt the same hands, draw from the same
+ * shuffled deck, and see the same stream of random numbers, which also declares the
+ * colors of the wild cards of the random strategies. Whatever luck the seed brings
+ * then counts for both, and only the difference of their decisions remains. The compared
+ * seat also takes every seat of the table in turn with the same seed (antithetic seats),
+ * so the advantage of playing first cancels out within each seed.
+ *
+ * The seeds are split into chunks played by worker threads, as in a Tournament. The seed
+ * of a game only depends on the seed of the comparison, so the result does not depend
+ * on the number of threads. The strategies are shared by every worker, so they must be
+ * safe to call from several threads.
+ *
+ * This class contains the following methods:
+ *     - run() - Plays the games and returns their paired statistics.
+ */
+public class StrategyComparison {
+    // Number of seeds that a worker takes at a time.
+    private static final int SEEDS_PER_CHUNK = 64;
+
+    // Configuration of every game.
+    private final GameConfig config;
+
+    // Seed from which the seed of every game is derived.
+    private final long seed;
+
+    // Number of turns after which a game is stopped without a winner.
+    private final int maxTurnsPerGame;
+
+    // Strategies compared, and strategy of the other seats.
+    private final Strategy candidate;
+    private final Strategy baseline;
+    private final Strategy opponent;
+
+    /**
+     * Constructor that compares the strategies against opponents with the baseline
+     * strategy, with the default turn limit.
+     * @param config configuration of every game.
+     * @param seed seed from which the seed of every game is derived.
+     * @param candidate strategy compared with the baseline.
+     * @param baseline strategy of the other seats, and compared with the candidate.
+     */
+    public StrategyComparison(GameConfig config, long seed, Strategy candidate, Strategy baseline) {
+        this(config, seed, Tournament.DEFAULT_MAX_TURNS, candidate, baseline, baseline);
+    }
+
+    /**
+     * Constructor that initializes a comparison.
+     * @param config configuration of every game.
+     * @param seed seed from which the seed of every game is derived.
+     * @param maxTurnsPerGame number of turns after which a game is stopped without a winner.
+     * @param candidate strategy compared with the baseline.
+     * @param baseline strategy compared with the candidate.
+     * @param opponent strategy of the other seats.
+     */
+    public StrategyComparison(GameConfig config, long seed, int maxTurnsPerGame,
+                              Strategy candidate, Strategy baseline, Strategy opponent) {
+        if (maxTurnsPerGame <= 0 || candidate == null || baseline == null || opponent == null) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        this.config = config;
+        this.seed = seed;
+        this.maxTurnsPerGame = maxTurnsPerGame;
+        this.candidate = candidate;
+        this.baseline = baseline;
+        this.opponent = opponent;
+    }
+
+    /**
+     * Plays the games on one thread per available processor.
+     * @param countSeeds number of seeds; each one plays 2 games per seat.
+     * @return the paired statistics of the games.
+     */
+    public ComparisonResult run(long countSeeds) {
+        return run(countSeeds, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Plays the games on the given number of threads.
+     * @param countSeeds number of seeds; each one plays 2 games per seat.
+     * @param countThreads number of worker threads.
+     * @return the paired statistics of the games.
+     */
+    public ComparisonResult run(long countSeeds, int countThreads) {
+        if (countSeeds < 0 || countThreads <= 0) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        // Fail on an invalid configuration before starting any thread.
+        new GameState(this.config, new SplittableRandom(this.seed), GameEventListener.NONE);
+
+        long startTime = System.nanoTime();
+        AtomicLong nextChunk = new AtomicLong();
+        ForkJoinPool pool = new ForkJoinPool(countThreads);
+        try {
+            List<Future<ComparisonResult>> workers = new ArrayList<>();
+            for (int i = 0; i < countThreads; i++) {
+                workers.add(pool.submit(() -> playChunks(nextChunk, countSeeds)));
+            }
+            ComparisonResult result = new ComparisonResult(this.config.getCountPlayers());
+            for (Future<ComparisonResult> worker : workers) {
+                result.merge(worker.get());
+            }
+            result.setElapsedNanos(System.nanoTime() - startTime);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Comparison interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Comparison failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Work of one thread: plays chunks of seeds until every seed has been taken.
+     */
+    private ComparisonResult playChunks(AtomicLong nextChunk, long countSeeds) {
+        int countPlayers = this.config.getCountPlayers();
+        ComparisonResult result = new ComparisonResult(countPlayers);
+        GameState game = new GameState(this.config, new SplittableRandom(this.seed),
+                GameEventListener.NONE);
+        long chunk;
+        while ((chunk = nextChunk.getAndIncrement()) * SEEDS_PER_CHUNK < countSeeds) {
+            long end = Math.min(countSeeds, (chunk + 1) * SEEDS_PER_CHUNK);
+            for (long i = chunk * SEEDS_PER_CHUNK; i < end; i++) {
+                long gameSeed = Tournament.chunkSeed(this.seed, i);
+                int candidateWins = 0;
+                int baselineWins = 0;
+                int countUnfinishedGames = 0;
+                for (int seat = 0; seat < countPlayers; seat++) {
+                    int candidateWinnerIdx = playGame(game, gameSeed, seat, this.candidate);
+                    int baselineWinnerIdx = playGame(game, gameSeed, seat, this.baseline);
+                    candidateWins += candidateWinnerIdx == seat ? 1 : 0;
+                    baselineWins += baselineWinnerIdx == seat ? 1 : 0;
+                    countUnfinishedGames += (candidateWinnerIdx < 0 ? 1 : 0)
+                            + (baselineWinnerIdx < 0 ? 1 : 0);
+                }
+                result.recordSeed(candidateWins, baselineWins, countUnfinishedGames);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Plays the game of the seed with the given strategy at the compared seat.
+     * @return the index of the player that won, or -1 if the game had no winner.
+     */
+    private int playGame(GameState game, long gameSeed, int seat, Strategy strategy) {
+        for (int i = 0; i < this.config.getCountPlayers(); i++) {
+            game.getPlayer(i).setStrategy(i == seat ? strategy : this.opponent);
+        }
+        game.restart(new SplittableRandom(gameSeed));
+        while (game.getWinnerIdx() < 0 && game.getTurnCount() < this.maxTurnsPerGame) {
+            game.runOneTurn();
+        }
+        return game.getWinnerIdx();
+    }
+}
@@ -0,0 +1,265 @@
+package cs410.uno;
+import java.io.Closeable;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Hosts many tables of Uno in one JVM, each playing one game after another, where each
+ * seat is either played by a bot with a Strategy or by a remote client that sends its
+ * moves through a GameClient. Between two moves of the remote seats, the bots play their
+ * turns on the server.
+ *
+ * Each table has its own SerialExecutor on a shared thread pool, so the requests to a
+ * table run one at a time, in order, and only ever touch that table's GameState: nothing
+ * on the path of a turn is shared between tables but the lock-free map of the tables and
+ * the threads of the pool. A table keeps one GameState, restarted for each new game, and
+ * at most maxPendingPerTable requests wait for it, so its memory does not grow with the
+ * number of turns or the rate of the requests. Every request returns a future of the
+ * TableSnapshot of its seat, completed once the request and the turns of the bots after
+ * it have been played.
+ *
+ * This class contains the following methods:
+ *     - createTable() - Creates a table with bots and remote seats, and starts its game.
+ *     - getState() - Returns the snapshot of a seat of a table.
+ *     - play() - Plays the move of a remote seat, then the turns of the bots.
+ *     - newGame() - Starts a new game at a table once its game is over.
+ *     - closeTable() - Removes a table from the server.
+ *     - getCountTables() - Returns the number of tables of the server.
+ *     - close() - Stops the threads of the server.
+ */
+public class TableServer implements Closeable {
+    // Default number of requests that can wait for a table.
+    public static final int DEFAULT_MAX_PENDING_PER_TABLE = 64;
+
+    // Threads shared by the tables.
+    private final ForkJoinPool pool;
+
+    // Number of requests that can wait for a table.
+    private final int maxPendingPerTable;
+
+    // Number of turns after which a game is over without a winner.
+    private final int maxTurnsPerGame;
+
+    // Tables of the server, by id.
+    private final ConcurrentHashMap<Integer, Table> tables = new ConcurrentHashMap<>();
+
+    // Id of the next table.
+    private final AtomicInteger nextTableId = new AtomicInteger();
+
+    /**
+     * Constructor that initializes a server with one thread per available processor.
+     */
+    public TableServer() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_PENDING_PER_TABLE,
+                Tournament.DEFAULT_MAX_TURNS);
+    }
+
+    /**
+     * Constructor that initializes a server without any table.
+     * @param countThreads number of threads shared by the tables.
+     * @param maxPendingPerTable number of requests that can wait for a table.
+     * @param maxTurnsPerGame number of turns after which a game is over without a winner.
+     */
+    public TableServer(int countThreads, int maxPendingPerTable, int maxTurnsPerGame) {
+        if (countThreads <= 0 || maxPendingPerTable <= 0 || maxTurnsPerGame <= 0) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        this.pool = new ForkJoinPool(countThreads, ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+                null, true);
+        this.maxPendingPerTable = maxPendingPerTable;
+        this.maxTurnsPerGame = maxTurnsPerGame;
+    }
+
+    /**
+     * Creates a table and starts its first game, in which the bots play until it is the
+     * turn of a remote seat.
+     * @param config configuration of the games of the table.
+     * @param seed seed from which the seed of every game of the table is derived.
+     * @param strategies strategy of each seat, or null for a seat played by a client.
+     * @return the id of the table.
+     */
+    public int createTable(GameConfig config, long seed, Strategy... strategies) {
+        if (config == null || strategies.length != config.getCountPlayers()) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        GameState game = new GameState(config, new SplittableRandom(seed), GameEventListener.NONE);
+        boolean[] isRemote = new boolean[strategies.length];
+        for (int i = 0; i < strategies.length; i++) {
+            isRemote[i] = strategies[i] == null;
+            if (!isRemote[i]) {
+                game.getPlayer(i).setStrategy(strategies[i]);
+            }
+        }
+        int tableId = this.nextTableId.getAndIncrement();
+        Table table = new Table(tableId, seed, game, isRemote,
+                new SerialExecutor(this.pool, this.maxPendingPerTable));
+        this.tables.put(tableId, table);
+        table.executor.execute(() -> playBots(table));
+        return tableId;
+    }
+
+    /**
+     * @return a future of the snapshot of the seat of the table.
+     */
+    public CompletableFuture<TableSnapshot> getState(int tableId, int seat) {
+        return submit(tableId, table -> snapshot(table, seat));
+    }
+
+    /**
+     * Plays the move of a remote seat, then the turns of the bots until it is the turn
+     * of a remote seat again or the game is over.
+     * @param tableId id of the table.
+     * @param seat seat of the player, whose turn it must be.
+     * @param cardCode code of the card to play, or GameState.DRAW if the player has no
+     *                 playable card.
+     * @param wildColor color to declare if a wild card is played, or -1 to let the
+     *                  default strategy of the seat choose.
+     * @return a future of the snapshot of the seat after the turns, which fails with an
+     * IllegalStateException if the game is over or it is not the turn of the seat, and
+     * with an IllegalArgumentException if the move is illegal.
+     */
+    public CompletableFuture<TableSnapshot> play(int tableId, int seat, int cardCode, int wildColor) {
+        return submit(tableId, table -> {
+            checkSeat(table, seat);
+            if (!table.isRemote[seat]) {
+                throw new IllegalArgumentException("Seat played by a bot");
+            }
+            if (isOver(table.game)) {
+                throw new IllegalStateException("Game is over");
+            }
+            if (table.game.getCurrentPlayerIdx() != seat) {
+                throw new IllegalStateException("Not your turn");
+            }
+            table.game.playMove(cardCode, wildColor);
+            playBots(table);
+            return snapshot(table, seat);
+        });
+    }
+
+    /**
+     * Starts a new game at the table, once its game is over, and plays the turns of the
+     * bots until it is the turn of a remote seat. If the game has already been restarted
+     * by another seat and is not over, it is left as it is.
+     * @return a future of the snapshot of the seat in the new game.
+     */
+    public CompletableFuture<TableSnapshot> newGame(int tableId, int seat) {
+        return submit(tableId, table -> {
+            checkSeat(table, seat);
+            if (isOver(table.game)) {
+                table.countGames++;
+                table.game.restart(new SplittableRandom(
+                        Tournament.chunkSeed(table.seed, table.countGames)));
+                playBots(table);
+            }
+            return snapshot(table, seat);
+        });
+    }
+
+    /**
+     * Removes the table from the server. Requests already sent to it are still played.
+     * @return true if the table existed.
+     */
+    public boolean closeTable(int tableId) {
+        return this.tables.remove(tableId) != null;
+    }
+
+    public int getCountTables() {
+        return this.tables.size();
+    }
+
+    /**
+     * Removes every table and stops the threads of the server.
+     */
+    @Override
+    public void close() {
+        this.tables.clear();
+        this.pool.shutdown();
+    }
+
+    /**
+     * Runs the action on the executor of the table.
+     * @return a future of the result of the action, or of its error.
+     */
+    private CompletableFuture<TableSnapshot> submit(int tableId, Function<Table, TableSnapshot> action) {
+        CompletableFuture<TableSnapshot> future = new CompletableFuture<>();
+        Table table = this.tables.get(tableId);
+        if (table == null) {
+            future.completeExceptionally(new IllegalArgumentException("No such table"));
+            return future;
+        }
+        try {
+            table.executor.execute(() -> {
+                try {
+                    future.complete(action.apply(table));
+                } catch (Throwable e) {
+                    // Even an Error of a bot's strategy completes the request.
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Plays the turns of the bots until it is the turn of a remote seat or the game is over.
+     */
+    private void playBots(Table table) {
+        GameState game = table.game;
+        while (!isOver(game) && !table.isRemote[game.getCurrentPlayerIdx()]) {
+            game.runOneTurn();
+        }
+    }
+
+    private boolean isOver(GameState game) {
+        return game.getWinnerIdx() >= 0 || game.getTurnCount() >= this.maxTurnsPerGame;
+    }
+
+    private TableSnapshot snapshot(Table table, int seat) {
+        checkSeat(table, seat);
+        return new TableSnapshot(table.id, seat, table.countGames, table.game, isOver(table.game));
+    }
+
+    private static void checkSeat(Table table, int seat) {
+        if (seat < 0 || seat >= table.isRemote.length) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+    }
+
+    /**
+     * A table of the server. Its game is only touched by the tasks of its executor.
+     */
+    private static class Table {
+        // Id of the table.
+        private final int id;
+
+        // Seed from which the seed of every game of the table is derived.
+        private final long seed;
+
+        // Game being played at the table.
+        private final GameState game;
+
+        // True for each seat played by a client.
+        private final boolean[] isRemote;
+
+        // Executor that runs the requests to the table one at a time.
+        private final SerialExecutor executor;
+
+        // Number of games started at the table.
+        private int countGames = 1;
+
+        private Table(int id, long seed, GameState game, boolean[] isRemote, SerialExecutor executor) {
+            this.id = id;
+            this.seed = seed;
+            this.game = game;
+            this.isRemote = isRemote;
+            this.executor = executor;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package cs410.uno;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Represents what one seat of a table of a TableServer sees of its game after a request:
+ * whose turn it is, the top card of the discard pile, its own hand, and the size of the
+ * hands of the table. It is an immutable copy, so it can be read on any thread after the
+ * game has moved on, and it is what the transports send back to their clients.
+ * The hand is kept as the number of copies of each card code it holds, since a hand may
+ * hold several copies of a card; only the codes with at least one copy are stored and sent.
+ *
+ * This class contains the following methods:
+ *     - getters for each field of the snapshot.
+ *     - getCountCards() - Returns the number of copies of a card in the hand of the seat.
+ *     - isMyTurn() - Returns true if the seat has to play the next move.
+ *     - toString() - Returns the formatted String of the snapshot.
+ */
+public class TableSnapshot {
+    // Table and seat the snapshot was taken for.
+    private final int tableId;
+    private final int seat;
+
+    // Number of games started at the table, and turns played in the current one.
+    private final int countGames;
+    private final int turnCount;
+
+    // Player whose turn it is, and direction of play.
+    private final int currentPlayerIdx;
+    private final int direction;
+
+    // Code of the top card of the discard pile, and color the next card must match.
+    private final int topCode;
+    private final int activeColor;
+
+    // Player that won the game, or -1, and true if the game is over.
+    private final int winnerIdx;
+    private final boolean isOver;
+
+    // Codes of the cards of the seat, in increasing order, and number of copies of each.
+    private final byte[] handCodes;
+    private final int[] handCounts;
+
+    // Cards of the seat, and those of them that match the top card.
+    private final long handMask;
+    private final long playableMask;
+
+    // Number of cards in the hand of each player.
+    private final int[] handSizes;
+
+    /**
+     * Constructor that initializes a snapshot of a game for a seat.
+     */
+    TableSnapshot(int tableId, int seat, int countGames, GameState game, boolean isOver) {
+        this.tableId = tableId;
+        this.seat = seat;
+        this.countGames = countGames;
+        this.turnCount = game.getTurnCount();
+        this.currentPlayerIdx = game.getCurrentPlayerIdx();
+        this.direction = game.getDirection();
+        this.topCode = game.getTopDiscardCard().getCode();
+        this.activeColor = game.getActiveColorIdx();
+        this.winnerIdx = game.getWinnerIdx();
+        this.isOver = isOver;
+        Player player = game.getPlayer(seat);
+        this.handMask = player.getHandMask();
+        int countCodes = Long.bitCount(this.handMask);
+        this.handCodes = new byte[countCodes];
+        this.handCounts = new int[countCodes];
+        long cards = this.handMask;
+        for (int i = 0; i < countCodes; i++) {
+            int code = Long.numberOfTrailingZeros(cards);
+            cards &= cards - 1;
+            this.handCodes[i] = (byte) code;
+            this.handCounts[i] = player.countCards(Card.fromCode(code));
+        }
+        this.playableMask = this.handMask & game.getPlayableMask();
+        this.handSizes = new int[game.getCountPlayers()];
+        for (int i = 0; i < this.handSizes.length; i++) {
+            this.handSizes[i] = game.getHandSize(i);
+        }
+    }
+
+    private TableSnapshot(DataInput in) throws IOException {
+        this.tableId = in.readInt();
+        this.seat = in.readInt();
+        this.countGames = in.readInt();
+        this.turnCount = in.readInt();
+        this.currentPlayerIdx = in.readInt();
+        this.direction = in.readByte();
+        this.topCode = in.readByte();
+        this.activeColor = in.readByte();
+        this.winnerIdx = in.readInt();
+        this.isOver = in.readBoolean();
+        int countCodes = in.readByte();
+        this.handCodes = new byte[countCodes];
+        this.handCounts = new int[countCodes];
+        long handMask = 0;
+        for (int i = 0; i < countCodes; i++) {
+            this.handCodes[i] = in.readByte();
+            this.handCounts[i] = in.readInt();
+            handMask |= 1L << this.handCodes[i];
+        }
+        this.handMask = handMask;
+        this.playableMask = in.readLong();
+        this.handSizes = new int[in.readInt()];
+        for (int i = 0; i < this.handSizes.length; i++) {
+            this.handSizes[i] = in.readInt();
+        }
+    }
+
+    /**
+     * Writes the snapshot in the binary format read by readFrom().
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(this.tableId);
+        out.writeInt(this.seat);
+        out.writeInt(this.countGames);
+        out.writeInt(this.turnCount);
+        out.writeInt(this.currentPlayerIdx);
+        out.writeByte(this.direction);
+        out.writeByte(this.topCode);
+        out.writeByte(this.activeColor);
+        out.writeInt(this.winnerIdx);
+        out.writeBoolean(this.isOver);
+        // The hand as its (code, count) pairs; the mask of its codes follows from them.
+        out.writeByte(this.handCodes.length);
+        for (int i = 0; i < this.handCodes.length; i++) {
+            out.writeByte(this.handCodes[i]);
+            out.writeInt(this.handCounts[i]);
+        }
+        out.writeLong(this.playableMask);
+        out.writeInt(this.handSizes.length);
+        for (int handSize : this.handSizes) {
+            out.writeInt(handSize);
+        }
+    }
+
+    /**
+     * Reads a snapshot written by writeTo().
+     */
+    static TableSnapshot readFrom(DataInput in) throws IOException {
+        return new TableSnapshot(in);
+    }
+
+    // Getters.
+    public int getTableId() {
+        return this.tableId;
+    }
+    public int getSeat() {
+        return this.seat;
+    }
+    public int getCountGames() {
+        return this.countGames;
+    }
+    public int getTurnCount() {
+        return this.turnCount;
+    }
+    public int getCurrentPlayerIdx() {
+        return this.currentPlayerIdx;
+    }
+    public int getDirection() {
+        return this.direction;
+    }
+    public int getTopCode() {
+        return this.topCode;
+    }
+    public int getActiveColorIdx() {
+        return this.activeColor;
+    }
+    public int getWinnerIdx() {
+        return this.winnerIdx;
+    }
+    public boolean isOver() {
+        return this.isOver;
+    }
+    public long getHandMask() {
+        return this.handMask;
+    }
+    public long getPlayableMask() {
+        return this.playableMask;
+    }
+    public int getCountHandCodes() {
+        return this.handCodes.length;
+    }
+    public int getHandCode(int index) {
+        return this.handCodes[index];
+    }
+    public int getHandCount(int index) {
+        return this.handCounts[index];
+    }
+    public int getCountPlayers() {
+        return this.handSizes.length;
+    }
+    public int getHandSize(int playerIdx) {
+        return this.handSizes[playerIdx];
+    }
+
+    /**
+     * @param code code of a card.
+     * @return the number of copies of the card in the hand of the seat.
+     */
+    public int getCountCards(int code) {
+        for (int i = 0; i < this.handCodes.length; i++) {
+            if (this.handCodes[i] == code) {
+                return this.handCounts[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return true if the game is not over and the seat has to play the next move.
+     */
+    public boolean isMyTurn() {
+        return !this.isOver && this.currentPlayerIdx == this.seat;
+    }
+
+    /**
+     * @return the formatted String of the snapshot.
+     */
+    @Override
+    public String toString() {
+        return String.format("Table %d, seat %d: game %d, turn %d, player %d to play on %s,"
+                        + " %d cards in hand%s", this.tableId, this.seat, this.countGames,
+                this.turnCount, this.currentPlayerIdx, Card.fromCode(this.topCode),
+                this.handSizes[this.seat],
+                this.isOver ? (this.winnerIdx >= 0 ? ", won by player " + this.winnerIdx
+                        : ", over without a winner") : "");
+    }
+}
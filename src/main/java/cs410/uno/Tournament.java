@@ -0,0 +1,223 @@
+package cs410.uno;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays many games of the same configuration across several threads
+ * and collects who won and how long the games took.
+ *
+ * The games are split into chunks of GAMES_PER_CHUNK games. Each worker thread owns
+ * one GameState, which it restarts for every game, and one TournamentResult; it takes
+ * the next chunk until none is left, so the threads stay busy even when some games run
+ * longer than others. The results of the workers are merged at the end.
+ * Each game is started from its own seed, mixed from the tournament seed and the index
+ * of the game, so the result only depends on the seed, not on the number of threads,
+ * and any game can be replayed on its own.
+ *
+ * The games can also be recorded in a GameStatistics, which another thread may read
+ * while the tournament runs, and appended to a GameLog; each worker records its games
+ * with its own recorders.
+ *
+ * Each seat can be given its own strategy, to pit strategies against each other.
+ * The strategies are shared by every worker, so they must be safe to call from several threads.
+ *
+ * This class contains the following methods:
+ *     - run() - Plays the games and returns their statistics.
+ *     - main() - Runs a tournament from the command line.
+ */
+public class Tournament {
+    // Number of games that a worker takes at a time.
+    private static final int GAMES_PER_CHUNK = 256;
+
+    // Default number of turns after which a game is stopped without a winner.
+    public static final int DEFAULT_MAX_TURNS = 10_000;
+
+    // Configuration of every game.
+    private final GameConfig config;
+
+    // Seed from which the randomness of every game is derived.
+    private final long seed;
+
+    // Number of turns after which a game is stopped without a winner.
+    private final int maxTurnsPerGame;
+
+    // Strategy of each seat, or an empty array to keep the default strategy.
+    private final Strategy[] strategies;
+
+    /**
+     * Constructor that initializes a tournament with the default turn limit.
+     * @param config configuration of every game.
+     * @param seed seed from which the randomness of every game is derived.
+     */
+    public Tournament(GameConfig config, long seed) {
+        this(config, seed, DEFAULT_MAX_TURNS);
+    }
+
+    /**
+     * Constructor that initializes a tournament.
+     * @param config configuration of every game.
+     * @param seed seed from which the randomness of every game is derived.
+     * @param maxTurnsPerGame number of turns after which a game is stopped without a winner.
+     * @param strategies strategy of each seat; none to keep the default strategy.
+     */
+    public Tournament(GameConfig config, long seed, int maxTurnsPerGame, Strategy... strategies) {
+        if (maxTurnsPerGame <= 0
+                || (strategies.length != 0 && strategies.length != config.getCountPlayers())) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        this.config = config;
+        this.seed = seed;
+        this.maxTurnsPerGame = maxTurnsPerGame;
+        this.strategies = strategies.clone();
+    }
+
+    /**
+     * Plays the games on one thread per available processor.
+     * @param countGames number of games to play.
+     * @return the statistics of the games.
+     */
+    public TournamentResult run(long countGames) {
+        return run(countGames, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Plays the games on the given number of threads.
+     * @param countGames number of games to play.
+     * @param countThreads number of worker threads.
+     * @return the statistics of the games.
+     */
+    public TournamentResult run(long countGames, int countThreads) {
+        return run(countGames, countThreads, null);
+    }
+
+    /**
+     * Plays the games on the given number of threads, also recording them in the
+     * given statistics as they are played.
+     * @param countGames number of games to play.
+     * @param countThreads number of worker threads.
+     * @param statistics statistics with the number of players of the games, or null.
+     * @return the statistics of the games.
+     */
+    public TournamentResult run(long countGames, int countThreads, GameStatistics statistics) {
+        return run(countGames, countThreads, statistics, null);
+    }
+
+    /**
+     * Plays the games on the given number of threads, also recording them in the
+     * given statistics and appending them to the given log as they are played.
+     * Games stopped at the turn limit are logged too, without a winner.
+     * @param countGames number of games to play.
+     * @param countThreads number of worker threads.
+     * @param statistics statistics with the number of players of the games, or null.
+     * @param log log the games are appended to, or null.
+     * @return the statistics of the games.
+     */
+    public TournamentResult run(long countGames, int countThreads, GameStatistics statistics,
+                                GameLog log) {
+        if (countGames < 0 || countThreads <= 0 || (statistics != null
+                && statistics.getCountPlayers() != this.config.getCountPlayers())) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        // Fail on an invalid configuration before starting any thread.
+        new GameState(this.config, this.seed, GameEventListener.NONE);
+
+        long startTime = System.nanoTime();
+        AtomicLong nextChunk = new AtomicLong();
+        ForkJoinPool pool = new ForkJoinPool(countThreads);
+        try {
+            List<Future<TournamentResult>> workers = new ArrayList<>();
+            for (int i = 0; i < countThreads; i++) {
+                workers.add(pool.submit(() -> playChunks(nextChunk, countGames, statistics, log)));
+            }
+            TournamentResult result = new TournamentResult(this.config.getCountPlayers());
+            for (Future<TournamentResult> worker : workers) {
+                result.merge(worker.get());
+            }
+            result.setElapsedNanos(System.nanoTime() - startTime);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tournament interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tournament failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Work of one thread: plays chunks of games until every game has been taken.
+     */
+    private TournamentResult playChunks(AtomicLong nextChunk, long countGames,
+                                        GameStatistics statistics, GameLog log) {
+        TournamentResult result = new TournamentResult(this.config.getCountPlayers());
+        GameStatistics.Recorder recorder = statistics == null ? null : statistics.newRecorder();
+        GameLog.Recorder logRecorder = log == null ? null : log.newRecorder();
+        GameEventListener listener = recorder == null
+                ? (logRecorder == null ? GameEventListener.NONE : logRecorder)
+                : (logRecorder == null ? recorder : GameEventListener.both(recorder, logRecorder));
+        GameState game = null;
+        long chunk;
+        while ((chunk = nextChunk.getAndIncrement()) * GAMES_PER_CHUNK < countGames) {
+            long gamesInChunk = Math.min(GAMES_PER_CHUNK, countGames - chunk * GAMES_PER_CHUNK);
+            for (long i = 0; i < gamesInChunk; i++) {
+                long gameSeed = chunkSeed(this.seed, chunk * GAMES_PER_CHUNK + i);
+                if (game == null) {
+                    game = new GameState(this.config, gameSeed, listener);
+                    for (int seat = 0; seat < this.strategies.length; seat++) {
+                        game.getPlayer(seat).setStrategy(this.strategies[seat]);
+                    }
+                } else {
+                    game.restart(gameSeed);
+                }
+                while (game.getWinnerIdx() < 0 && game.getTurnCount() < this.maxTurnsPerGame) {
+                    game.runOneTurn();
+                }
+                result.recordGame(game.getWinnerIdx(), game.getTurnCount());
+                if (recorder != null) {
+                    recorder.endGame(game);
+                }
+                if (logRecorder != null) {
+                    logRecorder.endGame();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the seed of the given chunk or game, mixed from the tournament seed (SplitMix64).
+     */
+    static long chunkSeed(long seed, long chunk) {
+        long z = seed + (chunk + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Runs a tournament from the command line.
+     * Arguments: players, hand size, digit cards per color, special cards per color,
+     * wild cards, number of games, and optionally the number of threads and the seed.
+     */
+    public static void main(String[] args) {
+        if (args.length < 6) {
+            System.out.println("Usage: Tournament players handSize digitCardsPerColor "
+                    + "specialCardsPerColor wildCards games [threads] [seed]");
+            return;
+        }
+        GameConfig config = new GameConfig(Integer.parseInt(args[0]), Integer.parseInt(args[1]),
+                Integer.parseInt(args[2]), Integer.parseInt(args[3]), Integer.parseInt(args[4]));
+        long countGames = Long.parseLong(args[5]);
+        int countThreads = args.length > 6 ? Integer.parseInt(args[6])
+                : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 7 ? Long.parseLong(args[7]) : System.nanoTime();
+
+        System.out.printf("Configuration: %s\nThreads: %d\nSeed: %d\n\n", config, countThreads, seed);
+        System.out.print(new Tournament(config, seed).run(countGames, countThreads));
+    }
+}
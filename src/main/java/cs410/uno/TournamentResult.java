@@ -0,0 +1,148 @@
+package cs410.uno;
+
+/**
+ * Represents the statistics of a set of games played with the same configuration:
+ * how many games each seat won, how many games hit the turn limit without a winner,
+ * and how many turns the games took.
+ *
+ * Each worker of a tournament fills its own result, and the results are merged at
+ * the end, so recording a game never needs a lock.
+ *
+ * This class contains the following methods:
+ *     - recordGame() - Adds the outcome of one game.
+ *     - merge() - Adds the statistics of another result to this one.
+ *     - getters for each statistic, plus the derived rates and means.
+ *     - toString() - Returns the formatted report of the statistics.
+ */
+public class TournamentResult {
+    // Number of games won by each seat.
+    private final long[] winsPerSeat;
+
+    // Number of games played, including the ones without a winner.
+    private long countGames;
+
+    // Number of games that reached the turn limit without a winner.
+    private long countUnfinishedGames;
+
+    // Sum, minimum and maximum of the number of turns of each game.
+    private long totalTurns;
+    private int minTurns = Integer.MAX_VALUE;
+    private int maxTurns;
+
+    // Wall-clock time taken to play the games, in nanoseconds.
+    private long elapsedNanos;
+
+    /**
+     * Constructor that initializes an empty result.
+     * @param countPlayers number of seats of the games.
+     */
+    public TournamentResult(int countPlayers) {
+        this.winsPerSeat = new long[countPlayers];
+    }
+
+    /**
+     * Adds the outcome of one game.
+     * @param winnerIdx index of the player that won, or -1 if the game had no winner.
+     * @param turns number of turns played.
+     */
+    public void recordGame(int winnerIdx, int turns) {
+        this.countGames++;
+        if (winnerIdx >= 0) {
+            this.winsPerSeat[winnerIdx]++;
+        } else {
+            this.countUnfinishedGames++;
+        }
+        this.totalTurns += turns;
+        this.minTurns = Math.min(this.minTurns, turns);
+        this.maxTurns = Math.max(this.maxTurns, turns);
+    }
+
+    /**
+     * Adds the statistics of another result, with the same number of seats, to this one.
+     * @param other result to be merged into this one.
+     */
+    public void merge(TournamentResult other) {
+        for (int i = 0; i < this.winsPerSeat.length; i++) {
+            this.winsPerSeat[i] += other.winsPerSeat[i];
+        }
+        this.countGames += other.countGames;
+        this.countUnfinishedGames += other.countUnfinishedGames;
+        this.totalTurns += other.totalTurns;
+        this.minTurns = Math.min(this.minTurns, other.minTurns);
+        this.maxTurns = Math.max(this.maxTurns, other.maxTurns);
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // Getters.
+    public long getWins(int seat) {
+        return this.winsPerSeat[seat];
+    }
+    public long getCountGames() {
+        return this.countGames;
+    }
+    public long getCountUnfinishedGames() {
+        return this.countUnfinishedGames;
+    }
+    public long getTotalTurns() {
+        return this.totalTurns;
+    }
+    public int getMinTurns() {
+        return this.countGames == 0 ? 0 : this.minTurns;
+    }
+    public int getMaxTurns() {
+        return this.maxTurns;
+    }
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /**
+     * @return the fraction of the games won by the given seat.
+     */
+    public double getWinRate(int seat) {
+        return this.countGames == 0 ? 0 : (double) this.winsPerSeat[seat] / this.countGames;
+    }
+
+    /**
+     * @return the mean number of turns per game.
+     */
+    public double getMeanTurns() {
+        return this.countGames == 0 ? 0 : (double) this.totalTurns / this.countGames;
+    }
+
+    /**
+     * @return the number of games played per second of wall-clock time.
+     */
+    public double getGamesPerSecond() {
+        return this.elapsedNanos == 0 ? 0 : this.countGames * 1e9 / this.elapsedNanos;
+    }
+
+    /**
+     * @return the number of turns played per second of wall-clock time.
+     */
+    public double getTurnsPerSecond() {
+        return this.elapsedNanos == 0 ? 0 : this.totalTurns * 1e9 / this.elapsedNanos;
+    }
+
+    /**
+     * @return the formatted report of the statistics.
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Games: %d (%d without a winner)\n",
+                this.countGames, this.countUnfinishedGames));
+        for (int i = 0; i < this.winsPerSeat.length; i++) {
+            report.append(String.format("Player %d wins: %d (%.2f%%)\n",
+                    i + 1, this.winsPerSeat[i], 100 * getWinRate(i)));
+        }
+        report.append(String.format("Turns per game: mean %.2f, min %d, max %d\n",
+                getMeanTurns(), getMinTurns(), getMaxTurns()));
+        report.append(String.format("Throughput: %.0f games/s, %.0f turns/s\n",
+                getGamesPerSecond(), getTurnsPerSecond()));
+        return report.toString();
+    }
+}
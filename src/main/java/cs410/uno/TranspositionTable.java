@@ -0,0 +1,178 @@
+package cs410.uno;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Fixed-size table of the values found by a search, indexed by GameState.getHash(),
+ * so that a situation reached again by another order of moves is evaluated once.
+ * The table can be shared by the threads of a search without any lock.
+ *
+ * The table is an array of buckets of two entries. The first entry of a bucket keeps
+ * the deepest result (the one with the most work behind it) of the current search, the
+ * second is always replaced. An entry is two longs: the packed data (value, depth, best
+ * move and the age of the search that stored it), and the hash XORed with the data.
+ * A reader checks that the two XOR back to the hash it looks for, so an entry torn by
+ * two threads writing at once is seen as a miss instead of as a wrong value.
+ *
+ * This class contains the following methods:
+ *     - probe() - Returns the entry stored for a hash, or MISS.
+ *     - store() - Stores the value, depth and best move found for a hash.
+ *     - newSearch() - Starts a new search, letting it replace the entries of older ones.
+ *     - clear() - Removes every entry.
+ *     - valueOf() / depthOf() / moveOf() - Unpack an entry returned by probe().
+ *     - getCapacity() - Returns the number of entries.
+ */
+public class TranspositionTable {
+    // Returned by probe() when the table has no entry for the hash.
+    public static final long MISS = 0;
+
+    // Largest depth stored; deeper results are stored with this depth.
+    public static final int MAX_DEPTH = 0xFFFF;
+
+    // Layout of an entry: value bits, depth, best move + 1, age, and a valid bit.
+    private static final int DEPTH_SHIFT = 32;
+    private static final int MOVE_SHIFT = 48;
+    private static final int AGE_SHIFT = 56;
+    private static final int AGE_MASK = 0x7F;
+    private static final long VALID = 1L << 63;
+
+    // Longs per bucket: the check and data of two entries.
+    private static final int BUCKET_LONGS = 4;
+
+    // Atomic access to the longs of the table, which plain long accesses do not guarantee.
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    // Buckets, BUCKET_LONGS longs each: check 0, data 0, check 1, data 1.
+    private final long[] slots;
+    private final int bucketMask;
+
+    // Age of the current search.
+    private volatile int age;
+
+    /**
+     * Constructor that allocates a table with room for the given number of entries,
+     * rounded down to a power of two; each entry takes 16 bytes.
+     * @param countEntries number of entries, at least 2.
+     */
+    public TranspositionTable(int countEntries) {
+        if (countEntries < 2) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        int countBuckets = Integer.highestOneBit(countEntries) / 2;
+        this.slots = new long[countBuckets * BUCKET_LONGS];
+        this.bucketMask = countBuckets - 1;
+    }
+
+    // Getters.
+    public int getCapacity() {
+        return 2 * (this.bucketMask + 1);
+    }
+
+    /**
+     * @param hash hash of the situation.
+     * @return the entry stored for the hash, or MISS.
+     */
+    public long probe(long hash) {
+        int bucket = bucketOf(hash);
+        for (int i = bucket; i < bucket + BUCKET_LONGS; i += 2) {
+            long data = (long) SLOTS.getOpaque(this.slots, i + 1);
+            long check = (long) SLOTS.getOpaque(this.slots, i);
+            if (data != MISS && (check ^ data) == hash) {
+                return data;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores the result of a search of a situation. An entry with the same hash is
+     * replaced. Otherwise the result takes the first entry of the bucket if it is at
+     * least as deep as the result there or that result is from an older search, and
+     * the result it replaces moves to the second entry; else it takes the second entry.
+     * @param hash hash of the situation.
+     * @param value value found for the situation.
+     * @param depth amount of work behind the value, such as the depth of the search.
+     * @param move best move found, a card code or GameState.DRAW.
+     */
+    public void store(long hash, float value, int depth, int move) {
+        if (depth < 0 || move < GameState.DRAW || move >= Card.NUM_CODES) {
+            throw new IllegalArgumentException("Illegal input!");
+        }
+        int age = this.age;
+        long data = (Float.floatToRawIntBits(value) & 0xFFFFFFFFL)
+                | ((long) Math.min(depth, MAX_DEPTH) << DEPTH_SHIFT)
+                | ((long) (move + 1) << MOVE_SHIFT)
+                | ((long) age << AGE_SHIFT) | VALID;
+
+        int bucket = bucketOf(hash);
+        long check0 = (long) SLOTS.getOpaque(this.slots, bucket);
+        long data0 = (long) SLOTS.getOpaque(this.slots, bucket + 1);
+        long check1 = (long) SLOTS.getOpaque(this.slots, bucket + 2);
+        long data1 = (long) SLOTS.getOpaque(this.slots, bucket + 3);
+        if (data0 != MISS && (check0 ^ data0) == hash) {
+            write(bucket, hash, data);
+        } else if (data1 != MISS && (check1 ^ data1) == hash) {
+            write(bucket + 2, hash, data);
+        } else if (data0 == MISS || depth >= depthOf(data0) || ageOf(data0) != age) {
+            if (data0 != MISS) {
+                write(bucket + 2, check0 ^ data0, data0);
+            }
+            write(bucket, hash, data);
+        } else {
+            write(bucket + 2, hash, data);
+        }
+    }
+
+    /**
+     * Starts a new search: entries stored before no longer keep their place in the
+     * first entry of a bucket, but can still be found until they are replaced.
+     */
+    public void newSearch() {
+        this.age = (this.age + 1) & AGE_MASK;
+    }
+
+    /**
+     * Removes every entry. Must not run at the same time as a search using the table.
+     */
+    public void clear() {
+        Arrays.fill(this.slots, 0);
+    }
+
+    /**
+     * @return the value of an entry returned by probe().
+     */
+    public static float valueOf(long entry) {
+        return Float.intBitsToFloat((int) entry);
+    }
+
+    /**
+     * @return the depth of an entry returned by probe().
+     */
+    public static int depthOf(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+    }
+
+    /**
+     * @return the best move of an entry returned by probe(): a card code or GameState.DRAW.
+     */
+    public static int moveOf(long entry) {
+        return (int) ((entry >>> MOVE_SHIFT) & 0xFF) - 1;
+    }
+
+    private static int ageOf(long entry) {
+        return (int) (entry >>> AGE_SHIFT) & AGE_MASK;
+    }
+
+    private int bucketOf(long hash) {
+        return ((int) (hash ^ (hash >>> 32)) & this.bucketMask) * BUCKET_LONGS;
+    }
+
+    /**
+     * Writes an entry; a reader seeing only one of the two longs finds no match.
+     */
+    private void write(int slot, long hash, long data) {
+        SLOTS.setOpaque(this.slots, slot, hash ^ data);
+        SLOTS.setOpaque(this.slots, slot + 1, data);
+    }
+}
@@ -0,0 +1,88 @@
+package cs410.uno;
+import java.util.SplittableRandom;
+
+/**
+ * Random keys of the Zobrist hash of a game, see GameState.getHash().
+ *
+ * A hand is hashed as the sum of the keys of its cards, one key per card code, so adding
+ * or removing a card is one addition or subtraction and two hands holding the same cards
+ * hash the same, whatever order they were dealt in. The hash of a game mixes the hash of
+ * each hand with its seat, and adds the key of the turn: top card, active color,
+ * current player and direction.
+ * Searches that also tell apart the cards left in the draw pile, or the player whose
+ * point of view is searched, add the pile and perspective keys.
+ *
+ * This class contains the following methods:
+ *     - cardKey() - Returns the key of a card code in a hand.
+ *     - seatKey() - Returns the contribution of a hand hash at a seat to the game hash.
+ *     - turnKey() - Returns the key of the top card, active color, current player and direction.
+ *     - pileKey() - Returns the key of a card code in the draw pile.
+ *     - perspectiveKey() - Returns the key of the player whose point of view is searched.
+ */
+final class Zobrist {
+    // Seed of the keys, fixed so that hashes are the same from one run to the next.
+    private static final long SEED = 0x5EED_2B0B_1A57L;
+
+    // Key of each card code in a hand, and in the draw pile.
+    private static final long[] CARD_KEYS = new long[Card.NUM_CODES];
+    private static final long[] PILE_KEYS = new long[Card.NUM_CODES];
+
+    // Salts of the seat, turn and perspective keys.
+    private static final long SEAT_SALT;
+    private static final long TURN_SALT;
+    private static final long PERSPECTIVE_SALT;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int code = 0; code < Card.NUM_CODES; code++) {
+            CARD_KEYS[code] = random.nextLong();
+        }
+        SEAT_SALT = random.nextLong();
+        TURN_SALT = random.nextLong();
+        for (int code = 0; code < Card.NUM_CODES; code++) {
+            PILE_KEYS[code] = random.nextLong();
+        }
+        PERSPECTIVE_SALT = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    static long cardKey(int code) {
+        return CARD_KEYS[code];
+    }
+
+    /**
+     * @return the contribution of a hand with the given hash at the given seat, mixed so
+     * that swapping the hands of two players changes the hash of the game.
+     */
+    static long seatKey(int seat, long handHash) {
+        return mix(handHash + SEAT_SALT * (2 * seat + 1));
+    }
+
+    /**
+     * @return the key of the turn fields of a game; direction is 1 or -1.
+     */
+    static long turnKey(int topCode, int activeColor, int currentPlayerIdx, int direction) {
+        long turn = ((long) currentPlayerIdx << 16) | (topCode << 4) | (activeColor << 1)
+                | (direction > 0 ? 1 : 0);
+        return mix(turn ^ TURN_SALT);
+    }
+
+    static long pileKey(int code) {
+        return PILE_KEYS[code];
+    }
+
+    static long perspectiveKey(int player) {
+        return mix(player ^ PERSPECTIVE_SALT);
+    }
+
+    /**
+     * Finalizer of SplitMix64: every bit of the input affects every bit of the output.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
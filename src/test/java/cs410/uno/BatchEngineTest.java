@@ -0,0 +1,87 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchEngineTest {
+    @Test
+    void testBatchEngine() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BatchEngine(new GameConfig(4, 7, 2, 1, 4), 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BatchEngine(new GameConfig(1, 7, 2, 1, 4), 10));
+        // Counted decks are not supported.
+        assertThrows(IllegalArgumentException.class,
+                () -> new BatchEngine(new GameConfig(4, 7, 200, 1, 4), 10));
+
+        BatchEngine batch = new BatchEngine(new GameConfig(4, 7, 2, 1, 4), 10);
+        assertEquals(10, batch.getCountGames());
+        assertEquals(0, batch.getCountLiveGames());
+        batch.start(1);
+        assertEquals(10, batch.getCountLiveGames());
+        for (int game = 0; game < 10; game++) {
+            assertEquals(0, batch.getTurnCount(game));
+            assertEquals(-1, batch.getWinnerIdx(game));
+            assertEquals(7, batch.getHandSize(game, 3));
+            assertEquals(2 * 40 + 4 * 4 + 4 - 4 * 7 - 1, batch.getDrawPileSize(game));
+        }
+    }
+
+    @Test
+    void testSameGamesAsGameState() {
+        // Every turn of every game matches a GameState dealt from the same generator.
+        GameConfig[] configs = {new GameConfig(4, 7, 2, 1, 4), new GameConfig(2, 7, 1, 0, 0),
+                new GameConfig(6, 3, 1, 2, 8), new GameConfig(3, 15, 1, 1, 2)};
+        for (GameConfig config : configs) {
+            int countGames = 50;
+            BatchEngine batch = new BatchEngine(config, countGames);
+            GameState[] games = new GameState[countGames];
+            for (int game = 0; game < countGames; game++) {
+                batch.start(game, new SplittableRandom(game));
+                games[game] = new GameState(config, new SplittableRandom(game), GameEventListener.NONE);
+            }
+            for (int turn = 0; turn < 2000 && batch.getCountLiveGames() > 0; turn++) {
+                batch.runOneTurn();
+                for (int game = 0; game < countGames; game++) {
+                    games[game].runOneTurn();
+                    assertSameState(games[game], batch, game);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRun() {
+        GameConfig config = new GameConfig(4, 7, 2, 1, 4);
+        BatchEngine batch = new BatchEngine(config, 100);
+        batch.start(7);
+        batch.run(10_000);
+        assertEquals(0, batch.getCountLiveGames());
+        for (int game = 0; game < 100; game++) {
+            int winner = batch.getWinnerIdx(game);
+            assertTrue(batch.isGameOver(game));
+            assertEquals(0, batch.getHandSize(game, winner));
+        }
+
+        // A finished slot can be dealt again, and a turn cap leaves games going.
+        batch.start(3, new SplittableRandom(3));
+        assertEquals(1, batch.getCountLiveGames());
+        batch.run(1);
+        assertEquals(1, batch.getTurnCount(3));
+    }
+
+    private static void assertSameState(GameState expected, BatchEngine batch, int game) {
+        assertEquals(expected.getWinnerIdx(), batch.getWinnerIdx(game));
+        assertEquals(expected.getTurnCount(), batch.getTurnCount(game));
+        assertEquals(expected.getCurrentPlayerIdx(), batch.getCurrentPlayerIdx(game));
+        assertEquals(expected.getDirection(), batch.getDirection(game));
+        assertEquals(expected.getActiveColorIdx(), batch.getActiveColorIdx(game));
+        assertEquals(expected.getTopDiscardCard(), batch.getTopDiscardCard(game));
+        assertEquals(expected.getDrawPileSize(), batch.getDrawPileSize(game));
+        for (int player = 0; player < expected.getCountPlayers(); player++) {
+            assertEquals(expected.getPlayer(player).getHandMask(), batch.getHandMask(game, player));
+            assertEquals(expected.getHandSize(player), batch.getHandSize(game, player));
+        }
+    }
+}
@@ -42,17 +42,6 @@ class CardTest {
         assertEquals("RED", card2.getColor());
     }
 
-    @Test
-    void testSetColor() {
-        Card card1 = new Card("RED", 3);
-        Card card2 = new Card("WILD");
-
-        card1.setColor("BLUE");
-        assertEquals("RED", card1.getColor());
-        card2.setColor("BLUE");
-        assertEquals("BLUE", card2.getColor());
-    }
-
     @Test
     void testGetDigit() {
         Card card1 = new Card("BLUE", 3);
@@ -78,14 +67,14 @@ class CardTest {
     void testToString() {
         Card card1 = new Card("WILD");
         assertEquals("~ WILD\n", card1.toString());
-        card1.setColor("RED");
-        assertEquals("RED WILD\n", card1.toString());
+        assertEquals("RED WILD\n", new Card("RED", "WILD").toString());
 
         Card card2 = new Card("RED", "REVERSE");
         assertEquals("RED REVERSE\n", card2.toString());
 
-        Card card3 = new Card("Green", "3");
-        assertEquals("GREEN 3\n", card3.toString());
+        Card card3 = new Card("Green", 3);
+        assertEquals("GREEN 3 NORMAL\n", card3.toString());
+        assertThrows(IllegalArgumentException.class, () -> new Card("Green", "3"));
     }
 
     @Test
@@ -96,4 +85,38 @@ class CardTest {
         assertNotEquals(new Card("WILD"),
                 new Card("RED", "WILD"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHashCode() {
+        assertEquals(new Card("Red", 1).hashCode(), new Card("RED", 1).hashCode());
+        assertNotEquals(new Card("WILD").hashCode(), new Card("RED", "WILD").hashCode());
+        assertNotEquals(new Card("RED", 1).hashCode(), new Card("BLUE", 1).hashCode());
+    }
+
+    @Test
+    void testFromCode() {
+        Card card = new Card("yellow", "skip");
+        assertEquals(card, Card.fromCode(card.getCode()));
+        assertSame(Card.fromCode(card.getCode()), Card.fromCode(card.getCode()));
+        assertThrows(IllegalArgumentException.class, () -> Card.fromCode(Card.NUM_CODES));
+        assertThrows(IllegalArgumentException.class, () -> new Card("PURPLE", 1));
+        assertThrows(IllegalArgumentException.class, () -> new Card("RED", 10));
+    }
+
+    @Test
+    void testPlayableMask() {
+        for (int top = 0; top < Card.NUM_CODES; top++) {
+            Card topCard = Card.fromCode(top);
+            for (int color = 0; color < Card.getColors().length; color++) {
+                long mask = Card.playableMask(top, color);
+                for (int code = 0; code < Card.NUM_CODES; code++) {
+                    Card card = Card.fromCode(code);
+                    boolean playable = card.isWild()
+                            || card.getColor().equals(Card.getColors()[color])
+                            || card.getDigit() == topCard.getDigit();
+                    assertEquals(playable, (mask & (1L << code)) != 0);
+                }
+            }
+        }
+    }
+}
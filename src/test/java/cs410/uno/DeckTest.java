@@ -1,5 +1,7 @@
 package cs410.uno;
 import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
 import static org.junit.jupiter.api.Assertions.*;
 
 class DeckTest {
@@ -107,4 +109,150 @@ class DeckTest {
         Deck deck2 = new Deck();
         assertTrue(deck2.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDeal() {
+        Deck deck = new Deck(1, 0, 0);
+        Player player = new Player("Dealer");
+        deck.deal(player, 7);
+        assertEquals(7, player.getHand().size());
+        assertEquals(33, deck.getDrawPileSize());
+        assertThrows(IllegalStateException.class, () -> deck.deal(player, 34));
+    }
+
+    @Test
+    void testRefreshDrawPileKeepsAllCards() {
+        Deck deck = new Deck(1, 1, 4);
+        while (!deck.isEmpty()) {
+            deck.addCardToDiscard(deck.draw());
+        }
+        deck.refreshDrawPile();
+        assertEquals(59, deck.getDrawPileSize());
+        assertEquals(1, deck.getDiscardPileSize());
+        int wildCards = 0;
+        for (Card card : deck.getDrawPile()) {
+            if (card.equals(new Card("WILD"))) {
+                wildCards++;
+            }
+        }
+        if (!deck.getTopDiscardCard().equals(new Card("WILD"))) {
+            assertEquals(4, wildCards);
+        }
+    }
+
+    @Test
+    void testSeededShuffle() {
+        Deck deck1 = new Deck(2, 1, 4, new SplittableRandom(7));
+        Deck deck2 = new Deck(2, 1, 4, new SplittableRandom(7));
+        assertEquals(deck1.getDrawPile(), deck2.getDrawPile());
+    }
+
+    @Test
+    void testLazyShuffle() {
+        // Cards put on top of a pile that is not shuffled yet are drawn first.
+        Deck deck = new Deck(1, 0, 0, new SplittableRandom(5));
+        deck.getDrawPile().add(new Card("RED", "SKIP"));
+        assertEquals(new Card("RED", "SKIP"), deck.draw());
+
+        // Each card is as likely to be at each position: count the second card drawn.
+        int[] secondDraws = new int[Card.NUM_CODES];
+        for (int i = 0; i < 40_000; i++) {
+            Deck shuffled = new Deck(1, 0, 0, new SplittableRandom(i));
+            shuffled.draw();
+            secondDraws[shuffled.draw().getCode()]++;
+        }
+        for (int color = 0; color < Card.getColors().length; color++) {
+            for (int digit = 0; digit < 10; digit++) {
+                int count = secondDraws[Card.codeOf(color, digit)];
+                assertTrue(count > 800 && count < 1200, "count " + count);
+            }
+        }
+
+        // Drawing and dealing yield every card once.
+        Deck dealt = new Deck(1, 1, 2, new SplittableRandom(6));
+        Player player = new Player("Player");
+        dealt.deal(player, 30);
+        int[] counts = new int[Card.NUM_CODES];
+        for (Card card : player.getHand()) {
+            counts[card.getCode()]++;
+        }
+        while (!dealt.isEmpty()) {
+            counts[dealt.draw().getCode()]++;
+        }
+        for (int code = 0; code < Card.NUM_CODES; code++) {
+            assertEquals(new GameConfig(2, 1, 1, 1, 2).countCardsInDeck(code), counts[code]);
+        }
+
+        // Counting the cards of the draw pile does not shuffle it.
+        Deck inspected = new Deck(1, 1, 2, new SplittableRandom(8));
+        Deck reference = new Deck(1, 1, 2, new SplittableRandom(8));
+        Card drawn = inspected.draw();
+        reference.draw();
+        int[] drawCounts = new int[Card.NUM_CODES];
+        assertEquals(57, inspected.countDrawCards(drawCounts));
+        for (int code = 0; code < Card.NUM_CODES; code++) {
+            int inDeck = new GameConfig(2, 1, 1, 1, 2).countCardsInDeck(code);
+            assertEquals(code == drawn.getCode() ? inDeck - 1 : inDeck, drawCounts[code]);
+        }
+        while (!inspected.isEmpty()) {
+            assertEquals(reference.draw(), inspected.draw());
+        }
+    }
+
+    @Test
+    void testCountedDeck() {
+        Deck deck = new Deck(2, 1, 3, new SplittableRandom(4), true);
+        Deck array = new Deck(2, 1, 3, new SplittableRandom(4));
+        assertTrue(deck.isCounted());
+        assertFalse(array.isCounted());
+        assertEquals(array.getDrawPileSize(), deck.getDrawPileSize());
+        assertEquals(Deck.countCards(2, 1, 3), deck.getDrawPileSize());
+        assertEquals(2, deck.getDrawPile().stream().filter(new Card("RED", 1)::equals).count());
+        assertThrows(UnsupportedOperationException.class,
+                () -> deck.getDrawPile().add(new Card("RED", 1)));
+
+        // Drawing every card yields exactly the cards of the deck.
+        int[] counts = new int[Card.NUM_CODES];
+        while (!deck.isEmpty()) {
+            Card card = deck.draw();
+            counts[card.getCode()]++;
+            deck.addCardToDiscard(card);
+        }
+        for (int code = 0; code < Card.NUM_CODES; code++) {
+            assertEquals(new GameConfig(2, 1, 2, 1, 3).countCardsInDeck(code), counts[code]);
+        }
+
+        // Refreshing keeps the top card and counts the rest back into the draw pile.
+        Card top = deck.getTopDiscardCard();
+        deck.refreshDrawPile();
+        assertEquals(top, deck.getTopDiscardCard());
+        assertEquals(Deck.countCards(2, 1, 3) - 1, deck.getDrawPileSize());
+    }
+
+    @Test
+    void testCountedDeckIsUniform() {
+        // Every card of the deck is as likely to be drawn first.
+        Deck deck = new Deck(1, 0, 0, new SplittableRandom(8), true);
+        int[] firstDraws = new int[Card.NUM_CODES];
+        for (int i = 0; i < 40_000; i++) {
+            deck.reset(1, 0, 0, new SplittableRandom(i));
+            firstDraws[deck.draw().getCode()]++;
+        }
+        for (int color = 0; color < Card.getColors().length; color++) {
+            for (int digit = 0; digit < 10; digit++) {
+                int count = firstDraws[Card.codeOf(color, digit)];
+                assertTrue(count > 800 && count < 1200, "count " + count);
+            }
+        }
+    }
+
+    @Test
+    void testHugeDeck() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new Deck(Integer.MAX_VALUE, 0, 0, new SplittableRandom(), true));
+        Deck deck = new Deck(1_000_000, 100_000, 10_000, new SplittableRandom(1), true);
+        assertEquals(41_610_000, deck.getDrawPileSize());
+        deck.addCardToDiscard(deck.draw());
+        assertEquals(41_609_999, deck.getDrawPileSize());
+    }
+}
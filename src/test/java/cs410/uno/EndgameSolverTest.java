@@ -0,0 +1,101 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndgameSolverTest {
+    @Test
+    void testEndgameSolver() {
+        TranspositionTable table = new TranspositionTable(1024);
+        assertThrows(IllegalArgumentException.class, () -> new EndgameSolver(0, 100, table));
+        assertThrows(IllegalArgumentException.class, () -> new EndgameSolver(4, 0, table));
+        assertThrows(IllegalArgumentException.class, () -> new EndgameSolver(4, 100, null));
+
+        EndgameSolver solver = new EndgameSolver(4, 100, table);
+        GameState game = new GameState(2, 1, 1, 0, 0, new SplittableRandom(1), GameEventListener.NONE);
+        while (!game.isGameOver()) {
+            game.runOneTurn();
+        }
+        assertThrows(IllegalStateException.class, () -> solver.solve(game));
+    }
+
+    @Test
+    void testSolve() {
+        // Playing the RED 2 first lets player 1 win with the RED 9; the SKIP first wins.
+        GameState game = setUpTable(new Card[] {new Card("RED", 2), new Card("RED", "SKIP")},
+                new Card[] {new Card("RED", 9)}, new Card("RED", 5));
+        EndgameSolver solver = new EndgameSolver(4, 10_000, new TranspositionTable(1024));
+        assertEquals(new Card("RED", "SKIP").getCode(), solver.solve(game));
+        assertEquals(1f, solver.getValue());
+        assertTrue(solver.getDepth() >= 2);
+        assertTrue(solver.getCountNodes() > 0);
+
+        // Without a playable card, the only move is to draw.
+        game.setTurn(1, 1, Card.indexOfColor("BLUE"), 0);
+        assertEquals(GameState.DRAW, solver.solve(game));
+        assertTrue(solver.getValue() >= 0 && solver.getValue() <= 1);
+    }
+
+    @Test
+    void testSolveWildColor() {
+        // After the wild card, BLUE lets player 0 play their last card before player 1.
+        GameState game = setUpTable(new Card[] {new Card("BLUE", 3)},
+                new Card[] {new Card("GREEN", 7), new Card("GREEN", 8)}, new Card("WILD"));
+        EndgameSolver solver = new EndgameSolver(4, 10_000, new TranspositionTable(1024));
+        assertEquals(Card.indexOfColor("BLUE"), solver.solveWildColor(game));
+        assertEquals(1f, solver.getValue());
+
+        game.setTurn(0, 1, Card.indexOfColor("BLUE"), 0);
+        game.getDeck().addCardToDiscard(new Card("RED", 5));
+        assertThrows(IllegalStateException.class, () -> solver.solveWildColor(game));
+    }
+
+    @Test
+    void testGameIsNotModified() {
+        // Solving reads the game without drawing from its randomness.
+        GameState game = new GameState(3, 3, 1, 1, 2, new SplittableRandom(9), GameEventListener.NONE);
+        GameState twin = new GameState(3, 3, 1, 1, 2, new SplittableRandom(9), GameEventListener.NONE);
+        EndgameSolver solver = new EndgameSolver(6, 5_000, new TranspositionTable(1 << 12));
+        int[] legalMoves = new int[Card.NUM_CODES];
+        while (!game.isGameOver()) {
+            long hash = game.getHash();
+            int move = solver.solve(game);
+            assertEquals(hash, game.getHash());
+            int count = game.getLegalMoves(legalMoves);
+            if (count == 0) {
+                assertEquals(GameState.DRAW, move);
+            } else {
+                assertTrue(game.isPlayable(Card.fromCode(move)));
+            }
+            assertTrue(solver.getValue() >= 0 && solver.getValue() <= 1);
+            game.runOneTurn();
+            twin.runOneTurn();
+            assertEquals(twin.getHash(), game.getHash());
+        }
+        assertEquals(twin.getWinnerIdx(), game.getWinnerIdx());
+    }
+
+    /**
+     * @return a game of two players with the given hands and top card, where player 0
+     * plays next and the draw pile holds YELLOW 9 cards.
+     */
+    private static GameState setUpTable(Card[] hand0, Card[] hand1, Card top) {
+        GameState game = new GameState(2, 2, 1, 1, 2, new SplittableRandom(2), GameEventListener.NONE);
+        Card[][] hands = {hand0, hand1};
+        for (int i = 0; i < 2; i++) {
+            game.getPlayer(i).clearHand();
+            for (Card card : hands[i]) {
+                game.getPlayer(i).addToHand(card);
+            }
+        }
+        byte[] draw = new byte[10];
+        Arrays.fill(draw, (byte) new Card("YELLOW", 9).getCode());
+        byte[] discard = {(byte) top.getCode()};
+        game.getDeck().setPiles(draw, 0, draw.length, discard, 1);
+        game.setTurn(0, 1, top.getCode() == Card.WILD_CODE ? Card.indexOfColor("RED")
+                : Card.indexOfColor(top.getColor()), 0);
+        return game;
+    }
+}
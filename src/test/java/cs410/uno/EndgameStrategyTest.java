@@ -0,0 +1,85 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndgameStrategyTest {
+    @Test
+    void testEndgameStrategy() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new EndgameStrategy(null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new EndgameStrategy(FirstPlayableStrategy.INSTANCE, -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new EndgameStrategy(FirstPlayableStrategy.INSTANCE, 10, 0, 100, 4, 1024));
+        assertThrows(IllegalArgumentException.class,
+                () -> new EndgameStrategy(FirstPlayableStrategy.INSTANCE, 10, 4, 0, 4, 1024));
+        assertThrows(IllegalArgumentException.class,
+                () -> new EndgameStrategy(FirstPlayableStrategy.INSTANCE, 10, 4, 100, 0, 1024));
+    }
+
+    @Test
+    void testTournament() {
+        // With a threshold of 0, the strategy never searches and plays like the other one.
+        GameConfig config = new GameConfig(3, 5, 1, 1, 4);
+        EndgameStrategy never = new EndgameStrategy(FirstPlayableStrategy.INSTANCE, 0);
+        TournamentResult expected = new Tournament(config, 3, 10_000).run(200, 2);
+        TournamentResult result = new Tournament(config, 3, 10_000, never,
+                FirstPlayableStrategy.INSTANCE, FirstPlayableStrategy.INSTANCE).run(200, 2);
+        assertEquals(0, never.getCountSearches());
+        assertEquals(expected.getTotalTurns(), result.getTotalTurns());
+
+        // In the endgame, every search picks a legal move on every thread.
+        EndgameStrategy endgame = new EndgameStrategy(FirstPlayableStrategy.INSTANCE, 8, 6,
+                2_000, 2, 1 << 16);
+        result = new Tournament(config, 3, 10_000, endgame,
+                FirstPlayableStrategy.INSTANCE, FirstPlayableStrategy.INSTANCE).run(200, 2);
+        assertEquals(200, result.getCountGames());
+        assertTrue(endgame.getCountSearches() > 0);
+        assertTrue(endgame.getCountNodes() > 0);
+    }
+
+    @Test
+    void testHiddenHands() {
+        // The search only reads the view: whatever is dealt to the other hands, the same
+        // view and random stream give the same move.
+        GameState game = new GameState(3, 3, 1, 1, 2, new SplittableRandom(6),
+                GameEventListener.NONE);
+        GameState other = game.copy(new SplittableRandom(1));
+        new InformationSet(game).deal(other, new InformationSet(game).copyHiddenCards(),
+                new SplittableRandom(7));
+        assertEquals(game.getOwnHandMask(), other.getOwnHandMask());
+        int[] legalMoves = new int[Card.NUM_CODES];
+        int countLegalMoves = game.getLegalMoves(legalMoves);
+        EndgameStrategy endgame = new EndgameStrategy(FirstPlayableStrategy.INSTANCE, 1000);
+        int move = endgame.chooseCard(viewOf(game), legalMoves, countLegalMoves);
+        assertTrue(move >= 0 && move < countLegalMoves);
+        assertEquals(1, endgame.getCountSearches());
+        assertEquals(move, new EndgameStrategy(FirstPlayableStrategy.INSTANCE, 1000)
+                .chooseCard(viewOf(other), legalMoves, countLegalMoves));
+    }
+
+    /**
+     * @return a view of the game that is not the game itself, with a fixed random stream.
+     */
+    private static GameView viewOf(GameState game) {
+        return new GameView() {
+            public GameConfig getConfig() { return game.getConfig(); }
+            public int getCountPlayers() { return game.getCountPlayers(); }
+            public int getCurrentPlayerIdx() { return game.getCurrentPlayerIdx(); }
+            public int getDirection() { return game.getDirection(); }
+            public int getTurnCount() { return game.getTurnCount(); }
+            public int getHandSize(int playerIdx) { return game.getHandSize(playerIdx); }
+            public long getOwnHandMask() { return game.getOwnHandMask(); }
+            public int countOwnCards(int code) { return game.countOwnCards(code); }
+            public Card getTopDiscardCard() { return game.getTopDiscardCard(); }
+            public int getActiveColorIdx() { return game.getActiveColorIdx(); }
+            public long getPlayableMask() { return game.getPlayableMask(); }
+            public int getDrawPileSize() { return game.getDrawPileSize(); }
+            public int countDiscardedCards(int[] counts) { return game.countDiscardedCards(counts); }
+            public RandomGenerator getRandom() { return new SplittableRandom(1); }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EngineMetricsTest {
+    @Test
+    void testMetrics() {
+        // The build runs this test alone in a JVM started with -Dcs410.uno.metrics=true,
+        // so the metrics only count the games of this class.
+        assertTrue(EngineMetrics.ENABLED);
+        EngineMetrics.reset();
+
+        // A small deck, and a seed whose game refreshes the draw pile.
+        int[] counts = new int[2];
+        GameEventListener listener = new GameEventListener() {
+            @Override
+            public void onCardPlayed(GameState game, int playerIdx, Card card) {
+                counts[0]++;
+            }
+
+            @Override
+            public void onDrawPileRefreshed(GameState game) {
+                counts[1]++;
+            }
+        };
+        GameState game = new GameState(new GameConfig(4, 8, 1, 1, 0), 5, listener);
+        while (!game.isGameOver()) {
+            game.runOneTurn();
+        }
+        assertTrue(counts[1] > 0);
+        assertEquals(1, EngineMetrics.getGamesStarted());
+        assertEquals(1, EngineMetrics.getGamesOver());
+        assertEquals(game.getTurnCount(), EngineMetrics.getTurns());
+        assertEquals(game.getTurnCount(), EngineMetrics.getTurnNanos().getCount());
+        assertEquals(counts[0], EngineMetrics.getCardsPlayed());
+        assertEquals(counts[1], EngineMetrics.getRefreshes());
+        assertEquals(counts[1], EngineMetrics.getRefreshNanos().getCount());
+        assertEquals(4 * 8, EngineMetrics.getCardsDealt());
+        assertTrue(EngineMetrics.getTurnNanos().getMax() > 0);
+        assertTrue(EngineMetrics.report().contains("Turns: "));
+    }
+
+    @Test
+    void testSpecialCards() {
+        GameState game = new GameState(2, 2, 1, 1, 0, new SplittableRandom(2), GameEventListener.NONE);
+        game.getPlayer(0).clearHand();
+        game.getPlayer(0).addToHand(new Card("RED", "DRAW TWO"));
+        game.getPlayer(0).addToHand(new Card("BLUE", 4));
+        game.getDeck().addCardToDiscard(new Card("RED", 5));
+        game.setTurn(0, 1, Card.indexOfColor("RED"), 0);
+        EngineMetrics.reset();
+        game.runOneTurn();
+        assertEquals(1, EngineMetrics.getDrawTwos());
+        assertEquals(2, EngineMetrics.getForcedDraws());
+    }
+}
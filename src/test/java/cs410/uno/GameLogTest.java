@@ -0,0 +1,178 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameLogTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testAppend() throws IOException {
+        Path path = this.directory.resolve("games.log");
+        GameConfig config = new GameConfig(4, 7, 1, 1, 2);
+        byte[] turns = {GameLog.encodeTurn(3, -1), GameLog.encodeTurn(GameState.DRAW, -1),
+                GameLog.encodeTurn(Card.WILD_CODE, 2)};
+        try (GameLog log = new GameLog(path, 1)) {
+            assertEquals(GameLog.HEADER_SIZE, log.getSize());
+            log.append(config, -1L, turns, 3);
+            log.append(new GameConfig(1000, 7, 100_000, 10_000, 1_000), Long.MAX_VALUE, turns, 0);
+            assertThrows(IllegalArgumentException.class, () -> log.append(config, 0, turns, 4));
+            assertEquals(2, log.getCountGames());
+        }
+        // The file is trimmed to the games: 1 + 8 + 6 + 3 bytes, then 1 + 8 + 11 bytes.
+        assertEquals(GameLog.HEADER_SIZE + 18 + 20, Files.size(path));
+
+        // Games are appended after the ones already in the log.
+        try (GameLog log = new GameLog(path)) {
+            log.append(config, 42, turns, 2);
+        }
+        try (GameReplayer replayer = new GameReplayer(path)) {
+            assertEquals(3, replayer.getCountGames());
+            assertEquals(-1L, replayer.getSeed(0));
+            assertEquals(config, replayer.getConfig(0));
+            assertEquals(3, replayer.getCountTurns(0));
+            assertEquals(3, replayer.getMove(0, 0));
+            assertEquals(GameState.DRAW, replayer.getMove(0, 1));
+            assertEquals(Card.WILD_CODE, replayer.getMove(0, 2));
+            assertEquals(2, replayer.getWildColor(0, 2));
+            assertThrows(IllegalArgumentException.class, () -> replayer.getMove(0, 3));
+            assertEquals(Long.MAX_VALUE, replayer.getSeed(1));
+            assertEquals(new GameConfig(1000, 7, 100_000, 10_000, 1_000), replayer.getConfig(1));
+            assertEquals(0, replayer.getCountTurns(1));
+            assertEquals(42, replayer.getSeed(2));
+            assertEquals(2, replayer.getCountTurns(2));
+        }
+    }
+
+    @Test
+    void testTornGame() throws IOException {
+        Path path = this.directory.resolve("games.log");
+        GameConfig config = new GameConfig(2, 7, 1, 1, 0);
+        try (GameLog log = new GameLog(path)) {
+            log.append(config, 1, new byte[] {1, 2, 3}, 3);
+        }
+        long size = Files.size(path);
+
+        // A game cut short, as if the process died while writing it.
+        Files.write(path, new byte[] {GameLog.GAME, 0, 0, 0, 0, 0, 0, 0, 9, 2, 7, 1, 1, 0, 100, 1},
+                StandardOpenOption.APPEND);
+        try (GameReplayer replayer = new GameReplayer(path)) {
+            assertEquals(1, replayer.getCountGames());
+            assertEquals(size, replayer.getEndPosition());
+        }
+        try (GameLog log = new GameLog(path)) {
+            log.append(config, 2, new byte[] {4}, 1);
+        }
+        try (GameReplayer replayer = new GameReplayer(path)) {
+            assertEquals(2, replayer.getCountGames());
+            assertEquals(2, replayer.getSeed(1));
+            assertEquals(4, replayer.getMove(1, 0));
+        }
+    }
+
+    @Test
+    void testRecorder() throws IOException, InterruptedException {
+        Path path = this.directory.resolve("games.log");
+        GameConfig config = new GameConfig(4, 7, 2, 2, 4);
+        try (GameLog log = new GameLog(path)) {
+            // Threads append games at once, each with its own recorder.
+            Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++) {
+                int thread = t;
+                threads[t] = new Thread(() -> {
+                    GameLog.Recorder recorder = log.newRecorder();
+                    for (int seed = thread * 1000; seed < thread * 1000 + 50; seed++) {
+                        GameState game = new GameState(config, seed, recorder);
+                        while (!game.isGameOver()) {
+                            game.runOneTurn();
+                        }
+                        recorder.endGame();
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertEquals(200, log.getCountGames());
+        }
+        try (GameReplayer replayer = new GameReplayer(path)) {
+            assertEquals(200, replayer.getCountGames());
+            for (int i = 0; i < 200; i++) {
+                long seed = replayer.getSeed(i);
+                GameState game = new GameState(config, new SplittableRandom(seed),
+                        GameEventListener.NONE);
+                while (!game.isGameOver()) {
+                    game.runOneTurn();
+                }
+                GameState replayed = replayer.replay(i);
+                assertEquals(game.getTurnCount(), replayed.getTurnCount());
+                assertEquals(game.getWinnerIdx(), replayed.getWinnerIdx());
+                assertEquals(game.getHash(), replayed.getHash());
+            }
+        }
+    }
+
+    @Test
+    void testRecorderNeedsSeed() throws IOException {
+        Path path = this.directory.resolve("games.log");
+        try (GameLog log = new GameLog(path)) {
+            GameLog.Recorder recorder = log.newRecorder();
+            GameState game = new GameState(new GameConfig(2, 7, 1, 1, 4), new SplittableRandom(3),
+                    recorder);
+            assertThrows(IllegalStateException.class, game::getSeed);
+            assertThrows(IllegalStateException.class, recorder::endGame);
+
+            // Restarting from a seed records it.
+            game.restart(7);
+            assertEquals(7, game.getSeed());
+            recorder.endGame();
+            assertEquals(1, log.getCountGames());
+            game.restart(new SplittableRandom(7));
+            assertThrows(IllegalStateException.class, game::getSeed);
+        }
+    }
+
+    @Test
+    void testTournament() throws IOException {
+        Path path = this.directory.resolve("games.log");
+        GameConfig config = new GameConfig(3, 7, 1, 1, 4);
+        // A low turn limit so that some games are logged unfinished.
+        Tournament tournament = new Tournament(config, 11, 40, RandomStrategy.INSTANCE,
+                FirstPlayableStrategy.INSTANCE, RandomStrategy.INSTANCE);
+        TournamentResult result;
+        try (GameLog log = new GameLog(path)) {
+            result = tournament.run(600, 2, null, log);
+            assertEquals(600, log.getCountGames());
+        }
+        assertTrue(result.getCountUnfinishedGames() > 0);
+        try (GameReplayer replayer = new GameReplayer(path)) {
+            assertEquals(600, replayer.getCountGames());
+            long[] wins = new long[3];
+            long unfinished = 0;
+            long totalTurns = 0;
+            for (int i = 0; i < 600; i++) {
+                GameState replayed = replayer.replay(i);
+                assertEquals(replayer.getCountTurns(i), replayed.getTurnCount());
+                totalTurns += replayed.getTurnCount();
+                if (replayed.isGameOver()) {
+                    wins[replayed.getWinnerIdx()]++;
+                } else {
+                    unfinished++;
+                }
+            }
+            for (int seat = 0; seat < 3; seat++) {
+                assertEquals(result.getWins(seat), wins[seat]);
+            }
+            assertEquals(result.getCountUnfinishedGames(), unfinished);
+            assertEquals(result.getTotalTurns(), totalTurns);
+        }
+    }
+}
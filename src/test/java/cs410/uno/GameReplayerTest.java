@@ -0,0 +1,117 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameReplayerTest {
+    @TempDir
+    Path directory;
+
+    /**
+     * Plays a logged game, and returns the hash, top card, active color and draw pile
+     * size of the game after each turn.
+     */
+    private static List<long[]> playGame(GameConfig config, long seed, GameLog.Recorder recorder) {
+        GameState game = new GameState(config, seed, recorder);
+        game.getPlayer(0).setStrategy(RandomStrategy.INSTANCE);
+        game.getPlayer(1).setStrategy(FirstPlayableStrategy.INSTANCE);
+        List<long[]> states = new ArrayList<>();
+        states.add(snapshot(game));
+        while (!game.isGameOver() && game.getTurnCount() < 500) {
+            game.runOneTurn();
+            states.add(snapshot(game));
+        }
+        recorder.endGame();
+        return states;
+    }
+
+    private static long[] snapshot(GameState game) {
+        return new long[] {game.getHash(), game.getDeck().getTopDiscardCode(),
+                game.getActiveColorIdx(), game.getDrawPileSize(), game.getTurnCount(),
+                game.getWinnerIdx()};
+    }
+
+    @Test
+    void testReplay() throws IOException {
+        Path path = this.directory.resolve("games.log");
+        GameConfig[] configs = {new GameConfig(4, 7, 2, 2, 4), new GameConfig(3, 5, 1, 1, 2)};
+        List<List<long[]>> games = new ArrayList<>();
+        try (GameLog log = new GameLog(path)) {
+            GameLog.Recorder recorder = log.newRecorder();
+            for (int seed = 0; seed < 20; seed++) {
+                games.add(playGame(configs[seed % 2], seed * 31L - 7, recorder));
+            }
+            assertEquals(20, log.getCountGames());
+        }
+
+        try (GameReplayer replayer = new GameReplayer(path)) {
+            assertEquals(20, replayer.getCountGames());
+            for (int i = 0; i < 20; i++) {
+                List<long[]> states = games.get(i);
+                assertEquals(i * 31L - 7, replayer.getSeed(i));
+                assertEquals(configs[i % 2], replayer.getConfig(i));
+                assertEquals(states.size() - 1, replayer.getCountTurns(i));
+                for (int turn = 0; turn < states.size(); turn++) {
+                    assertArrayEquals(states.get(turn), snapshot(replayer.replay(i, turn)));
+                }
+                assertArrayEquals(states.get(states.size() - 1), snapshot(replayer.replay(i)));
+            }
+            assertThrows(IllegalArgumentException.class, () -> replayer.replay(20));
+            assertThrows(IllegalArgumentException.class,
+                    () -> replayer.replay(0, replayer.getCountTurns(0) + 1));
+        }
+    }
+
+    @Test
+    void testMoves() throws IOException {
+        Path path = this.directory.resolve("moves.log");
+        List<int[]> turns = new ArrayList<>();
+        try (GameLog log = new GameLog(path)) {
+            GameLog.Recorder recorder = log.newRecorder();
+            GameEventListener listener = new GameEventListener() {
+                @Override
+                public void onGameStarted(GameState game) {
+                    recorder.onGameStarted(game);
+                }
+
+                @Override
+                public void onTurnEnded(GameState game, int playerIdx, int move, int wildColor) {
+                    recorder.onTurnEnded(game, playerIdx, move, wildColor);
+                    turns.add(new int[] {move, wildColor});
+                }
+
+                @Override
+                public void onGameOver(GameState game, int winnerIdx) {
+                    recorder.onGameOver(game, winnerIdx);
+                }
+            };
+            GameState game = new GameState(new GameConfig(2, 7, 1, 1, 4), 5, listener);
+            while (!game.isGameOver()) {
+                game.runOneTurn();
+            }
+        }
+        try (GameReplayer replayer = new GameReplayer(path)) {
+            assertEquals(turns.size(), replayer.getCountTurns(0));
+            for (int turn = 0; turn < turns.size(); turn++) {
+                assertEquals(turns.get(turn)[0], replayer.getMove(0, turn));
+                if (turns.get(turn)[1] >= 0) {
+                    assertEquals(turns.get(turn)[1], replayer.getWildColor(0, turn));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testNotAGameLog() throws IOException {
+        Path path = this.directory.resolve("other.txt");
+        Files.writeString(path, "Not a game log");
+        assertThrows(IOException.class, () -> new GameReplayer(path));
+        assertThrows(IOException.class, () -> new GameLog(path));
+    }
+}
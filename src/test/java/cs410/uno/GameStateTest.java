@@ -1,5 +1,11 @@
 package cs410.uno;
 import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
 import static org.junit.jupiter.api.Assertions.*;
 
 class GameStateTest {
@@ -14,6 +20,19 @@ class GameStateTest {
         assertFalse(new GameState(2, 2, 2, 2, 2).getDeck().isEmpty());
     }
 
+    @Test
+    void testLargeGame() {
+        // A thousand players and millions of cards.
+        GameState game = new GameState(1000, 7, 100_000, 10_000, 1_000,
+                new SplittableRandom(3), GameEventListener.NONE);
+        assertTrue(game.getDeck().isCounted());
+        assertEquals(Deck.countCards(100_000, 10_000, 1_000) - 7001, game.getDrawPileSize());
+        for (int i = 0; i < 5000 && !game.isGameOver(); i++) {
+            game.runOneTurn();
+        }
+        assertFalse(new GameState(2, 7, 1, 1, 0).getDeck().isCounted());
+    }
+
     @Test
     void testStartGame() {
         assertThrows(IllegalArgumentException.class,
@@ -21,4 +40,345 @@ class GameStateTest {
         assertThrows(IllegalArgumentException.class,
                 () -> new GameState(100, 120, -100, 40, 30));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testActiveColor() {
+        GameState game = new GameState(2, 2, 2, 2, 2);
+        Card top = game.getDeck().getTopDiscardCard();
+        assertNotEquals("~", game.getActiveColor());
+        if (!top.isWild()) {
+            assertEquals(top.getColor(), game.getActiveColor());
+        }
+        for (int i = 0; i < 20 && !game.isGameOver(); i++) {
+            game.runOneTurn();
+            assertNotEquals("~", game.getActiveColor());
+            assertTrue(game.isPlayable(new Card(game.getActiveColor(), 0)));
+        }
+    }
+
+    @Test
+    void testListener() {
+        int[] events = new int[3];
+        GameEventListener listener = new GameEventListener() {
+            @Override
+            public void onGameStarted(GameState game) {
+                events[0]++;
+            }
+
+            @Override
+            public void onCardPlayed(GameState game, int playerIdx, Card card) {
+                assertEquals(game.getDeck().getTopDiscardCard(), card);
+                events[1]++;
+            }
+
+            @Override
+            public void onGameOver(GameState game, int winnerIdx) {
+                assertTrue(game.getPlayer(winnerIdx).isHandEmpty());
+                events[2]++;
+            }
+        };
+        GameState game = new GameState(2, 1, 2, 0, 4, listener);
+        assertEquals(1, events[0]);
+        game.runOneTurn();
+        if (game.getPlayer(0).isHandEmpty()) {
+            assertEquals(1, events[1]);
+            assertTrue(game.isGameOver());
+            assertEquals(1, events[2]);
+        }
+    }
+
+    @Test
+    void testStrategiesGetReadOnlyViews() {
+        GameState game = new GameState(new GameConfig(3, 7, 2, 2, 4), new SplittableRandom(4),
+                GameEventListener.NONE);
+        List<GameView> views = new ArrayList<>();
+        Strategy strategy = new Strategy() {
+            @Override
+            public int chooseCard(GameView view, int[] legalMoves, int countLegalMoves) {
+                // The view shows the hand of the player whose turn it is, not the game.
+                assertFalse(view instanceof GameState);
+                assertEquals(view.getCurrentPlayerIdx(), views.indexOf(view));
+                assertEquals(game.getPlayer(view.getCurrentPlayerIdx()).getHandMask(),
+                        view.getOwnHandMask());
+                return 0;
+            }
+
+            @Override
+            public int chooseWildColor(GameView view) {
+                assertFalse(view instanceof GameState);
+                return 0;
+            }
+        };
+        for (int i = 0; i < 3; i++) {
+            game.getPlayer(i).setStrategy(strategy);
+            views.add(game.getView(i));
+        }
+        for (int i = 0; i < 200 && !game.isGameOver(); i++) {
+            game.runOneTurn();
+        }
+        // The same views serve every turn.
+        for (int i = 0; i < 3; i++) {
+            assertSame(views.get(i), game.getView(i));
+        }
+    }
+
+    @Test
+    void testReverseFlipsDirection() {
+        GameState game = setUpTable(new Card("RED", "REVERSE"), new Card("BLUE", 4));
+        game.runOneTurn();
+        assertEquals(-1, game.getDirection());
+        assertEquals(3, game.getCurrentPlayerIdx());
+        game.runOneTurn();
+        assertEquals(2, game.getCurrentPlayerIdx());
+        game.runOneTurn();
+        assertEquals(1, game.getCurrentPlayerIdx());
+    }
+
+    @Test
+    void testEffectsApplyOnce() {
+        // Player 1 draws two and is skipped; player 2 cannot play the BLUE 9 it draws,
+        // so player 3 must not draw two again.
+        GameState game = setUpTable(new Card("RED", "DRAW TWO"), new Card("BLUE", 4));
+        game.getPlayer(2).clearHand();
+        game.getPlayer(2).addToHand(new Card("GREEN", 1));
+        game.getPlayer(2).addToHand(new Card("GREEN", 2));
+        game.runOneTurn();
+        assertEquals(4, game.getHandSize(1));
+        assertEquals(2, game.getCurrentPlayerIdx());
+        game.runOneTurn();
+        assertEquals(3, game.getHandSize(2));
+        assertEquals(3, game.getCurrentPlayerIdx());
+        assertEquals(2, game.getHandSize(3));
+    }
+
+    @Test
+    void testWinnerIsReportedOnce() {
+        int[] gameOvers = new int[1];
+        GameEventListener listener = new GameEventListener() {
+            @Override
+            public void onGameOver(GameState game, int winnerIdx) {
+                assertEquals(0, winnerIdx);
+                gameOvers[0]++;
+            }
+        };
+        GameState game = new GameState(3, 2, 1, 1, 0, new SplittableRandom(1), listener);
+        game.getPlayer(0).clearHand();
+        game.getPlayer(0).addToHand(new Card("WILD"));
+        game.runOneTurn();
+        assertTrue(game.isGameOver());
+        assertTrue(game.isGameOver());
+        assertEquals(0, game.getWinnerIdx());
+        int turnCount = game.getTurnCount();
+        game.runOneTurn();
+        assertEquals(turnCount, game.getTurnCount());
+        assertEquals(1, gameOvers[0]);
+        assertThrows(IllegalStateException.class, () -> game.makeMove(GameState.DRAW, -1));
+    }
+
+    /**
+     * @return a game of 4 players where player 0 has the given cards, the others
+     * have two cards that cannot be played on the RED 5 on top of the discard pile,
+     * and the draw pile only has BLUE 9 cards.
+     */
+    private static GameState setUpTable(Card first, Card second) {
+        GameState game = new GameState(4, 2, 1, 1, 0, new SplittableRandom(2), GameEventListener.NONE);
+        for (int i = 0; i < 4; i++) {
+            game.getPlayer(i).clearHand();
+            game.getPlayer(i).addToHand(i == 0 ? first : new Card("YELLOW", 1));
+            game.getPlayer(i).addToHand(i == 0 ? second : new Card("GREEN", 2));
+        }
+        byte[] draw = new byte[10];
+        Arrays.fill(draw, (byte) new Card("BLUE", 9).getCode());
+        byte[] discard = {(byte) new Card("RED", 5).getCode()};
+        game.getDeck().setPiles(draw, 0, draw.length, discard, 1);
+        game.setTurn(0, 1, Card.indexOfColor("RED"), 0);
+        return game;
+    }
+
+    @Test
+    void testSeededGamesReplay() {
+        assertEquals(playSeededGame(42), playSeededGame(42));
+        assertNotEquals(playSeededGame(42), playSeededGame(43));
+    }
+
+    @Test
+    void testCopy() {
+        GameState game = new GameState(3, 5, 1, 1, 2, new SplittableRandom(7), GameEventListener.NONE);
+        game.runOneTurn();
+        GameState copy = game.copy(new SplittableRandom(1));
+        assertEquals(snapshot(game), snapshot(copy));
+
+        // Playing the copy leaves the original untouched.
+        String before = snapshot(game);
+        for (int i = 0; i < 10 && !copy.isGameOver(); i++) {
+            copy.runOneTurn();
+        }
+        assertEquals(before, snapshot(game));
+
+        // The copy can be reused for another game with the same configuration.
+        game.copyInto(copy);
+        assertEquals(snapshot(game), snapshot(copy));
+        assertThrows(IllegalArgumentException.class,
+                () -> game.copyInto(new GameState(2, 5, 1, 1, 2)));
+    }
+
+    @Test
+    void testCopyKeepsReplay() {
+        // Forking a seeded game draws nothing from its generator.
+        GameConfig config = new GameConfig(4, 7, 1, 1, 4);
+        for (long seed = 0; seed < 50; seed++) {
+            assertPlaysAlike(config, seed, game -> game.copy(new SplittableRandom(0)));
+        }
+    }
+
+    @Test
+    void testObservingKeepsReplay() {
+        // Copying the game into another and viewing its draw pile, which finish the lazy
+        // shuffle, leave the cards it deals and draws afterwards unchanged. Small decks
+        // run out of cards, so the shuffles after refreshes are checked too.
+        GameConfig config = new GameConfig(4, 8, 1, 1, 0);
+        GameState scratch = new GameState(config, 0, GameEventListener.NONE);
+        for (long seed = 0; seed < 100; seed++) {
+            assertPlaysAlike(config, seed, game -> {
+                game.copyInto(scratch);
+                if (!game.getDeck().getDrawPile().isEmpty()) {
+                    game.getDeck().getDrawPile().get(0);
+                }
+            });
+        }
+    }
+
+    /**
+     * Plays a seeded game and its twin, observing the game before each turn, and checks
+     * that both play the same turns, through hashes that do not touch the piles.
+     */
+    private static void assertPlaysAlike(GameConfig config, long seed, Consumer<GameState> observe) {
+        GameState game = new GameState(config, seed, GameEventListener.NONE);
+        GameState twin = new GameState(config, seed, GameEventListener.NONE);
+        while (!twin.isGameOver() && twin.getTurnCount() < 1000) {
+            observe.accept(game);
+            game.runOneTurn();
+            twin.runOneTurn();
+            // Not snapshot(), which views the draw pile of the twin too.
+            assertEquals(twin.getHash(), game.getHash());
+        }
+    }
+
+    @Test
+    void testMakeAndUnmakeMove() {
+        SplittableRandom random = new SplittableRandom(11);
+        int[] legalMoves = new int[Card.NUM_CODES];
+        // A small deck refreshes its draw pile often.
+        GameState game = new GameState(3, 3, 1, 1, 2, new SplittableRandom(5), GameEventListener.NONE);
+        assertThrows(IllegalStateException.class, game::unmakeMove);
+
+        List<String> snapshots = new ArrayList<>();
+        List<Long> hashes = new ArrayList<>();
+        for (int i = 0; i < 200 && !game.isGameOver(); i++) {
+            snapshots.add(snapshot(game));
+            hashes.add(game.getHash());
+            int countLegalMoves = game.getLegalMoves(legalMoves);
+            int move = countLegalMoves == 0 ? GameState.DRAW
+                    : legalMoves[random.nextInt(countLegalMoves)];
+            game.makeMove(move, random.nextInt(4));
+        }
+        assertEquals(snapshots.size(), game.getUndoDepth());
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            game.unmakeMove();
+            assertEquals(snapshots.get(i), snapshot(game));
+            assertEquals(hashes.get(i), game.getHash());
+        }
+        assertEquals(0, game.getUndoDepth());
+    }
+
+    @Test
+    void testHash() {
+        GameState game = new GameState(4, 7, 2, 1, 4, new SplittableRandom(3), GameEventListener.NONE);
+        GameState copy = game.copy(new SplittableRandom(1));
+        assertEquals(game.getHash(), copy.getHash());
+        long hash = game.getHash();
+        game.runOneTurn();
+        assertNotEquals(hash, game.getHash());
+        assertNotEquals(game.getHash(), copy.getHash());
+        game.copyInto(copy);
+        assertEquals(game.getHash(), copy.getHash());
+
+        // The same hands reached in another order hash the same,
+        // and swapping two hands changes the hash.
+        GameState other = new GameState(4, 7, 2, 1, 4, new SplittableRandom(4), GameEventListener.NONE);
+        game.copyInto(other);
+        Player player = other.getPlayer(1);
+        List<Card> hand = new ArrayList<>(player.getHand());
+        player.clearHand();
+        for (int i = hand.size() - 1; i >= 0; i--) {
+            player.addToHand(hand.get(i));
+        }
+        assertEquals(game.getHash(), other.getHash());
+        Player next = other.getPlayer(2);
+        List<Card> nextHand = new ArrayList<>(next.getHand());
+        next.clearHand();
+        player.clearHand();
+        nextHand.forEach(player::addToHand);
+        hand.forEach(next::addToHand);
+        assertNotEquals(game.getHash(), other.getHash());
+    }
+
+    @Test
+    void testIllegalMakeMove() {
+        GameState game = new GameState(2, 7, 1, 1, 0);
+        int[] legalMoves = new int[Card.NUM_CODES];
+        if (game.getLegalMoves(legalMoves) > 0) {
+            assertThrows(IllegalArgumentException.class, () -> game.makeMove(GameState.DRAW, 0));
+            assertThrows(IllegalArgumentException.class, () -> game.makeMove(legalMoves[0], 4));
+        }
+        assertThrows(IllegalArgumentException.class, () -> game.makeMove(Card.NUM_CODES, 0));
+    }
+
+    @Test
+    void testMetricsDisabled() {
+        // The main suite runs the default paths; EngineMetricsTest runs with the metrics on.
+        assertFalse(EngineMetrics.ENABLED);
+        GameState game = new GameState(2, 7, 1, 1, 4, new SplittableRandom(1), GameEventListener.NONE);
+        game.runOneTurn();
+        assertEquals(0, EngineMetrics.getTurns());
+        assertEquals(0, EngineMetrics.getGamesStarted());
+    }
+
+    /**
+     * @return the hands (in code order), piles and turn of the game, as a String.
+     */
+    private static String snapshot(GameState game) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < game.getCountPlayers(); i++) {
+            for (int code = 0; code < Card.NUM_CODES; code++) {
+                builder.append(game.getPlayer(i).countCards(Card.fromCode(code))).append(' ');
+            }
+            builder.append('|');
+        }
+        builder.append(game.getDeck().getDrawPile()).append('|')
+                .append(game.getDeck().getDiscardPile()).append('|')
+                .append(game.getCurrentPlayerIdx()).append(' ')
+                .append(game.getActiveColor()).append(' ')
+                .append(game.getTurnCount());
+        return builder.toString();
+    }
+
+    /**
+     * @return the cards played during the first turns of a game with the given seed.
+     */
+    private static List<Card> playSeededGame(long seed) {
+        List<Card> played = new ArrayList<>();
+        GameEventListener listener = new GameEventListener() {
+            @Override
+            public void onCardPlayed(GameState game, int playerIdx, Card card) {
+                played.add(card);
+            }
+        };
+        GameState game = new GameState(4, 7, 2, 1, 4, new SplittableRandom(seed), listener);
+        played.add(game.getDeck().getTopDiscardCard());
+        for (int i = 0; i < 40 && !game.isGameOver(); i++) {
+            game.runOneTurn();
+        }
+        return played;
+    }
+}
@@ -0,0 +1,116 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameStatisticsTest {
+    @Test
+    void testRecorder() {
+        assertThrows(IllegalArgumentException.class, () -> new GameStatistics(0));
+        GameStatistics statistics = new GameStatistics(10);
+        GameStatistics.Recorder recorder = statistics.newRecorder();
+        long totalTurns = 0;
+        long[] wins = new long[10];
+        int[] refreshes = new int[1];
+        int[] forcedDraws = new int[1];
+        GameEventListener listener = new GameEventListener() {
+            @Override
+            public void onGameStarted(GameState game) {
+                recorder.onGameStarted(game);
+            }
+
+            @Override
+            public void onDrawPileRefreshed(GameState game) {
+                recorder.onDrawPileRefreshed(game);
+                refreshes[0]++;
+            }
+
+            @Override
+            public void onForcedDraw(GameState game, int playerIdx, int countCards) {
+                recorder.onForcedDraw(game, playerIdx, countCards);
+                forcedDraws[0] += countCards;
+            }
+
+            @Override
+            public void onGameOver(GameState game, int winnerIdx) {
+                recorder.onGameOver(game, winnerIdx);
+            }
+        };
+        // Many players with a small deck refresh it often.
+        for (int seed = 0; seed < 100; seed++) {
+            GameState game = new GameState(new GameConfig(10, 3, 1, 1, 2),
+                    new SplittableRandom(seed), listener);
+            while (!game.isGameOver() && game.getTurnCount() < 200) {
+                game.runOneTurn();
+            }
+            recorder.endGame(game);
+            recorder.endGame(game);
+            totalTurns += game.getTurnCount();
+            if (game.isGameOver()) {
+                wins[game.getWinnerIdx()]++;
+            }
+        }
+
+        GameStatistics.Snapshot snapshot = statistics.snapshot();
+        assertEquals(100, snapshot.getCountGames());
+        long countWins = 0;
+        for (int seat = 0; seat < 10; seat++) {
+            assertEquals(wins[seat], snapshot.getWins(seat));
+            assertEquals(wins[seat] / 100.0, snapshot.getWinRate(seat), 1e-12);
+            countWins += wins[seat];
+        }
+        assertEquals(100 - countWins, snapshot.getCountUnfinishedGames());
+        assertEquals(totalTurns, snapshot.getTurns().getSum());
+        assertTrue(refreshes[0] > 0);
+        assertEquals(refreshes[0], snapshot.getRefreshes().getSum());
+        assertTrue(forcedDraws[0] > 0);
+        assertEquals(forcedDraws[0], snapshot.getForcedDraws().getSum());
+        assertEquals((long) snapshot.getTurns().getMax(), snapshot.getTurnsAtPercentile(100));
+        assertTrue(snapshot.getTurnsAtPercentile(50) <= snapshot.getTurns().getMax());
+        assertThrows(IllegalArgumentException.class, () -> snapshot.getTurnsAtPercentile(-1));
+        assertTrue(statistics.toString().contains("Refreshes per game"));
+    }
+
+    @Test
+    void testTournament() throws InterruptedException {
+        GameConfig config = new GameConfig(4, 7, 1, 1, 2);
+        GameStatistics statistics = new GameStatistics(4);
+        assertThrows(IllegalArgumentException.class,
+                () -> new Tournament(config, 1).run(10, 1, new GameStatistics(3)));
+
+        // A monitoring thread reads the statistics while the tournament runs.
+        AtomicBoolean isRunning = new AtomicBoolean(true);
+        boolean[] isConsistent = {true};
+        Thread monitor = new Thread(() -> {
+            long previous = 0;
+            while (isRunning.get()) {
+                GameStatistics.Snapshot snapshot = statistics.snapshot();
+                long countWins = snapshot.getCountUnfinishedGames();
+                for (int seat = 0; seat < 4; seat++) {
+                    countWins += snapshot.getWins(seat);
+                }
+                isConsistent[0] &= countWins == snapshot.getCountGames()
+                        && snapshot.getTurns().getCount() == snapshot.getCountGames()
+                        && snapshot.getCountGames() >= previous;
+                previous = snapshot.getCountGames();
+            }
+        });
+        monitor.start();
+        TournamentResult result = new Tournament(config, 5).run(3000, 3, statistics);
+        isRunning.set(false);
+        monitor.join();
+        assertTrue(isConsistent[0]);
+
+        GameStatistics.Snapshot snapshot = statistics.snapshot();
+        assertEquals(3000, snapshot.getCountGames());
+        assertEquals(result.getCountUnfinishedGames(), snapshot.getCountUnfinishedGames());
+        for (int seat = 0; seat < 4; seat++) {
+            assertEquals(result.getWins(seat), snapshot.getWins(seat));
+        }
+        assertEquals(result.getTotalTurns(), snapshot.getTurns().getSum());
+        assertEquals(result.getMeanTurns(), snapshot.getTurns().getMean(), 1e-9);
+        assertEquals(result.getMaxTurns(), snapshot.getTurns().getMax());
+    }
+}
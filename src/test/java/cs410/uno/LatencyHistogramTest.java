@@ -0,0 +1,94 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    @Test
+    void testLatencyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals(0, histogram.getMean());
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean(), 1e-9);
+        assertEquals(1000, histogram.getValueAtPercentile(100));
+        assertEquals(1, histogram.getValueAtPercentile(0));
+        // Each percentile is within 12.5% above the exact value.
+        for (double percentile : new double[] {10, 50, 90, 99, 99.9}) {
+            long exact = (long) Math.ceil(percentile * 10);
+            long value = histogram.getValueAtPercentile(percentile);
+            assertTrue(value >= exact && value <= exact * 1.125, percentile + ": " + value);
+        }
+
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(1002, histogram.getCount());
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+        assertEquals(1, histogram.getValueAtPercentile(0.1));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    void testExpectedInterval() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordWithExpectedInterval(5, 10);
+        histogram.recordWithExpectedInterval(50, 0);
+        assertEquals(2, histogram.getCount());
+        // A stall of 45 held back the requests of 35, 25 and 15.
+        histogram.recordWithExpectedInterval(45, 10);
+        assertEquals(6, histogram.getCount());
+        assertEquals((5 + 50 + 45 + 35 + 25 + 15) / 6.0, histogram.getMean(), 1e-9);
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 1000; i++) {
+            long value = random.nextLong(16);
+            histogram.record(value);
+        }
+        for (int value = 0; value < 16; value++) {
+            long percentile = histogram.getValueAtPercentile(100.0 * value / 16);
+            assertTrue(percentile <= 15);
+        }
+        assertEquals(15, histogram.getMax());
+    }
+
+    @Test
+    void testConcurrentRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads[t].start();
+        }
+        // A reader sees a consistent, growing count while the threads record.
+        long previous = 0;
+        for (int i = 0; i < 100; i++) {
+            long count = histogram.getCount();
+            assertTrue(count >= previous);
+            previous = count;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(400_000, histogram.getCount());
+        assertEquals(99_999, histogram.getMax());
+    }
+}
@@ -0,0 +1,45 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadGeneratorTest {
+    private static final GameConfig CONFIG = new GameConfig(4, 7, 2, 2, 4);
+
+    @Test
+    void testClosedLoop() throws Exception {
+        try (TableServer server = new TableServer(1, 16, 2000);
+             GameClient client = new LocalGameClient(server)) {
+            LoadGenerator generator = new LoadGenerator(server, client, CONFIG, 8, 1);
+            assertEquals(8, server.getCountTables());
+            assertThrows(IllegalArgumentException.class, () -> generator.run(0, 0, 0, 0));
+            LoadGenerator.Report report = generator.run(50_000_000, 200_000_000, 0, 100_000);
+            assertTrue(report.getCountRequests() > 0);
+            assertEquals(0, report.getCountErrors());
+            assertEquals(0, report.getCountUnsent());
+            // Each request is counted once, plus those held back by the slow ones.
+            assertTrue(report.getResponseTime().getCount() >= report.getCountRequests());
+            assertEquals(report.getCountRequests(), report.getServiceTime().getCount());
+            assertTrue(report.toString().contains("closed loop"));
+        }
+    }
+
+    @Test
+    void testOpenLoopOverSocket() throws Exception {
+        try (TableServer server = new TableServer(1, 16, 2000);
+             SocketGameServer socketServer = new SocketGameServer(server);
+             GameClient client = new SocketGameClient(socketServer.getPort())) {
+            LoadGenerator generator = new LoadGenerator(server, client, CONFIG, 16, 2);
+            LoadGenerator.Report report = generator.run(50_000_000, 300_000_000, 400, 0);
+            assertEquals(0, report.getCountErrors());
+            // 400 requests per second for 0.3 s, give or take those of the first interval.
+            long countDue = report.getCountRequests() + report.getCountUnsent();
+            assertTrue(countDue >= 100 && countDue <= 140, "due: " + countDue);
+            assertEquals(countDue, report.getResponseTime().getCount());
+            // A response takes at least as long from when it was due as from when it was sent.
+            assertTrue(report.getResponseTime().getValueAtPercentile(50)
+                    >= report.getServiceTime().getValueAtPercentile(50));
+            assertTrue(report.toString().contains("open loop at 400 requests/s"));
+        }
+    }
+}
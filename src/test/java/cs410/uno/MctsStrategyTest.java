@@ -0,0 +1,77 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MctsStrategyTest {
+    @Test
+    void testMctsStrategy() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new MctsStrategy(Duration.ZERO, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MctsStrategy(Duration.ofMillis(5), 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new MctsStrategy(Duration.ofMillis(5), 0, 1, RandomStrategy.INSTANCE));
+    }
+
+    @Test
+    void testChooseCard() {
+        try (MctsStrategy mcts = new MctsStrategy(Duration.ofSeconds(10), 100, 2,
+                RandomStrategy.INSTANCE)) {
+            GameState game = new GameState(3, 7, 2, 2, 4, new SplittableRandom(1), GameEventListener.NONE);
+            int[] legalMoves = new int[Card.NUM_CODES];
+            for (int i = 0; i < 100 && game.getWinnerIdx() < 0; i++) {
+                int count = game.getLegalMoves(legalMoves);
+                if (count > 1) {
+                    int move = mcts.chooseCard(game, legalMoves, count);
+                    assertTrue(move >= 0 && move < count);
+                }
+                game.runOneTurn();
+            }
+            // The simulation limit stops each thread long before the time budget.
+            assertTrue(mcts.getCountDecisions() > 0);
+            assertEquals(200 * mcts.getCountDecisions(), mcts.getCountSimulations());
+            assertTrue(mcts.getSimulationsPerSecond() > 0);
+        }
+    }
+
+    @Test
+    void testChooseWildColor() {
+        MctsStrategy mcts = new MctsStrategy(Duration.ofMillis(1), 1);
+        GameState game = new GameState(2, 7, 2, 2, 4, new SplittableRandom(2), GameEventListener.NONE);
+        int color = mcts.chooseWildColor(game);
+        Player player = game.getPlayer(game.getCurrentPlayerIdx());
+        for (int other = 0; other < Card.NO_COLOR; other++) {
+            assertTrue(countColor(player, color) >= countColor(player, other));
+        }
+    }
+
+    @Test
+    void testPlaysWholeGames() {
+        try (MctsStrategy mcts = new MctsStrategy(Duration.ofMillis(2), 2)) {
+            for (long seed = 0; seed < 5; seed++) {
+                GameState game = new GameState(2, 7, 1, 1, 2, new SplittableRandom(seed),
+                        GameEventListener.NONE);
+                game.getPlayer(0).setStrategy(mcts);
+                for (int i = 0; i < 10_000 && !game.isGameOver(); i++) {
+                    game.runOneTurn();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of colored cards of the given color in the hand of the player.
+     */
+    private static int countColor(Player player, int color) {
+        int count = 0;
+        for (Card card : player.getHand()) {
+            if (!card.isWild() && card.getColor().equals(Card.getColors()[color])) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
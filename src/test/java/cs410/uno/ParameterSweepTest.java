@@ -0,0 +1,75 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParameterSweepTest {
+    @Test
+    void testGrid() {
+        List<GameConfig> configs = ParameterSweep.grid(new int[] {1, 2, 10}, new int[] {7},
+                new int[] {1, 2}, new int[] {0}, new int[] {0, 4});
+        // One player is too few, and 40 cards cannot deal 7 cards to 10 players.
+        assertEquals(6, configs.size());
+        assertTrue(configs.contains(new GameConfig(2, 7, 1, 0, 4)));
+        assertTrue(configs.contains(new GameConfig(10, 7, 2, 0, 0)));
+        assertFalse(configs.contains(new GameConfig(10, 7, 1, 0, 4)));
+    }
+
+    @Test
+    void testSweep() {
+        assertThrows(IllegalArgumentException.class, () -> new ParameterSweep(List.of(), 1, 10,
+                new ParameterSweep.Objective(ParameterSweep.Metric.TURNS, false, 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParameterSweep.Objective(ParameterSweep.Metric.TURNS, false, 0));
+
+        // Games with larger hands take longer, so the short games dominate them.
+        List<GameConfig> configs = ParameterSweep.grid(new int[] {4}, new int[] {3, 5, 7, 15},
+                new int[] {2}, new int[] {2}, new int[] {4});
+        ParameterSweep sweep = new ParameterSweep(configs, 7, 50_000,
+                new ParameterSweep.Objective(ParameterSweep.Metric.TURNS, false, 0.5));
+        List<ParameterSweep.Point> points = sweep.run(2);
+        assertEquals(4, points.size());
+        assertEquals(configs.get(0), points.get(0).getConfig());
+        assertNotEquals(ParameterSweep.Status.DOMINATED, points.get(0).getStatus());
+        assertEquals(ParameterSweep.Status.DOMINATED, points.get(3).getStatus());
+        for (ParameterSweep.Point point : points) {
+            assertNotEquals(ParameterSweep.Status.RUNNING, point.getStatus());
+            assertTrue(point.getCountGames() >= ParameterSweep.MIN_GAMES);
+            assertEquals(point.getCountGames(), point.getStatistics().getTurns().getCount());
+            if (point.getStatus() == ParameterSweep.Status.CONVERGED) {
+                assertTrue(point.getHalfWidth(ParameterSweep.Metric.TURNS) <= 0.5);
+            }
+        }
+        // The dominated configuration stopped before the budget.
+        assertTrue(points.get(3).getCountGames() < 50_000);
+        assertTrue(points.get(0).getMean(ParameterSweep.Metric.TURNS)
+                < points.get(3).getMean(ParameterSweep.Metric.TURNS));
+
+        // The result does not depend on the number of threads.
+        List<ParameterSweep.Point> again = sweep.run(1);
+        for (int i = 0; i < points.size(); i++) {
+            assertEquals(points.get(i).getStatus(), again.get(i).getStatus());
+            assertEquals(points.get(i).getCountGames(), again.get(i).getCountGames());
+            assertEquals(points.get(i).getMean(ParameterSweep.Metric.TURNS),
+                    again.get(i).getMean(ParameterSweep.Metric.TURNS));
+        }
+    }
+
+    @Test
+    void testBudget() {
+        // Two metrics that cannot reach their precision within the budget.
+        List<GameConfig> configs = List.of(new GameConfig(4, 7, 1, 1, 2));
+        ParameterSweep sweep = new ParameterSweep(configs, 3, 3000, 100, 2,
+                new ParameterSweep.Objective(ParameterSweep.Metric.FIRST_SEAT_WIN_RATE, true, 1e-4),
+                new ParameterSweep.Objective(ParameterSweep.Metric.UNFINISHED_RATE, false, 1e-4));
+        ParameterSweep.Point point = sweep.run(2).get(0);
+        assertEquals(ParameterSweep.Status.EXHAUSTED, point.getStatus());
+        assertEquals(3000, point.getCountGames());
+        assertEquals(point.getStatistics().getWinRate(0),
+                point.getMean(ParameterSweep.Metric.FIRST_SEAT_WIN_RATE));
+        assertEquals(2 * point.getStatistics().getWinRateError(0),
+                point.getHalfWidth(ParameterSweep.Metric.FIRST_SEAT_WIN_RATE), 1e-12);
+        assertTrue(point.toString().contains("EXHAUSTED after 3000 games"));
+    }
+}
@@ -90,4 +90,80 @@ class PlayerTest {
         assertEquals("Alfredo", player1.toString());
         assertEquals("Jean", player2.toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHandIndex() {
+        Player player = new Player("Mia");
+        Card red1 = new Card("RED", 1);
+        Card wild = new Card("WILD");
+        player.addToHand(red1);
+        player.addToHand(wild);
+        player.addToHand(red1);
+        assertEquals(3, player.getHandSize());
+        assertEquals(2, player.countCards(red1));
+        assertEquals((1L << red1.getCode()) | (1L << wild.getCode()), player.getHandMask());
+
+        player.removeCard(red1);
+        assertEquals(1, player.countCards(red1));
+        assertNotEquals(0, player.getHandMask() & (1L << red1.getCode()));
+        player.removeCard(red1);
+        assertEquals(0, player.getHandMask() & (1L << red1.getCode()));
+        assertEquals(List.of(wild), player.getHand());
+
+        player.removeCard(red1);
+        assertEquals(List.of(wild), player.getHand());
+    }
+
+    @Test
+    void testLargeHand() {
+        Player player = new Player("Ana");
+        Deck deck = new Deck(10, 5, 20);
+        int total = deck.getDrawPileSize();
+        deck.deal(player, total);
+        assertEquals(total, player.getHandSize());
+        while (!player.isHandEmpty()) {
+            Card card = player.getCard(player.getHandSize() / 2);
+            int copies = player.countCards(card);
+            player.removeCard(card);
+            assertEquals(copies - 1, player.countCards(card));
+            int inHand = 0;
+            for (Card other : player.getHand()) {
+                if (other.equals(card)) {
+                    inHand++;
+                }
+            }
+            assertEquals(copies - 1, inHand);
+        }
+        assertEquals(0, player.getHandMask());
+    }
+
+    @Test
+    void testHandHash() {
+        Player player1 = new Player("Ana");
+        Player player2 = new Player("Leo");
+        assertEquals(0, player1.getHandHash());
+        Card red1 = new Card("Red", 1);
+        Card blue2 = new Card("Blue", 2);
+        Card wild = new Card("WILD");
+
+        // Same cards in another order, the same hash.
+        player1.addToHand(red1);
+        player1.addToHand(wild);
+        player1.addToHand(red1);
+        player2.addToHand(wild);
+        player2.addToHand(red1);
+        player2.addToHand(red1);
+        assertEquals(player1.getHandHash(), player2.getHandHash());
+
+        long hash = player1.getHandHash();
+        player1.addToHand(blue2);
+        assertNotEquals(hash, player1.getHandHash());
+        player1.removeCard(blue2);
+        assertEquals(hash, player1.getHandHash());
+        player1.removeCard(red1);
+        assertNotEquals(hash, player1.getHandHash());
+
+        player1.clearHand();
+        assertEquals(0, player1.getHandHash());
+    }
+}
@@ -0,0 +1,67 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RunningStatsTest {
+    @Test
+    void testRunningStats() {
+        RunningStats stats = new RunningStats();
+        assertEquals(0, stats.getCount());
+        assertEquals(0, stats.getMean());
+        assertEquals(0, stats.getVariance());
+        assertEquals(0, stats.getMin());
+        assertEquals(0, stats.getMax());
+
+        for (int value : new int[] {2, 4, 4, 4, 5, 5, 7, 9}) {
+            stats.add(value);
+        }
+        assertEquals(8, stats.getCount());
+        assertEquals(40, stats.getSum());
+        assertEquals(5, stats.getMean(), 1e-12);
+        assertEquals(32.0 / 7, stats.getVariance(), 1e-12);
+        assertEquals(Math.sqrt(32.0 / 7), stats.getStandardDeviation(), 1e-12);
+        assertEquals(Math.sqrt(32.0 / 7 / 8), stats.getStandardError(), 1e-12);
+        assertEquals(2, stats.getMin());
+        assertEquals(9, stats.getMax());
+
+        stats.reset();
+        assertEquals(0, stats.getCount());
+        assertEquals(0, stats.getSum());
+    }
+
+    @Test
+    void testLargeMean() {
+        // The variance stays accurate when the mean is large compared to the spread.
+        RunningStats stats = new RunningStats();
+        for (int i = 0; i < 1_000_000; i++) {
+            stats.add(1e9 + (i % 2));
+        }
+        assertEquals(0.25, stats.getVariance(), 1e-6);
+    }
+
+    @Test
+    void testMerge() {
+        SplittableRandom random = new SplittableRandom(7);
+        RunningStats all = new RunningStats();
+        RunningStats first = new RunningStats();
+        RunningStats second = new RunningStats();
+        for (int i = 0; i < 1000; i++) {
+            double value = random.nextDouble() * 100;
+            all.add(value);
+            (i < 300 ? first : second).add(value);
+        }
+        first.merge(second);
+        first.merge(new RunningStats());
+        assertEquals(all.getCount(), first.getCount());
+        assertEquals(all.getMean(), first.getMean(), 1e-9);
+        assertEquals(all.getVariance(), first.getVariance(), 1e-6);
+        assertEquals(all.getMin(), first.getMin());
+        assertEquals(all.getMax(), first.getMax());
+
+        RunningStats empty = new RunningStats();
+        empty.merge(all);
+        assertEquals(all.getVariance(), empty.getVariance(), 1e-9);
+    }
+}
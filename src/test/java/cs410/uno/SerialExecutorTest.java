@@ -0,0 +1,83 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerialExecutorTest {
+    @Test
+    void testOrder() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            SerialExecutor executor = new SerialExecutor(pool, 1000);
+            List<Integer> order = new ArrayList<>();
+            AtomicInteger running = new AtomicInteger();
+            CountDownLatch done = new CountDownLatch(1000);
+            for (int i = 0; i < 1000; i++) {
+                int task = i;
+                executor.execute(() -> {
+                    // Tasks never overlap, so the list needs no lock.
+                    assertEquals(1, running.incrementAndGet());
+                    order.add(task);
+                    running.decrementAndGet();
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i, order.get(i));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testBound() throws InterruptedException {
+        assertThrows(IllegalArgumentException.class, () -> new SerialExecutor(Runnable::run, 0));
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            SerialExecutor executor = new SerialExecutor(pool, 2);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(2);
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+            });
+            executor.execute(done::countDown);
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+            release.countDown();
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            // A failing task does not stop the tasks after it.
+            CountDownLatch after = new CountDownLatch(1);
+            Thread.setDefaultUncaughtExceptionHandler((thread, e) -> { });
+            executor.execute(() -> {
+                throw new IllegalStateException();
+            });
+            executor.execute(after::countDown);
+            assertTrue(after.await(10, TimeUnit.SECONDS));
+
+            // Nor does an Error, which the drain lets through to the pool's thread.
+            CountDownLatch afterError = new CountDownLatch(1);
+            executor.execute(() -> {
+                throw new AssertionError();
+            });
+            executor.execute(afterError::countDown);
+            assertTrue(afterError.await(10, TimeUnit.SECONDS));
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(null);
+            pool.shutdown();
+        }
+    }
+}
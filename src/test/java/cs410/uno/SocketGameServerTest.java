@@ -0,0 +1,74 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SocketGameServerTest {
+    @Test
+    void testGameOverSocket() throws Exception {
+        try (TableServer server = new TableServer(2, 16, 2000);
+             SocketGameServer socketServer = new SocketGameServer(server);
+             SocketGameClient client = new SocketGameClient(socketServer.getPort())) {
+            GameConfig config = new GameConfig(4, 7, 2, 2, 4);
+            int tableId = server.createTable(config, 9, null, RandomStrategy.INSTANCE,
+                    RandomStrategy.INSTANCE, RandomStrategy.INSTANCE);
+            TableSnapshot local = server.getState(tableId, 0).get();
+            TableSnapshot remote = client.getState(tableId, 0).get();
+            assertEquals(local.toString(), remote.toString());
+            assertEquals(local.getHandMask(), remote.getHandMask());
+            assertEquals(local.getCountHandCodes(), remote.getCountHandCodes());
+            for (int code = 0; code < Card.NUM_CODES; code++) {
+                assertEquals(local.getCountCards(code), remote.getCountCards(code));
+            }
+            assertEquals(local.getPlayableMask(), remote.getPlayableMask());
+
+            TableSnapshot snapshot = TableServerTest.playGame(client, tableId, 0);
+            assertTrue(snapshot.isOver());
+            assertInstanceOf(IllegalStateException.class,
+                    TableServerTest.failure(client.play(tableId, 0, GameState.DRAW, -1)));
+            assertInstanceOf(IllegalArgumentException.class,
+                    TableServerTest.failure(client.play(tableId, 1, GameState.DRAW, -1)));
+            assertInstanceOf(IllegalArgumentException.class,
+                    TableServerTest.failure(client.getState(tableId + 1, 0)));
+            assertEquals(2, client.newGame(tableId, 0).get().getCountGames());
+        }
+    }
+
+    @Test
+    void testManyRequests() throws Exception {
+        // Responses to requests sent without waiting all come back, each to its request.
+        try (TableServer server = new TableServer(2, 1024, 2000);
+             SocketGameServer socketServer = new SocketGameServer(server);
+             SocketGameClient client = new SocketGameClient(socketServer.getPort())) {
+            int[] tableIds = new int[4];
+            for (int i = 0; i < tableIds.length; i++) {
+                tableIds[i] = server.createTable(new GameConfig(2, 7, 1, 1, 4), i, null, null);
+            }
+            List<CompletableFuture<TableSnapshot>> futures = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                futures.add(client.getState(tableIds[i % tableIds.length], i % 2));
+            }
+            for (int i = 0; i < 2000; i++) {
+                TableSnapshot snapshot = futures.get(i).get();
+                assertEquals(tableIds[i % tableIds.length], snapshot.getTableId());
+                assertEquals(i % 2, snapshot.getSeat());
+            }
+        }
+    }
+
+    @Test
+    void testClose() throws Exception {
+        try (TableServer server = new TableServer(1, 16, 2000);
+             SocketGameServer socketServer = new SocketGameServer(server)) {
+            SocketGameClient client = new SocketGameClient(socketServer.getPort());
+            int tableId = server.createTable(new GameConfig(2, 7, 1, 1, 4), 1, null, null);
+            assertNotNull(client.getState(tableId, 0).get());
+            client.close();
+            CompletableFuture<TableSnapshot> future = client.getState(tableId, 0);
+            assertTrue(TableServerTest.failure(future) instanceof RuntimeException);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StrategyComparisonTest {
+    @Test
+    void testComparisonResult() {
+        ComparisonResult result = new ComparisonResult(2);
+        assertEquals(0, result.getDifference());
+        assertEquals(0, result.getStandardError());
+        result.recordSeed(2, 1, 0);
+        result.recordSeed(1, 1, 1);
+        ComparisonResult other = new ComparisonResult(2);
+        other.recordSeed(1, 0, 0);
+        other.recordSeed(0, 0, 0);
+        result.merge(other);
+        assertEquals(4, result.getCountSeeds());
+        assertEquals(16, result.getCountGames());
+        assertEquals(1, result.getCountUnfinishedGames());
+        assertEquals(0.5, result.getCandidateWinRate());
+        assertEquals(0.25, result.getBaselineWinRate());
+        assertEquals(0.25, result.getDifference());
+        // Differences per seed of 1, 0, 1, 0 wins out of 2 games.
+        assertEquals(Math.sqrt(1.0 / 3 / 4) / 2, result.getStandardError(), 1e-12);
+        assertEquals(Math.sqrt((0.25 + 0.1875) / 8), result.getIndependentStandardError(), 1e-12);
+        assertTrue(result.toString().contains("Difference: 0.2500"));
+    }
+
+    @Test
+    void testSameStrategy() {
+        // The same strategy plays exactly the same games, so there is no difference at all.
+        ComparisonResult result = new StrategyComparison(new GameConfig(3, 7, 1, 1, 4), 3,
+                RandomStrategy.INSTANCE, RandomStrategy.INSTANCE).run(200, 2);
+        assertEquals(200, result.getCountSeeds());
+        assertEquals(1200, result.getCountGames());
+        assertEquals(result.getCandidateWins(), result.getBaselineWins());
+        assertEquals(0, result.getStandardError());
+        // A strategy against a table of itself wins a fair share of the games.
+        assertEquals(1.0 / 3, result.getBaselineWinRate(), 0.05);
+    }
+
+    @Test
+    void testRun() {
+        GameConfig config = new GameConfig(4, 7, 2, 2, 4);
+        StrategyComparison comparison = new StrategyComparison(config, 9,
+                RandomStrategy.INSTANCE, FirstPlayableStrategy.INSTANCE);
+        ComparisonResult result = comparison.run(2000, 2);
+        assertEquals(2000, result.getCountSeeds());
+        // Against a table of default players, the random strategy wins less often,
+        // and the pairing needs fewer games than independent games to tell.
+        assertTrue(result.getDifference() < -3 * result.getStandardError());
+        assertTrue(result.getVarianceReduction() > 1.5);
+        assertEquals(0.25, result.getBaselineWinRate(), 0.02);
+
+        // The result does not depend on the number of threads.
+        ComparisonResult again = comparison.run(2000, 3);
+        assertEquals(result.getCandidateWins(), again.getCandidateWins());
+        assertEquals(result.getBaselineWins(), again.getBaselineWins());
+        assertEquals(result.getStandardError(), again.getStandardError());
+
+        assertThrows(IllegalArgumentException.class, () -> new StrategyComparison(config, 1,
+                0, RandomStrategy.INSTANCE, RandomStrategy.INSTANCE, RandomStrategy.INSTANCE));
+        assertThrows(IllegalArgumentException.class, () -> comparison.run(-1, 1));
+    }
+}
@@ -0,0 +1,84 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StrategyTest {
+    @Test
+    void testLegalMoves() {
+        GameState game = new GameState(3, 10, 2, 2, 4, new SplittableRandom(3), GameEventListener.NONE);
+        int[] buffer = new int[Card.NUM_CODES];
+        int count = game.getLegalMoves(buffer);
+        Player player = game.getPlayer(game.getCurrentPlayerIdx());
+        for (int i = 0; i < count; i++) {
+            Card card = Card.fromCode(buffer[i]);
+            assertTrue(game.isPlayable(card));
+            assertTrue(player.countCards(card) > 0);
+            if (i > 0) {
+                assertTrue(buffer[i - 1] < buffer[i]);
+            }
+        }
+        int playable = 0;
+        for (Card card : player.getHand()) {
+            if (game.isPlayable(card)) {
+                playable++;
+            }
+        }
+        assertEquals(playable > 0, count > 0);
+    }
+
+    @Test
+    void testStrategyIsAsked() {
+        int[] calls = new int[2];
+        Strategy lastMove = new Strategy() {
+            @Override
+            public int chooseCard(GameView view, int[] legalMoves, int countLegalMoves) {
+                calls[0]++;
+                return countLegalMoves - 1;
+            }
+
+            @Override
+            public int chooseWildColor(GameView view) {
+                calls[1]++;
+                return 2;
+            }
+        };
+        GameState game = new GameState(2, 7, 1, 1, 8, new SplittableRandom(9), GameEventListener.NONE);
+        game.getPlayer(0).setStrategy(lastMove);
+        game.getPlayer(1).setStrategy(lastMove);
+        for (int i = 0; i < 200 && game.getWinnerIdx() < 0; i++) {
+            game.runOneTurn();
+        }
+        assertTrue(calls[0] > 0);
+    }
+
+    @Test
+    void testIllegalMove() {
+        Strategy illegal = new Strategy() {
+            @Override
+            public int chooseCard(GameView view, int[] legalMoves, int countLegalMoves) {
+                return countLegalMoves;
+            }
+
+            @Override
+            public int chooseWildColor(GameView view) {
+                return 0;
+            }
+        };
+        Player player = new Player("Eve", illegal);
+        assertThrows(IllegalStateException.class,
+                () -> player.chooseCard(null, new int[Card.NUM_CODES], 1));
+    }
+
+    @Test
+    void testTournamentWithStrategies() {
+        Tournament tournament = new Tournament(new GameConfig(2, 7, 1, 1, 4), 17,
+                Tournament.DEFAULT_MAX_TURNS, FirstPlayableStrategy.INSTANCE, RandomStrategy.INSTANCE);
+        TournamentResult result = tournament.run(200, 2);
+        assertEquals(200, result.getCountGames());
+        assertThrows(IllegalArgumentException.class,
+                () -> new Tournament(new GameConfig(3, 7, 1, 1, 4), 17,
+                        Tournament.DEFAULT_MAX_TURNS, RandomStrategy.INSTANCE));
+    }
+}
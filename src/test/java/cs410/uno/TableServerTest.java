@@ -0,0 +1,168 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableServerTest {
+    /**
+     * @return the lowest playable card of the seat, or DRAW.
+     */
+    static int chooseMove(TableSnapshot snapshot) {
+        long playable = snapshot.getPlayableMask();
+        return playable == 0 ? GameState.DRAW : Long.numberOfTrailingZeros(playable);
+    }
+
+    /**
+     * Plays the remote seat until the game is over.
+     * @return the last snapshot of the seat.
+     */
+    static TableSnapshot playGame(GameClient client, int tableId, int seat) throws Exception {
+        TableSnapshot snapshot = client.getState(tableId, seat).get();
+        while (!snapshot.isOver()) {
+            assertTrue(snapshot.isMyTurn());
+            snapshot = client.play(tableId, seat, chooseMove(snapshot), 0).get();
+        }
+        return snapshot;
+    }
+
+    static Throwable failure(CompletableFuture<TableSnapshot> future) {
+        return assertThrows(ExecutionException.class, future::get).getCause();
+    }
+
+    @Test
+    void testRemoteSeat() throws Exception {
+        try (TableServer server = new TableServer(2, 16, 2000);
+             GameClient client = new LocalGameClient(server)) {
+            GameConfig config = new GameConfig(3, 7, 2, 2, 4);
+            int tableId = server.createTable(config, 5, RandomStrategy.INSTANCE, null,
+                    FirstPlayableStrategy.INSTANCE);
+            TableSnapshot snapshot = client.getState(tableId, 1).get();
+            assertEquals(tableId, snapshot.getTableId());
+            assertEquals(1, snapshot.getCountGames());
+            assertEquals(3, snapshot.getCountPlayers());
+            assertTrue(snapshot.isMyTurn());
+            assertEquals(snapshot.getHandMask() & snapshot.getPlayableMask(), snapshot.getPlayableMask());
+
+            // Errors: a bot's seat, an illegal move, a seat out of the table, an unknown table.
+            assertInstanceOf(IllegalArgumentException.class,
+                    failure(client.play(tableId, 0, GameState.DRAW, -1)));
+            int illegal = snapshot.getPlayableMask() == 0 ? Long.numberOfTrailingZeros(
+                    snapshot.getHandMask()) : GameState.DRAW;
+            assertInstanceOf(IllegalArgumentException.class,
+                    failure(client.play(tableId, 1, illegal, 0)));
+            assertInstanceOf(IllegalArgumentException.class, failure(client.getState(tableId, 3)));
+            assertInstanceOf(IllegalArgumentException.class, failure(client.getState(tableId + 1, 0)));
+
+            snapshot = playGame(client, tableId, 1);
+            assertTrue(snapshot.getWinnerIdx() >= 0 || snapshot.getTurnCount() >= 2000);
+            assertInstanceOf(IllegalStateException.class,
+                    failure(client.play(tableId, 1, GameState.DRAW, -1)));
+
+            // The next game is dealt from another seed.
+            TableSnapshot next = client.newGame(tableId, 1).get();
+            assertEquals(2, next.getCountGames());
+            assertFalse(next.isOver());
+            assertTrue(server.closeTable(tableId));
+            assertEquals(0, server.getCountTables());
+        }
+    }
+
+    @Test
+    void testHandCounts() throws Exception {
+        // A hand holding several copies of a card reports each copy.
+        try (TableServer server = new TableServer(1, 16, 2000)) {
+            int tableId = server.createTable(new GameConfig(2, 20, 2, 2, 8), 3, null, null);
+            TableSnapshot snapshot = server.getState(tableId, 0).get();
+            int countCards = 0;
+            int maxCopies = 0;
+            for (int i = 0; i < snapshot.getCountHandCodes(); i++) {
+                int code = snapshot.getHandCode(i);
+                assertNotEquals(0, snapshot.getHandMask() & (1L << code));
+                assertEquals(snapshot.getHandCount(i), snapshot.getCountCards(code));
+                countCards += snapshot.getHandCount(i);
+                maxCopies = Math.max(maxCopies, snapshot.getHandCount(i));
+            }
+            assertEquals(Long.bitCount(snapshot.getHandMask()), snapshot.getCountHandCodes());
+            assertEquals(snapshot.getHandSize(0), countCards);
+            assertTrue(maxCopies > 1);
+        }
+    }
+
+    @Test
+    void testFailingBot() throws Exception {
+        // An Error of a bot's strategy fails the request, and the table keeps serving.
+        Strategy failing = new Strategy() {
+            @Override
+            public int chooseCard(GameView view, int[] legalMoves, int countLegalMoves) {
+                throw new AssertionError("Failing bot");
+            }
+
+            @Override
+            public int chooseWildColor(GameView view) {
+                throw new AssertionError("Failing bot");
+            }
+        };
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> { });
+        try (TableServer server = new TableServer(1, 16, 2000)) {
+            int tableId = server.createTable(new GameConfig(2, 7, 1, 1, 4), 1, null, failing);
+            // The bot only calls its strategy once it has a playable card.
+            CompletableFuture<TableSnapshot> response = server.getState(tableId, 0);
+            while (!response.isCompletedExceptionally()) {
+                TableSnapshot snapshot = response.get();
+                assertTrue(snapshot.isMyTurn());
+                response = server.play(tableId, 0, chooseMove(snapshot), 0);
+                // Waits for the response, whether it failed or not; a wedged table times out.
+                response.handle((next, error) -> null).get(10, TimeUnit.SECONDS);
+            }
+            assertInstanceOf(AssertionError.class, failure(response));
+            for (int i = 0; i < 100; i++) {
+                assertEquals(tableId, server.getState(tableId, 0).get(10, TimeUnit.SECONDS).getTableId());
+            }
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(null);
+        }
+    }
+
+    @Test
+    void testManyTables() throws Exception {
+        try (TableServer server = new TableServer(2, 16, 2000)) {
+            GameClient client = new LocalGameClient(server);
+            GameConfig config = new GameConfig(2, 7, 1, 1, 4);
+            List<Integer> tableIds = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                tableIds.add(server.createTable(config, i, null, null));
+            }
+            assertEquals(200, server.getCountTables());
+            // Both seats of every table play at once, each waiting for its turn.
+            List<CompletableFuture<TableSnapshot>> games = new ArrayList<>();
+            for (int tableId : tableIds) {
+                for (int seat = 0; seat < 2; seat++) {
+                    games.add(playAsync(client, tableId, seat, client.getState(tableId, seat)));
+                }
+            }
+            for (CompletableFuture<TableSnapshot> game : games) {
+                assertTrue(game.get().isOver());
+            }
+        }
+    }
+
+    /**
+     * Plays a seat until the game is over, asking for the state again until it is its turn.
+     */
+    private static CompletableFuture<TableSnapshot> playAsync(GameClient client, int tableId, int seat,
+                                                              CompletableFuture<TableSnapshot> state) {
+        return state.thenCompose(snapshot -> {
+            if (snapshot.isOver()) {
+                return CompletableFuture.completedFuture(snapshot);
+            }
+            return playAsync(client, tableId, seat, snapshot.isMyTurn()
+                    ? client.play(tableId, seat, chooseMove(snapshot), 0)
+                    : client.getState(tableId, seat));
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentTest {
+    @Test
+    void testRun() {
+        Tournament tournament = new Tournament(new GameConfig(4, 7, 1, 1, 4), 11);
+        TournamentResult result = tournament.run(1000, 4);
+        assertEquals(1000, result.getCountGames());
+        long wins = 0;
+        for (int seat = 0; seat < 4; seat++) {
+            wins += result.getWins(seat);
+        }
+        assertEquals(1000, wins + result.getCountUnfinishedGames());
+        assertTrue(result.getMinTurns() > 0);
+        assertTrue(result.getMeanTurns() <= result.getMaxTurns());
+    }
+
+    @Test
+    void testRunIsIndependentOfThreads() {
+        Tournament tournament = new Tournament(new GameConfig(3, 5, 2, 1, 2), 5);
+        TournamentResult result1 = tournament.run(600, 1);
+        TournamentResult result2 = tournament.run(600, 3);
+        assertEquals(result1.getTotalTurns(), result2.getTotalTurns());
+        for (int seat = 0; seat < 3; seat++) {
+            assertEquals(result1.getWins(seat), result2.getWins(seat));
+        }
+    }
+
+    @Test
+    void testIllegalInput() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new Tournament(new GameConfig(1, 7, 1, 1, 0), 1).run(10, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Tournament(new GameConfig(4, 7, 1, 1, 0), 1, 0));
+    }
+}
@@ -0,0 +1,94 @@
+package cs410.uno;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+    @Test
+    void testTranspositionTable() {
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(1));
+        assertEquals(1024, new TranspositionTable(1024).getCapacity());
+        assertEquals(1024, new TranspositionTable(2000).getCapacity());
+
+        TranspositionTable table = new TranspositionTable(1024);
+        assertThrows(IllegalArgumentException.class, () -> table.store(1, 0, -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> table.store(1, 0, 0, -2));
+        assertThrows(IllegalArgumentException.class, () -> table.store(1, 0, 0, Card.NUM_CODES));
+        assertEquals(TranspositionTable.MISS, table.probe(42));
+
+        table.store(42, 0.25f, 3, 17);
+        long entry = table.probe(42);
+        assertNotEquals(TranspositionTable.MISS, entry);
+        assertEquals(0.25f, TranspositionTable.valueOf(entry));
+        assertEquals(3, TranspositionTable.depthOf(entry));
+        assertEquals(17, TranspositionTable.moveOf(entry));
+        assertEquals(TranspositionTable.MISS, table.probe(43));
+
+        table.store(42, -1f, 100_000, GameState.DRAW);
+        entry = table.probe(42);
+        assertEquals(-1f, TranspositionTable.valueOf(entry));
+        assertEquals(TranspositionTable.MAX_DEPTH, TranspositionTable.depthOf(entry));
+        assertEquals(GameState.DRAW, TranspositionTable.moveOf(entry));
+
+        table.clear();
+        assertEquals(TranspositionTable.MISS, table.probe(42));
+    }
+
+    @Test
+    void testReplacement() {
+        // A table of one bucket: hashes always collide.
+        TranspositionTable table = new TranspositionTable(2);
+        table.store(1, 1, 10, 0);
+        table.store(2, 2, 5, 0);
+        table.store(3, 3, 5, 0);
+        // The deep entry stays, the shallow ones replace each other.
+        assertEquals(1f, TranspositionTable.valueOf(table.probe(1)));
+        assertEquals(TranspositionTable.MISS, table.probe(2));
+        assertEquals(3f, TranspositionTable.valueOf(table.probe(3)));
+
+        // A deeper entry takes the first place and moves the deep one to the second.
+        table.store(4, 4, 20, 0);
+        assertEquals(4f, TranspositionTable.valueOf(table.probe(4)));
+        assertEquals(1f, TranspositionTable.valueOf(table.probe(1)));
+        assertEquals(TranspositionTable.MISS, table.probe(3));
+
+        // In a new search, a shallow entry replaces a deep one of the old search.
+        table.newSearch();
+        table.store(5, 5, 1, 0);
+        assertEquals(5f, TranspositionTable.valueOf(table.probe(5)));
+        assertEquals(4f, TranspositionTable.valueOf(table.probe(4)));
+        assertEquals(TranspositionTable.MISS, table.probe(1));
+    }
+
+    @Test
+    void testConcurrentAccess() throws InterruptedException {
+        // Threads store values derived from the hash in a small table; a probe never
+        // returns a value stored for another hash.
+        TranspositionTable table = new TranspositionTable(64);
+        Thread[] threads = new Thread[4];
+        boolean[] failed = new boolean[threads.length];
+        for (int t = 0; t < threads.length; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(thread);
+                for (int i = 0; i < 200_000; i++) {
+                    long hash = random.nextLong(1000) * 0x9E3779B97F4A7C15L;
+                    long entry = table.probe(hash);
+                    if (entry != TranspositionTable.MISS
+                            && TranspositionTable.valueOf(entry) != (float) (hash % 1000)) {
+                        failed[thread] = true;
+                    }
+                    table.store(hash, hash % 1000, random.nextInt(50), 0);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (boolean f : failed) {
+            assertFalse(f);
+        }
+    }
+}